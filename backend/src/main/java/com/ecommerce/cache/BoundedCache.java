@@ -0,0 +1,349 @@
+package com.ecommerce.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Size-bounded Spring cache on Caffeine (W-TinyLFU admission and eviction) with expire-after-write and
+ * refresh-after-write. Once an entry is older than the refresh age, the next reader is handed a miss and
+ * reloads it while concurrent readers keep getting the current value until the reload is put back.
+ * <p>
+ * Synchronized reads ({@code @Cacheable(sync = true)}) share one in-flight load per key, and an entry may be
+ * refreshed early with a probability that grows as it nears expiry, scaled by how long it took to load
+ * (XFetch), so hot keys are reloaded before they expire instead of stampeding after.
+ * <p>
+ * With a {@link CacheTagger}, entries are indexed by tag so writers can evict just the entries they affect.
+ */
+public class BoundedCache extends AbstractValueAdaptingCache {
+
+    private static final long REFRESH_CLAIM_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final int TAG_SWEEP_INTERVAL = 1024;
+
+    private final String name;
+    private final Cache<Object, CacheEntry> cache;
+    private final Ticker ticker;
+    private final long refreshAfterWriteNanos;
+    private final long expireAfterWriteNanos;
+    private final double earlyRefreshBeta;
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Object, Long> refreshClaims = new ConcurrentHashMap<>();
+    private final CacheTagger tagger;
+    private final ConcurrentHashMap<String, Set<Object>> keysByTag = new ConcurrentHashMap<>();
+    private final AtomicInteger taggedWrites = new AtomicInteger();
+
+    public BoundedCache(String name, CacheProperties.Spec spec, CacheTagger tagger) {
+        this(name, spec, tagger, Ticker.systemTicker());
+    }
+
+    BoundedCache(String name, CacheProperties.Spec spec, CacheTagger tagger, Ticker ticker) {
+        super(true);
+        this.name = name;
+        this.tagger = tagger;
+        this.ticker = ticker;
+        this.refreshAfterWriteNanos = spec.getRefreshAfterWrite() != null ? spec.getRefreshAfterWrite().toNanos() : 0;
+        this.expireAfterWriteNanos = spec.getExpireAfterWrite() != null ? spec.getExpireAfterWrite().toNanos() : 0;
+        this.earlyRefreshBeta = spec.getEarlyRefreshBeta() != null ? spec.getEarlyRefreshBeta() : 0;
+
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumWeight(spec.getMaximumWeight())
+                .ticker(ticker)
+                .recordStats();
+        if (spec.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(spec.getExpireAfterWrite());
+        }
+        this.cache = builder.weigher(new EntryWeigher()).build();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Cache<Object, CacheEntry> getNativeCache() {
+        return cache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        CacheEntry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            entry = fromRemote(key);
+            if (entry == null) {
+                return null;
+            }
+            storeLocal(key, entry);
+        }
+        if (needsRefresh(entry) && claimRefresh(key)) {
+            return null;
+        }
+        return entry.value();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CacheEntry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return (T) fromStoreValue(loadShared(key, valueLoader, null));
+        }
+        if ((needsRefresh(entry) || refreshEarly(entry)) && claimRefresh(key)) {
+            return (T) fromStoreValue(loadShared(key, valueLoader, entry));
+        }
+        return (T) fromStoreValue(entry.value());
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        store(key, toStoreValue(value), 0);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        CacheEntry entry = new CacheEntry(toStoreValue(value), ticker.read(), 0);
+        CacheEntry existing = cache.asMap().putIfAbsent(key, entry);
+        if (existing == null) {
+            writeRemote(key, new RemoteCacheStore.Entry(entry.value(), System.currentTimeMillis()), tag(key, entry.value()));
+            return null;
+        }
+        return toValueWrapper(existing.value());
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictLocal(key);
+        evictRemote(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = cache.asMap().containsKey(key);
+        evict(key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        clearLocal();
+        clearRemote();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean notEmpty = !cache.asMap().isEmpty();
+        clear();
+        return notEmpty;
+    }
+
+    /**
+     * Evicts every entry carrying any of the given tags and returns how many keys were evicted.
+     */
+    public int evictTags(Collection<String> tags) {
+        int evicted = evictTagsLocal(tags);
+        evictTagsRemote(tags);
+        return evicted;
+    }
+
+    // Local-only operations, also used to apply invalidations that originated elsewhere
+    protected void evictLocal(Object key) {
+        cache.invalidate(key);
+        refreshClaims.remove(key);
+        inFlight.remove(key);
+    }
+
+    protected int evictTagsLocal(Collection<String> tags) {
+        Set<Object> keys = new HashSet<>();
+        for (String tag : tags) {
+            Set<Object> tagged = keysByTag.remove(tag);
+            if (tagged != null) {
+                keys.addAll(tagged);
+            }
+        }
+        keys.forEach(this::evictLocal);
+        return keys.size();
+    }
+
+    protected void clearLocal() {
+        cache.invalidateAll();
+        refreshClaims.clear();
+        inFlight.clear();
+        keysByTag.clear();
+    }
+
+    // Hooks for a shared second-level store; this cache is purely local
+    protected RemoteCacheStore.Entry readRemote(Object key) {
+        return null;
+    }
+
+    protected void writeRemote(Object key, RemoteCacheStore.Entry entry, Set<String> tags) {
+    }
+
+    protected void evictRemote(Object key) {
+    }
+
+    protected void evictTagsRemote(Collection<String> tags) {
+    }
+
+    protected void clearRemote() {
+    }
+
+    private Set<String> tag(Object key, Object storeValue) {
+        if (tagger == null) {
+            return Set.of();
+        }
+        Set<String> tags = tagger.tagsFor(key, fromStoreValue(storeValue));
+        for (String tag : tags) {
+            keysByTag.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        if (taggedWrites.incrementAndGet() % TAG_SWEEP_INTERVAL == 0) {
+            sweepTags();
+        }
+        return tags;
+    }
+
+    // Keys evicted by size or expiry stay in the tag index until swept; a stale key only costs a no-op eviction
+    private void sweepTags() {
+        Map<Object, CacheEntry> entries = cache.asMap();
+        keysByTag.forEach((tag, keys) -> {
+            keys.removeIf(key -> !entries.containsKey(key));
+            if (keys.isEmpty()) {
+                keysByTag.remove(tag, keys);
+            }
+        });
+    }
+
+    private void store(Object key, Object storeValue, long loadNanos) {
+        Set<String> tags = storeLocal(key, new CacheEntry(storeValue, ticker.read(), loadNanos));
+        writeRemote(key, new RemoteCacheStore.Entry(storeValue, System.currentTimeMillis()), tags);
+    }
+
+    private Set<String> storeLocal(Object key, CacheEntry entry) {
+        cache.put(key, entry);
+        refreshClaims.remove(key);
+        return tag(key, entry.value());
+    }
+
+    // Second-level entries keep their original write time so refresh and expiry stay on the same schedule
+    private CacheEntry fromRemote(Object key) {
+        RemoteCacheStore.Entry remote = readRemote(key);
+        if (remote == null) {
+            return null;
+        }
+        long ageNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, System.currentTimeMillis() - remote.writtenAt()));
+        return new CacheEntry(remote.value(), ticker.read() - ageNanos, 0);
+    }
+
+    // The first caller for a key runs the loader; concurrent callers for the same key wait for its result
+    private Object loadShared(Object key, Callable<?> valueLoader, CacheEntry current) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return await(key, valueLoader, existing);
+        }
+
+        try {
+            CacheEntry remote = fromRemote(key);
+            if (remote != null && (current == null || remote.writtenAt() > current.writtenAt())) {
+                if (inFlight.get(key) == flight) {
+                    storeLocal(key, remote);
+                }
+                flight.complete(remote.value());
+                return remote.value();
+            }
+
+            long start = ticker.read();
+            Object storeValue = toStoreValue(load(key, valueLoader));
+            // An eviction during the load drops the flight, so a value read before the write is not cached
+            if (inFlight.get(key) == flight) {
+                store(key, storeValue, ticker.read() - start);
+            }
+            flight.complete(storeValue);
+            return storeValue;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+            refreshClaims.remove(key);
+        }
+    }
+
+    private Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    private boolean needsRefresh(CacheEntry entry) {
+        return refreshAfterWriteNanos > 0 && ticker.read() - entry.writtenAt() >= refreshAfterWriteNanos;
+    }
+
+    // XFetch: refresh when now - loadTime * beta * ln(rand) passes the expiry time
+    private boolean refreshEarly(CacheEntry entry) {
+        if (earlyRefreshBeta <= 0 || expireAfterWriteNanos <= 0 || entry.loadNanos() <= 0) {
+            return false;
+        }
+        double gap = -entry.loadNanos() * earlyRefreshBeta * Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+        return ticker.read() + gap >= entry.writtenAt() + expireAfterWriteNanos;
+    }
+
+    // A claim that is never completed (the reload threw) lapses so a later reader can try again
+    private boolean claimRefresh(Object key) {
+        long now = ticker.read();
+        Long previous = refreshClaims.putIfAbsent(key, now);
+        if (previous == null) {
+            return true;
+        }
+        return now - previous >= REFRESH_CLAIM_TIMEOUT_NANOS && refreshClaims.replace(key, previous, now);
+    }
+
+    private <T> T load(Object key, Callable<T> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    record CacheEntry(Object value, long writtenAt, long loadNanos) {
+    }
+
+    // Pages and collections weigh one unit per element so a cached listing costs what it holds
+    static class EntryWeigher implements Weigher<Object, CacheEntry> {
+
+        @Override
+        public int weigh(Object key, CacheEntry entry) {
+            Object value = entry.value();
+            int weight = 1;
+            if (value instanceof Slice<?> slice) {
+                weight = slice.getNumberOfElements();
+            } else if (value instanceof Collection<?> collection) {
+                weight = collection.size();
+            } else if (value instanceof Map<?, ?> map) {
+                weight = map.size();
+            }
+            return Math.max(1, weight);
+        }
+    }
+}
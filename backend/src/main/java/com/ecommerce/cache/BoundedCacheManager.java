@@ -0,0 +1,78 @@
+package com.ecommerce.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractCacheManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Creates a {@link BoundedCache} per cache name using the matching {@code app.cache} spec and, when a
+ * registry is available, publishes each cache's hit, miss, eviction and size metrics. With a remote store
+ * and invalidation bus configured, caches are {@link TwoLevelCache}s sharing that store across nodes.
+ */
+public class BoundedCacheManager extends AbstractCacheManager {
+
+    private final CacheProperties properties;
+    private final Collection<String> cacheNames;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CacheTagger> taggers = new HashMap<>();
+    private final String nodeId = UUID.randomUUID().toString();
+    private RemoteCacheStore remoteStore;
+    private CacheInvalidationBus invalidationBus;
+
+    public BoundedCacheManager(CacheProperties properties, Collection<String> cacheNames, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cacheNames = cacheNames;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Registers the tagger for a cache; must be called before the manager is initialized.
+     */
+    public BoundedCacheManager withTagger(String cacheName, CacheTagger tagger) {
+        taggers.put(cacheName, tagger);
+        return this;
+    }
+
+    /**
+     * Backs every cache with a shared L2 and subscribes to invalidations from other nodes; must be called
+     * before the manager is initialized.
+     */
+    public BoundedCacheManager withRemote(RemoteCacheStore remoteStore, CacheInvalidationBus invalidationBus) {
+        this.remoteStore = remoteStore;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(invalidation -> {
+            if (lookupCache(invalidation.cacheName()) instanceof TwoLevelCache cache) {
+                cache.onInvalidation(invalidation);
+            }
+        });
+        return this;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return cacheNames.stream().map(this::createCache).toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+
+    protected BoundedCache createCache(String name) {
+        CacheProperties.Spec spec = properties.specFor(name);
+        BoundedCache cache = remoteStore != null
+                ? new TwoLevelCache(name, spec, taggers.get(name), remoteStore, invalidationBus, nodeId)
+                : new BoundedCache(name, spec, taggers.get(name));
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache.getNativeCache(), name, List.of());
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.cache;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Eviction broadcast from one node so the others can drop the same entries from their local caches.
+ */
+public record CacheInvalidation(String origin, String cacheName, Kind kind, List<String> values) implements Serializable {
+
+    public enum Kind {
+        KEY, TAGS, CLEAR
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Publish/subscribe channel carrying {@link CacheInvalidation} messages between nodes.
+ */
+public interface CacheInvalidationBus {
+
+    void publish(CacheInvalidation invalidation);
+
+    void subscribe(Consumer<CacheInvalidation> listener);
+}
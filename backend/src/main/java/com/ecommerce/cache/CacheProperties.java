@@ -0,0 +1,84 @@
+package com.ecommerce.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-cache sizing and expiry, bound from {@code app.cache.*}. Caches without their own entry use the defaults.
+ */
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    private Spec defaults = new Spec();
+    private Map<String, Spec> caches = new LinkedHashMap<>();
+    private Remote remote = new Remote();
+
+    public Spec specFor(String cacheName) {
+        Spec spec = caches.get(cacheName);
+        if (spec == null) {
+            return defaults;
+        }
+
+        Spec resolved = new Spec();
+        resolved.setMaximumWeight(spec.getMaximumWeight() != null ? spec.getMaximumWeight() : defaults.getMaximumWeight());
+        resolved.setExpireAfterWrite(spec.getExpireAfterWrite() != null ? spec.getExpireAfterWrite() : defaults.getExpireAfterWrite());
+        resolved.setRefreshAfterWrite(spec.getRefreshAfterWrite() != null ? spec.getRefreshAfterWrite() : defaults.getRefreshAfterWrite());
+        resolved.setEarlyRefreshBeta(spec.getEarlyRefreshBeta() != null ? spec.getEarlyRefreshBeta() : defaults.getEarlyRefreshBeta());
+        return resolved;
+    }
+
+    // Getters and setters
+    public Spec getDefaults() { return defaults; }
+    public void setDefaults(Spec defaults) { this.defaults = defaults; }
+
+    public Map<String, Spec> getCaches() { return caches; }
+    public void setCaches(Map<String, Spec> caches) { this.caches = caches; }
+
+    public Remote getRemote() { return remote; }
+    public void setRemote(Remote remote) { this.remote = remote; }
+
+    /**
+     * Shared Redis second level and the pub/sub channel used to broadcast evictions between nodes.
+     */
+    public static class Remote {
+
+        private boolean enabled = false;
+        private String keyPrefix = "ecommerce:cache:";
+        private String channel = "ecommerce:cache:invalidation";
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public String getKeyPrefix() { return keyPrefix; }
+        public void setKeyPrefix(String keyPrefix) { this.keyPrefix = keyPrefix; }
+
+        public String getChannel() { return channel; }
+        public void setChannel(String channel) { this.channel = channel; }
+    }
+
+    public static class Spec {
+
+        /** Upper bound on the summed entry weight; a cached page or list weighs one unit per element. */
+        private Long maximumWeight = 10_000L;
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+        /** Age after which the next read reloads the entry while other readers keep getting the old value. */
+        private Duration refreshAfterWrite;
+        /** Eagerness of probabilistic early refresh before expiry; 0 disables it, larger values refresh sooner. */
+        private Double earlyRefreshBeta = 1.0;
+
+        public Long getMaximumWeight() { return maximumWeight; }
+        public void setMaximumWeight(Long maximumWeight) { this.maximumWeight = maximumWeight; }
+
+        public Duration getExpireAfterWrite() { return expireAfterWrite; }
+        public void setExpireAfterWrite(Duration expireAfterWrite) { this.expireAfterWrite = expireAfterWrite; }
+
+        public Duration getRefreshAfterWrite() { return refreshAfterWrite; }
+        public void setRefreshAfterWrite(Duration refreshAfterWrite) { this.refreshAfterWrite = refreshAfterWrite; }
+
+        public Double getEarlyRefreshBeta() { return earlyRefreshBeta; }
+        public void setEarlyRefreshBeta(Double earlyRefreshBeta) { this.earlyRefreshBeta = earlyRefreshBeta; }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Evicts tagged entries from named caches, clearing caches that do not support tags.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheTagEvictor {
+
+    private final CacheManager cacheManager;
+
+    public void evict(String cacheName, Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof BoundedCache boundedCache) {
+            int evicted = boundedCache.evictTags(tags);
+            log.debug("Evicted {} entries from cache {} for tags {}", evicted, cacheName, tags);
+        } else if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.cache;
+
+import java.util.Set;
+
+/**
+ * Derives the invalidation tags of a cache entry from its key and value.
+ */
+@FunctionalInterface
+public interface CacheTagger {
+
+    Set<String> tagsFor(Object key, Object value);
+}
@@ -0,0 +1,142 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Tags for the {@code products} and {@code categories} caches. Entries are tagged with the products they
+ * hold plus the listing they were cached for (category page, featured, catalog or ranking list), so a
+ * product write only evicts entries that contain the product or that it could now appear in.
+ */
+public final class ProductCacheTags {
+
+    public static final String CATALOG = "listing:catalog";
+    public static final String FEATURED = "listing:featured";
+    public static final String RANKING = "listing:ranking";
+
+    private ProductCacheTags() {
+    }
+
+    public static String product(String id) {
+        return "product:" + id;
+    }
+
+    public static String category(String name) {
+        return "category:" + name;
+    }
+
+    public static String brand(String name) {
+        return "brand:" + name;
+    }
+
+    public static CacheTagger productsTagger() {
+        return (key, value) -> {
+            Set<String> tags = new HashSet<>();
+            collectProducts(value, tags);
+            String scope = scopeOf(String.valueOf(key));
+            if (scope != null) {
+                tags.add(scope);
+            }
+            return tags;
+        };
+    }
+
+    public static CacheTagger categoriesTagger() {
+        return (key, value) -> {
+            Set<String> tags = new HashSet<>();
+            collectCategories(value, tags);
+            return tags;
+        };
+    }
+
+    /**
+     * Tags to evict after a product write; {@code before} is null for a create and {@code after} for a delete.
+     */
+    public static Set<String> changed(State before, State after) {
+        Set<String> tags = new HashSet<>();
+        for (State state : new State[]{before, after}) {
+            if (state != null) {
+                tags.add(product(state.id()));
+                if (state.category() != null) tags.add(category(state.category()));
+                if (state.brand() != null) tags.add(brand(state.brand()));
+            }
+        }
+        if (after == null) {
+            return tags;
+        }
+
+        if (before == null || !Objects.equals(before.active(), after.active())) {
+            tags.add(CATALOG);
+            tags.add(RANKING);
+        }
+        if (Boolean.TRUE.equals(after.featured()) && (before == null || !Boolean.TRUE.equals(before.featured()))) {
+            tags.add(FEATURED);
+        }
+        if (before != null && !before.sameRanking(after)) {
+            tags.add(RANKING);
+        }
+        return tags;
+    }
+
+    // Key prefixes follow the @Cacheable keys in ProductService; plain product IDs carry no listing scope
+    private static String scopeOf(String key) {
+        if (key.startsWith("category-")) {
+            int pageSeparator = key.lastIndexOf('-');
+            return category(key.substring("category-".length(), pageSeparator > "category-".length() ? pageSeparator : key.length()));
+        }
+        if (key.startsWith("featured-")) {
+            return FEATURED;
+        }
+        if (key.startsWith("all-") || key.startsWith("active-") || key.startsWith("recent-")) {
+            return CATALOG;
+        }
+        if (key.startsWith("most-viewed-") || key.startsWith("best-selling-") || key.startsWith("top-rated-")) {
+            return RANKING;
+        }
+        return null;
+    }
+
+    private static void collectProducts(Object value, Set<String> tags) {
+        if (value instanceof Product product) {
+            tags.add(product(product.getId()));
+        } else if (value instanceof Optional<?> optional) {
+            optional.ifPresent(present -> collectProducts(present, tags));
+        } else if (value instanceof Iterable<?> items) {
+            items.forEach(item -> collectProducts(item, tags));
+        }
+    }
+
+    private static void collectCategories(Object value, Set<String> tags) {
+        if (value instanceof Category category) {
+            tags.add(category(category.getName()));
+        } else if (value instanceof Optional<?> optional) {
+            optional.ifPresent(present -> collectCategories(present, tags));
+        } else if (value instanceof Iterable<?> items) {
+            items.forEach(item -> collectCategories(item, tags));
+        }
+    }
+
+    /**
+     * The product attributes that decide which cached listings it belongs to.
+     */
+    public record State(String id, String category, String brand, Boolean active, Boolean featured,
+                        Long salesCount, BigDecimal averageRating, Integer reviewCount) {
+
+        public static State of(Product product) {
+            return new State(product.getId(), product.getCategory(), product.getBrand(), product.getIsActive(),
+                    product.getIsFeatured(), product.getSalesCount(), product.getAverageRating(), product.getReviewCount());
+        }
+
+        boolean sameRanking(State other) {
+            return Objects.equals(salesCount, other.salesCount)
+                    && Objects.equals(averageRating, other.averageRating)
+                    && Objects.equals(reviewCount, other.reviewCount);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.cache;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.function.Consumer;
+
+/**
+ * Redis pub/sub transport for cache invalidations.
+ */
+public class RedisCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChannelTopic topic;
+
+    public RedisCacheInvalidationBus(RedisTemplate<String, Object> redisTemplate,
+                                     RedisMessageListenerContainer listenerContainer, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.topic = new ChannelTopic(channel);
+    }
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        redisTemplate.convertAndSend(topic.getTopic(), invalidation);
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+            if (body instanceof CacheInvalidation invalidation) {
+                listener.accept(invalidation);
+            }
+        }, topic);
+    }
+}
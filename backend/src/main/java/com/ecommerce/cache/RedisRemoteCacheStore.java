@@ -0,0 +1,84 @@
+package com.ecommerce.cache;
+
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Redis-backed L2. Entries live under {@code <prefix><cache>:entry:<key>} with a TTL; each tag is a set of
+ * entry keys under {@code <prefix><cache>:tag:<tag>} so tag evictions touch only the tagged entries.
+ */
+public class RedisRemoteCacheStore implements RemoteCacheStore {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final String keyPrefix;
+
+    public RedisRemoteCacheStore(RedisTemplate<String, Object> redisTemplate, String keyPrefix) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+    }
+
+    @Override
+    public Entry get(String cacheName, String key) {
+        Object value = redisTemplate.opsForValue().get(entryKey(cacheName, key));
+        return value instanceof Entry entry ? entry : null;
+    }
+
+    @Override
+    public void put(String cacheName, String key, Entry entry, Duration ttl, Set<String> tags) {
+        String entryKey = entryKey(cacheName, key);
+        redisTemplate.opsForValue().set(entryKey, entry, ttl);
+        for (String tag : tags) {
+            String tagKey = tagKey(cacheName, tag);
+            redisTemplate.opsForSet().add(tagKey, entryKey);
+            redisTemplate.expire(tagKey, ttl);
+        }
+    }
+
+    @Override
+    public void evict(String cacheName, String key) {
+        redisTemplate.delete(entryKey(cacheName, key));
+    }
+
+    @Override
+    public void evictTags(String cacheName, Collection<String> tags) {
+        List<String> keys = new ArrayList<>();
+        for (String tag : tags) {
+            String tagKey = tagKey(cacheName, tag);
+            Set<Object> members = redisTemplate.opsForSet().members(tagKey);
+            if (members != null) {
+                members.forEach(member -> keys.add(member.toString()));
+            }
+            keys.add(tagKey);
+        }
+        if (!keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Override
+    public void clear(String cacheName) {
+        List<String> keys = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(keyPrefix + cacheName + ":*").count(500).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            cursor.forEachRemaining(keys::add);
+        }
+        if (!keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    private String entryKey(String cacheName, String key) {
+        return keyPrefix + cacheName + ":entry:" + key;
+    }
+
+    private String tagKey(String cacheName, String tag) {
+        return keyPrefix + cacheName + ":tag:" + tag;
+    }
+}
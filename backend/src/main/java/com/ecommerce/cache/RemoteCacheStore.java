@@ -0,0 +1,25 @@
+package com.ecommerce.cache;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Shared second-level cache storage behind the per-node {@link BoundedCache}.
+ */
+public interface RemoteCacheStore {
+
+    Entry get(String cacheName, String key);
+
+    void put(String cacheName, String key, Entry entry, Duration ttl, Set<String> tags);
+
+    void evict(String cacheName, String key);
+
+    void evictTags(String cacheName, Collection<String> tags);
+
+    void clear(String cacheName);
+
+    record Entry(Object value, long writtenAt) implements Serializable {
+    }
+}
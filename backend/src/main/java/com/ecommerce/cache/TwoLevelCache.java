@@ -0,0 +1,100 @@
+package com.ecommerce.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link BoundedCache} used as a per-node L1 over a shared {@link RemoteCacheStore} L2. Local misses read
+ * through to L2, loads write through, and every eviction is applied to L2 and broadcast so the other
+ * nodes drop their L1 copies. Keys are shared across nodes by their string form, and L2 failures are
+ * logged and degrade to local-only caching.
+ */
+@Slf4j
+public class TwoLevelCache extends BoundedCache {
+
+    private final RemoteCacheStore store;
+    private final CacheInvalidationBus bus;
+    private final String nodeId;
+    private final Duration ttl;
+
+    public TwoLevelCache(String name, CacheProperties.Spec spec, CacheTagger tagger,
+                         RemoteCacheStore store, CacheInvalidationBus bus, String nodeId) {
+        super(name, spec, tagger);
+        this.store = store;
+        this.bus = bus;
+        this.nodeId = nodeId;
+        this.ttl = spec.getExpireAfterWrite() != null ? spec.getExpireAfterWrite() : Duration.ofMinutes(10);
+    }
+
+    public void onInvalidation(CacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.origin()) || !getName().equals(invalidation.cacheName())) {
+            return;
+        }
+        switch (invalidation.kind()) {
+            case KEY -> invalidation.values().forEach(this::evictLocal);
+            case TAGS -> evictTagsLocal(invalidation.values());
+            case CLEAR -> clearLocal();
+        }
+    }
+
+    @Override
+    protected RemoteCacheStore.Entry readRemote(Object key) {
+        try {
+            return store.get(getName(), key.toString());
+        } catch (Exception e) {
+            log.warn("Failed to read {} from L2 cache {}: {}", key, getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    protected void writeRemote(Object key, RemoteCacheStore.Entry entry, Set<String> tags) {
+        try {
+            store.put(getName(), key.toString(), entry, ttl, tags);
+        } catch (Exception e) {
+            log.warn("Failed to write {} to L2 cache {}: {}", key, getName(), e.getMessage());
+        }
+    }
+
+    @Override
+    protected void evictRemote(Object key) {
+        try {
+            store.evict(getName(), key.toString());
+        } catch (Exception e) {
+            log.warn("Failed to evict {} from L2 cache {}: {}", key, getName(), e.getMessage());
+        }
+        broadcast(CacheInvalidation.Kind.KEY, List.of(key.toString()));
+    }
+
+    @Override
+    protected void evictTagsRemote(Collection<String> tags) {
+        try {
+            store.evictTags(getName(), tags);
+        } catch (Exception e) {
+            log.warn("Failed to evict tags {} from L2 cache {}: {}", tags, getName(), e.getMessage());
+        }
+        broadcast(CacheInvalidation.Kind.TAGS, List.copyOf(tags));
+    }
+
+    @Override
+    protected void clearRemote() {
+        try {
+            store.clear(getName());
+        } catch (Exception e) {
+            log.warn("Failed to clear L2 cache {}: {}", getName(), e.getMessage());
+        }
+        broadcast(CacheInvalidation.Kind.CLEAR, List.of());
+    }
+
+    private void broadcast(CacheInvalidation.Kind kind, List<String> values) {
+        try {
+            bus.publish(new CacheInvalidation(nodeId, getName(), kind, values));
+        } catch (Exception e) {
+            log.warn("Failed to broadcast {} invalidation for cache {}: {}", kind, getName(), e.getMessage());
+        }
+    }
+}
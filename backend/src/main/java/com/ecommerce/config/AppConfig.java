@@ -1,8 +1,17 @@
 package com.ecommerce.config;
 
+import com.ecommerce.cache.BoundedCacheManager;
+import com.ecommerce.cache.CacheInvalidationBus;
+import com.ecommerce.cache.CacheProperties;
+import com.ecommerce.cache.ProductCacheTags;
+import com.ecommerce.cache.RemoteCacheStore;
+import com.ecommerce.util.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -10,12 +19,14 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
 import java.util.concurrent.Executor;
 
 @Configuration
 @EnableCaching
 @EnableAsync
 @EnableScheduling
+@EnableConfigurationProperties(CacheProperties.class)
 public class AppConfig {
     
     @Bean
@@ -24,8 +35,29 @@ public class AppConfig {
     }
     
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("products", "categories", "users");
+    public CacheManager cacheManager(CacheProperties cacheProperties,
+                                     ObjectProvider<MeterRegistry> meterRegistry,
+                                     ObjectProvider<RemoteCacheStore> remoteCacheStore,
+                                     ObjectProvider<CacheInvalidationBus> cacheInvalidationBus) {
+        BoundedCacheManager cacheManager = new BoundedCacheManager(cacheProperties,
+                List.of("products", "categories", "users"), meterRegistry.getIfAvailable())
+                .withTagger("products", ProductCacheTags.productsTagger())
+                .withTagger("categories", ProductCacheTags.categoriesTagger());
+        
+        RemoteCacheStore remoteStore = remoteCacheStore.getIfAvailable();
+        CacheInvalidationBus invalidationBus = cacheInvalidationBus.getIfAvailable();
+        if (remoteStore != null && invalidationBus != null) {
+            cacheManager.withRemote(remoteStore, invalidationBus);
+        }
+        return cacheManager;
+    }
+    
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(@Value("${app.ids.worker-id:0}") long workerId) {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(workerId);
+        // Order numbers and payment references are assigned by the entities from the shared generator
+        SnowflakeIdGenerator.setShared(generator);
+        return generator;
     }
     
     @Bean(name = "taskExecutor")
@@ -0,0 +1,51 @@
+package com.ecommerce.config;
+
+import com.ecommerce.cache.CacheInvalidationBus;
+import com.ecommerce.cache.CacheProperties;
+import com.ecommerce.cache.RedisCacheInvalidationBus;
+import com.ecommerce.cache.RedisRemoteCacheStore;
+import com.ecommerce.cache.RemoteCacheStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.cache.remote", name = "enabled", havingValue = "true")
+public class RedisCacheConfig {
+    
+    @Bean
+    public RedisTemplate<String, Object> cacheRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new JdkSerializationRedisSerializer(getClass().getClassLoader()));
+        template.afterPropertiesSet();
+        return template;
+    }
+    
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+    
+    @Bean
+    public RemoteCacheStore remoteCacheStore(RedisTemplate<String, Object> cacheRedisTemplate, CacheProperties cacheProperties) {
+        return new RedisRemoteCacheStore(cacheRedisTemplate, cacheProperties.getRemote().getKeyPrefix());
+    }
+    
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(RedisTemplate<String, Object> cacheRedisTemplate,
+                                                     RedisMessageListenerContainer cacheInvalidationListenerContainer,
+                                                     CacheProperties cacheProperties) {
+        return new RedisCacheInvalidationBus(cacheRedisTemplate, cacheInvalidationListenerContainer,
+                cacheProperties.getRemote().getChannel());
+    }
+}
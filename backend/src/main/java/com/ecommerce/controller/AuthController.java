@@ -6,13 +6,18 @@ import com.ecommerce.dto.TokenResponse;
 import com.ecommerce.dto.UserResponse;
 import com.ecommerce.entity.User;
 import com.ecommerce.security.JwtTokenProvider;
+import com.ecommerce.security.PasswordHashingRejectedException;
+import com.ecommerce.security.RefreshTokenStore;
+import com.ecommerce.security.TokenRevocationList;
 import com.ecommerce.service.UserService;
 import com.ecommerce.service.EmailService;
+import io.jsonwebtoken.Claims;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -25,6 +30,8 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
+import java.util.Optional;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/auth")
@@ -35,6 +42,8 @@ public class AuthController {
     private final UserService userService;
     private final EmailService emailService;
     private final AuthenticationManager authenticationManager;
+    private final TokenRevocationList tokenRevocationList;
+    private final RefreshTokenStore refreshTokenStore;
     private final JwtTokenProvider jwtTokenProvider;
     
     @PostMapping("/register")
@@ -61,6 +70,11 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(ApiResponse.success(userResponse, "User registered successfully. Please check your email for verification."));
             
+        } catch (PasswordHashingRejectedException e) {
+            log.warn("Registration rejected for email {}: password hashing queue is full", request.getEmail());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(ApiResponse.error("Too many requests, please retry shortly"));
         } catch (Exception e) {
             log.error("Registration failed for email {}: {}", request.getEmail(), e.getMessage());
             return ResponseEntity.badRequest()
@@ -91,7 +105,7 @@ public class AuthController {
             
             // Generate JWT token
             String token = jwtTokenProvider.generateToken(authentication);
-            String refreshToken = jwtTokenProvider.generateRefreshToken(authentication);
+            String refreshToken = refreshTokenStore.issue(user);
             
             LoginResponse loginResponse = new LoginResponse(
                     token,
@@ -106,6 +120,13 @@ public class AuthController {
             return ResponseEntity.ok(ApiResponse.success(loginResponse, "Login successful"));
             
         } catch (Exception e) {
+            // The authentication manager may wrap the rejection of the password check
+            if (PasswordHashingRejectedException.isCause(e)) {
+                log.warn("Login rejected for email {}: password hashing queue is full", request.getEmail());
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(ApiResponse.error("Too many requests, please retry shortly"));
+            }
             log.error("Login failed for email {}: {}", request.getEmail(), e.getMessage());
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Invalid email or password"));
@@ -118,14 +139,33 @@ public class AuthController {
         try {
             log.info("Token refresh attempt");
             
-            if (!jwtTokenProvider.validateToken(request.getRefreshToken())) {
+            Optional<Claims> claims = jwtTokenProvider.parseToken(request.getRefreshToken());
+            if (claims.isEmpty() || tokenRevocationList.isRevoked(claims.get())) {
                 return ResponseEntity.badRequest()
                         .body(ApiResponse.error("Invalid refresh token"));
             }
             
-            String email = jwtTokenProvider.getEmailFromToken(request.getRefreshToken());
+            if (jwtTokenProvider.isRefreshToken(claims.get())) {
+                Optional<TokenResponse> rotated = refreshTokenStore.rotate(claims.get());
+                if (rotated.isEmpty()) {
+                    return ResponseEntity.badRequest()
+                            .body(ApiResponse.error("Invalid refresh token"));
+                }
+                log.info("Token refreshed successfully for user: {}", claims.get().getSubject());
+                return ResponseEntity.ok(ApiResponse.success(rotated.get(), "Token refreshed successfully"));
+            }
+            
+            // Refresh tokens issued before token families are checked against the user once and start a family
+            String email = claims.get().getSubject();
             User user = userService.getUserByEmail(email);
             
+            // Password, email and role changes revoke the refresh tokens issued before them
+            Integer tokenVersion = claims.get().get(JwtTokenProvider.CLAIM_TOKEN_VERSION, Integer.class);
+            if (tokenVersion != null && tokenVersion < user.getTokenVersion()) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Invalid refresh token"));
+            }
+            
             if (!user.getIsActive()) {
                 return ResponseEntity.badRequest()
                         .body(ApiResponse.error("Account is deactivated"));
@@ -137,7 +177,7 @@ public class AuthController {
             );
             
             String newToken = jwtTokenProvider.generateToken(authentication);
-            String newRefreshToken = jwtTokenProvider.generateRefreshToken(authentication);
+            String newRefreshToken = refreshTokenStore.issue(user);
             
             TokenResponse tokenResponse = new TokenResponse(
                     newToken,
@@ -194,12 +234,14 @@ public class AuthController {
         try {
             log.info("Password reset attempt with token");
             
-            if (!jwtTokenProvider.validateToken(request.getToken())) {
+            Optional<Claims> claims = jwtTokenProvider.parseToken(request.getToken())
+                    .filter(parsed -> jwtTokenProvider.hasPurpose(parsed, JwtTokenProvider.PURPOSE_RESET_PASSWORD));
+            if (claims.isEmpty()) {
                 return ResponseEntity.badRequest()
                         .body(ApiResponse.error("Invalid or expired reset token"));
             }
             
-            String email = jwtTokenProvider.getEmailFromToken(request.getToken());
+            String email = claims.get().getSubject();
             User user = userService.getUserByEmail(email);
             
             // Update password
@@ -215,6 +257,11 @@ public class AuthController {
                     "Your password has been reset successfully"
             ));
             
+        } catch (PasswordHashingRejectedException e) {
+            log.warn("Password reset rejected: password hashing queue is full");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(ApiResponse.error("Too many requests, please retry shortly"));
         } catch (Exception e) {
             log.error("Password reset failed: {}", e.getMessage());
             return ResponseEntity.badRequest()
@@ -228,12 +275,14 @@ public class AuthController {
         try {
             log.info("Email verification attempt");
             
-            if (!jwtTokenProvider.validateToken(request.getToken())) {
+            Optional<Claims> claims = jwtTokenProvider.parseToken(request.getToken())
+                    .filter(parsed -> jwtTokenProvider.hasPurpose(parsed, JwtTokenProvider.PURPOSE_VERIFY_EMAIL));
+            if (claims.isEmpty()) {
                 return ResponseEntity.badRequest()
                         .body(ApiResponse.error("Invalid or expired verification token"));
             }
             
-            String email = jwtTokenProvider.getEmailFromToken(request.getToken());
+            String email = claims.get().getSubject();
             User user = userService.getUserByEmail(email);
             
             if (user.getIsVerified()) {
@@ -262,8 +311,22 @@ public class AuthController {
     
     @PostMapping("/logout")
     @Operation(summary = "User logout", description = "Logout user and invalidate token")
-    public ResponseEntity<ApiResponse<String>> logout() {
+    public ResponseEntity<ApiResponse<String>> logout(
+            @RequestHeader(value = "Authorization", required = false) String authorization,
+            @RequestBody(required = false) LogoutRequest request) {
         try {
+            // Revoke the access token until it expires and, when given, the refresh token's family
+            if (authorization != null && authorization.startsWith("Bearer ")) {
+                jwtTokenProvider.parseToken(authorization.substring(7)).ifPresent(tokenRevocationList::revoke);
+            }
+            if (request != null && request.getRefreshToken() != null) {
+                jwtTokenProvider.parseToken(request.getRefreshToken()).ifPresent(claims -> {
+                    if (!refreshTokenStore.revoke(claims)) {
+                        tokenRevocationList.revoke(claims);
+                    }
+                });
+            }
+            
             // Clear security context
             SecurityContextHolder.clearContext();
             
@@ -355,6 +418,13 @@ public class AuthController {
         public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
     }
     
+    public static class LogoutRequest {
+        private String refreshToken;
+        
+        public String getRefreshToken() { return refreshToken; }
+        public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+    }
+    
     public static class ForgotPasswordRequest {
         @NotBlank(message = "Email is required")
         @Email(message = "Please provide a valid email address")
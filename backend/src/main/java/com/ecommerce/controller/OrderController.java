@@ -1,17 +1,26 @@
 package com.ecommerce.controller;
 
 import com.ecommerce.dto.ApiResponse;
+import com.ecommerce.dto.CursorPage;
+import com.ecommerce.dto.OrderStatusUpdate;
+import com.ecommerce.dto.OrderStatusUpdateResult;
+import com.ecommerce.dto.OrderSummary;
 import com.ecommerce.entity.Address;
 import com.ecommerce.entity.Order;
 import com.ecommerce.entity.User;
 import com.ecommerce.entity.enums.OrderStatus;
 import com.ecommerce.entity.enums.PaymentMethod;
+import com.ecommerce.service.BulkOrderStatusService;
 import com.ecommerce.service.OrderService;
+import com.ecommerce.service.OrderStatisticsService;
+import com.ecommerce.service.OrderViewService;
 import com.ecommerce.service.UserService;
+import com.ecommerce.service.stats.OrderStatusTally;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,19 +46,21 @@ import java.util.Map;
 public class OrderController {
     
     private final OrderService orderService;
+    private final BulkOrderStatusService bulkOrderStatusService;
+    private final OrderStatisticsService orderStatisticsService;
+    private final OrderViewService orderViewService;
     private final UserService userService;
     
     @GetMapping
     @Operation(summary = "Get user orders", description = "Retrieve paginated list of user's orders")
-    public ResponseEntity<ApiResponse<Page<Order>>> getUserOrders(
+    public ResponseEntity<ApiResponse<Page<OrderSummary>>> getUserOrders(
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             Authentication authentication) {
         
         try {
             User user = userService.getUserByEmail(authentication.getName());
-            Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-            Page<Order> orders = orderService.getUserOrders(user.getId(), pageable);
+            Page<OrderSummary> orders = orderViewService.getUserOrders(user.getId(), page, size);
             
             return ResponseEntity.ok(ApiResponse.success(orders, "Orders retrieved successfully"));
             
@@ -90,18 +101,40 @@ public class OrderController {
         }
     }
     
+    @GetMapping("/all/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Scroll all orders", description = "Retrieve all orders page by page using a continuation cursor, without a total count (Admin only)")
+    public ResponseEntity<ApiResponse<CursorPage<Order>>> scrollAllOrders(
+            @Parameter(description = "Cursor returned by the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort by field (createdAt, total or id)") @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) OrderStatus status) {
+        
+        try {
+            CursorPage<Order> orders = orderService.getAllOrders(status, cursor, size, sortBy, sortDir);
+            
+            return ResponseEntity.ok(ApiResponse.success(orders, "Orders retrieved successfully"));
+            
+        } catch (Exception e) {
+            log.error("Failed to scroll orders: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to retrieve orders: " + e.getMessage()));
+        }
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get order by ID", description = "Retrieve a specific order by its ID")
-    public ResponseEntity<ApiResponse<Order>> getOrderById(
+    public ResponseEntity<ApiResponse<OrderSummary>> getOrderById(
             @PathVariable Long id,
             Authentication authentication) {
         
         try {
             User user = userService.getUserByEmail(authentication.getName());
-            Order order = orderService.getOrderWithItems(id);
+            OrderSummary order = orderViewService.getOrder(id);
             
             // Check if user owns this order or is admin
-            if (!order.getUser().getId().equals(user.getId()) && !user.getRole().isAdmin()) {
+            if (!order.getUserId().equals(user.getId()) && !user.getRole().isAdmin()) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(ApiResponse.error("Access denied"));
             }
@@ -117,16 +150,16 @@ public class OrderController {
     
     @GetMapping("/number/{orderNumber}")
     @Operation(summary = "Get order by number", description = "Retrieve a specific order by its order number")
-    public ResponseEntity<ApiResponse<Order>> getOrderByNumber(
+    public ResponseEntity<ApiResponse<OrderSummary>> getOrderByNumber(
             @PathVariable String orderNumber,
             Authentication authentication) {
         
         try {
             User user = userService.getUserByEmail(authentication.getName());
-            Order order = orderService.getOrderByNumber(orderNumber);
+            OrderSummary order = orderViewService.getOrderByNumber(orderNumber);
             
             // Check if user owns this order or is admin
-            if (!order.getUser().getId().equals(user.getId()) && !user.getRole().isAdmin()) {
+            if (!order.getUserId().equals(user.getId()) && !user.getRole().isAdmin()) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(ApiResponse.error("Access denied"));
             }
@@ -141,7 +174,7 @@ public class OrderController {
     }
     
     @PostMapping
-    @Operation(summary = "Create order", description = "Create a new order from cart items")
+    @Operation(summary = "Create order", description = "Create a new order from cart items. Send an Idempotency-Key header to make retries safe")
     public ResponseEntity<ApiResponse<Order>> createOrder(
             @Valid @RequestBody CreateOrderRequest request,
             Authentication authentication) {
@@ -193,6 +226,26 @@ public class OrderController {
         }
     }
     
+    @PatchMapping("/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Bulk update order status",
+            description = "Update the status and tracking number of many orders at once, with a result per order (Admin only)")
+    public ResponseEntity<ApiResponse<List<OrderStatusUpdateResult>>> updateOrderStatuses(
+            @Valid @RequestBody @NotEmpty(message = "At least one update is required") List<@Valid OrderStatusUpdate> request) {
+        
+        try {
+            List<OrderStatusUpdateResult> results = bulkOrderStatusService.updateStatuses(request);
+            long updated = results.stream().filter(OrderStatusUpdateResult::success).count();
+            
+            return ResponseEntity.ok(ApiResponse.success(results, updated + " of " + results.size() + " orders updated"));
+            
+        } catch (Exception e) {
+            log.error("Failed to bulk update order statuses: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to update order statuses: " + e.getMessage()));
+        }
+    }
+    
     @PatchMapping("/{id}/tracking")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Update tracking number", description = "Update the tracking number of an order (Admin only)")
@@ -295,14 +348,15 @@ public class OrderController {
     @Operation(summary = "Get order statistics", description = "Get order statistics for admin dashboard (Admin only)")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getOrderStats() {
         try {
+            OrderStatusTally.Snapshot statistics = orderStatisticsService.getStatistics();
             Map<String, Object> stats = Map.of(
-                    "totalOrders", orderService.getTotalOrderCount(),
-                    "pendingOrders", orderService.getOrderCountByStatus(OrderStatus.PENDING),
-                    "confirmedOrders", orderService.getOrderCountByStatus(OrderStatus.CONFIRMED),
-                    "shippedOrders", orderService.getOrderCountByStatus(OrderStatus.SHIPPED),
-                    "deliveredOrders", orderService.getOrderCountByStatus(OrderStatus.DELIVERED),
-                    "cancelledOrders", orderService.getOrderCountByStatus(OrderStatus.CANCELLED),
-                    "totalRevenue", orderService.getTotalRevenue()
+                    "totalOrders", statistics.totalCount(),
+                    "pendingOrders", statistics.count(OrderStatus.PENDING),
+                    "confirmedOrders", statistics.count(OrderStatus.CONFIRMED),
+                    "shippedOrders", statistics.count(OrderStatus.SHIPPED),
+                    "deliveredOrders", statistics.count(OrderStatus.DELIVERED),
+                    "cancelledOrders", statistics.count(OrderStatus.CANCELLED),
+                    "totalRevenue", statistics.total(OrderStatus.DELIVERED)
             );
             
             return ResponseEntity.ok(ApiResponse.success(stats, "Order statistics retrieved successfully"));
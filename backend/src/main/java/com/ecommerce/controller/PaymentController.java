@@ -150,7 +150,7 @@ public class PaymentController {
     }
     
     @PostMapping("/{paymentReference}/process")
-    @Operation(summary = "Process payment", description = "Process a payment using payment gateway")
+    @Operation(summary = "Process payment", description = "Process a payment using payment gateway. Send an Idempotency-Key header to make retries safe")
     public ResponseEntity<ApiResponse<Payment>> processPayment(
             @PathVariable String paymentReference,
             @Valid @RequestBody ProcessPaymentRequest request,
@@ -1,8 +1,10 @@
 package com.ecommerce.controller;
 
 import com.ecommerce.dto.ApiResponse;
+import com.ecommerce.dto.CursorPage;
 import com.ecommerce.entity.Product;
 import com.ecommerce.service.ProductService;
+import com.ecommerce.service.search.ProductFilter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -32,38 +34,43 @@ public class ProductController {
     private final ProductService productService;
     
     @GetMapping
-    @Operation(summary = "Get all products", description = "Retrieve paginated list of products with optional filters")
+    @Operation(summary = "Get all products", description = "Retrieve paginated list of products with combinable filters and facet counts")
     public ResponseEntity<ApiResponse<Page<Product>>> getAllProducts(
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
-            @Parameter(description = "Sort by field") @RequestParam(defaultValue = "createdAt") String sortBy,
+            @Parameter(description = "Sort by field (defaults to relevance when searching, createdAt otherwise)") @RequestParam(required = false) String sortBy,
             @Parameter(description = "Sort direction") @RequestParam(defaultValue = "desc") String sortDir,
-            @Parameter(description = "Category filter") @RequestParam(required = false) String category,
-            @Parameter(description = "Brand filter") @RequestParam(required = false) String brand,
+            @Parameter(description = "Category filter (comma-separated for any of)") @RequestParam(required = false) List<String> category,
+            @Parameter(description = "Subcategory filter (comma-separated for any of)") @RequestParam(required = false) List<String> subcategory,
+            @Parameter(description = "Brand filter (comma-separated for any of)") @RequestParam(required = false) List<String> brand,
             @Parameter(description = "Minimum price") @RequestParam(required = false) BigDecimal minPrice,
             @Parameter(description = "Maximum price") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Only products in stock (true) or out of stock (false)") @RequestParam(required = false) Boolean inStock,
+            @Parameter(description = "Only featured (true) or non-featured (false) products") @RequestParam(required = false) Boolean featured,
             @Parameter(description = "Search keyword") @RequestParam(required = false) String search,
             @Parameter(description = "Show only active products") @RequestParam(defaultValue = "true") boolean activeOnly) {
         
         try {
-            Sort sort = Sort.by(sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC, sortBy);
+            ProductFilter filter = new ProductFilter();
+            filter.setSearch(search);
+            filter.setCategories(category);
+            filter.setSubcategories(subcategory);
+            filter.setBrands(brand);
+            filter.setMinPrice(minPrice);
+            filter.setMaxPrice(maxPrice);
+            filter.setInStock(inStock);
+            filter.setFeatured(featured);
+            filter.setActiveOnly(activeOnly);
+            
+            if (sortBy == null && !filter.hasSearch()) {
+                sortBy = "createdAt";
+            }
+            
+            Sort sort = sortBy == null ? Sort.unsorted()
+                    : Sort.by(sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC, sortBy);
             Pageable pageable = PageRequest.of(page, size, sort);
             
-            Page<Product> products;
-            
-            if (search != null && !search.trim().isEmpty()) {
-                products = productService.searchProducts(search, pageable);
-            } else if (category != null && !category.trim().isEmpty()) {
-                products = productService.getProductsByCategory(category, pageable);
-            } else if (brand != null && !brand.trim().isEmpty()) {
-                products = productService.getProductsByBrand(brand, pageable);
-            } else if (minPrice != null && maxPrice != null) {
-                products = productService.getProductsByPriceRange(minPrice, maxPrice, pageable);
-            } else if (activeOnly) {
-                products = productService.getActiveProducts(pageable);
-            } else {
-                products = productService.getAllProducts(pageable);
-            }
+            Page<Product> products = productService.findProducts(filter, pageable);
             
             return ResponseEntity.ok(ApiResponse.success(products, "Products retrieved successfully"));
             
@@ -74,6 +81,26 @@ public class ProductController {
         }
     }
     
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll active products", description = "Retrieve active products page by page using a continuation cursor (no total count)")
+    public ResponseEntity<ApiResponse<CursorPage<Product>>> scrollProducts(
+            @Parameter(description = "Cursor returned by the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort by field (createdAt or name)") @RequestParam(defaultValue = "createdAt") String sortBy,
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "desc") String sortDir) {
+        
+        try {
+            CursorPage<Product> products = productService.getActiveProducts(cursor, size, sortBy, sortDir);
+            
+            return ResponseEntity.ok(ApiResponse.success(products, "Products retrieved successfully"));
+            
+        } catch (Exception e) {
+            log.error("Failed to scroll products: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to retrieve products: " + e.getMessage()));
+        }
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID", description = "Retrieve a specific product by its ID")
     public ResponseEntity<ApiResponse<Product>> getProductById(@PathVariable String id) {
@@ -1,9 +1,11 @@
 package com.ecommerce.controller;
 
 import com.ecommerce.dto.ApiResponse;
+import com.ecommerce.dto.CursorPage;
 import com.ecommerce.dto.UserResponse;
 import com.ecommerce.entity.User;
 import com.ecommerce.entity.enums.Role;
+import com.ecommerce.security.PasswordHashingRejectedException;
 import com.ecommerce.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -18,6 +20,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -93,6 +97,11 @@ public class UserController {
             
             return ResponseEntity.ok(ApiResponse.success("Password changed successfully"));
             
+        } catch (PasswordHashingRejectedException e) {
+            log.warn("Password change rejected: password hashing queue is full");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(ApiResponse.error("Too many requests, please retry shortly"));
         } catch (Exception e) {
             log.error("Failed to change password: {}", e.getMessage());
             return ResponseEntity.badRequest()
@@ -161,6 +170,29 @@ public class UserController {
         }
     }
     
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Scroll all users", description = "Retrieve users page by page using a continuation cursor, without a total count (Admin only)")
+    public ResponseEntity<ApiResponse<CursorPage<UserResponse>>> scrollUsers(
+            @Parameter(description = "Cursor returned by the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort by field (createdAt, email or id)") @RequestParam(defaultValue = "createdAt") String sortBy,
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "desc") String sortDir,
+            @Parameter(description = "Filter by role") @RequestParam(required = false) Role role) {
+        
+        try {
+            CursorPage<UserResponse> users = userService.getAllUsers(role, cursor, size, sortBy, sortDir)
+                    .map(UserResponse::fromUser);
+            
+            return ResponseEntity.ok(ApiResponse.success(users, "Users retrieved successfully"));
+            
+        } catch (Exception e) {
+            log.error("Failed to scroll users: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to retrieve users: " + e.getMessage()));
+        }
+    }
+    
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Get user by ID", description = "Retrieve a specific user by ID (Admin only)")
@@ -0,0 +1,23 @@
+package com.ecommerce.dto;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.Map;
+
+/**
+ * Page of results that also carries per-facet value counts for the filter sidebar.
+ */
+public class FacetedPage<T> extends PageImpl<T> {
+
+    private final Map<String, Map<String, Integer>> facets;
+
+    public FacetedPage(Page<T> page, Map<String, Map<String, Integer>> facets) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.facets = facets;
+    }
+
+    public Map<String, Map<String, Integer>> getFacets() {
+        return facets;
+    }
+}
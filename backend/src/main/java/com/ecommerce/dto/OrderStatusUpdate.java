@@ -0,0 +1,33 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.entity.enums.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One order of a bulk status update; an update with only a tracking number ships the order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusUpdate {
+    
+    @NotNull(message = "Order ID is required")
+    private Long orderId;
+    
+    private OrderStatus status;
+    
+    @Size(max = 255, message = "Tracking number must not exceed 255 characters")
+    private String trackingNumber;
+    
+    @JsonIgnore
+    @AssertTrue(message = "Status or tracking number is required")
+    public boolean isStatusOrTrackingNumberPresent() {
+        return status != null || (trackingNumber != null && !trackingNumber.isBlank());
+    }
+}
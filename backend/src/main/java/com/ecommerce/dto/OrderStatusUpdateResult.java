@@ -0,0 +1,14 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.entity.enums.OrderStatus;
+
+/**
+ * Outcome of one order of a bulk status update; a failed update keeps the order's current status.
+ */
+public record OrderStatusUpdateResult(Long orderId, boolean success, OrderStatus previousStatus, OrderStatus status,
+                                      String error) {
+
+    public static OrderStatusUpdateResult failed(Long orderId, OrderStatus currentStatus, String error) {
+        return new OrderStatusUpdateResult(orderId, false, currentStatus, currentStatus, error);
+    }
+}
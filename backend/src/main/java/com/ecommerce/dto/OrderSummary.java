@@ -0,0 +1,117 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.entity.AddressInfo;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OrderItem;
+import com.ecommerce.entity.enums.OrderStatus;
+import com.ecommerce.entity.enums.PaymentMethod;
+import com.ecommerce.entity.enums.PaymentStatus;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Self-contained view of an order with its items and addresses, as stored in the order read model and
+ * returned by the order history and detail endpoints.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OrderSummary {
+
+    private Long id;
+    private String orderNumber;
+    private Long userId;
+    private BigDecimal subtotal;
+    private BigDecimal tax;
+    private BigDecimal shipping;
+    private BigDecimal discount;
+    private BigDecimal total;
+    private OrderStatus status;
+    private PaymentMethod paymentMethod;
+    private PaymentStatus paymentStatus;
+    private String trackingNumber;
+    private LocalDateTime estimatedDelivery;
+    private String notes;
+    private String couponCode;
+    // AddressInfo also serializes derived properties such as fullAddress
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private AddressInfo shippingAddress;
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private AddressInfo billingAddress;
+    private List<Item> items = new ArrayList<>();
+    private Integer totalItems;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static OrderSummary fromOrder(Order order, List<OrderItem> orderItems) {
+        OrderSummary summary = new OrderSummary();
+        summary.setId(order.getId());
+        summary.setOrderNumber(order.getOrderNumber());
+        summary.setUserId(order.getUser().getId());
+        summary.setSubtotal(order.getSubtotal());
+        summary.setTax(order.getTax());
+        summary.setShipping(order.getShipping());
+        summary.setDiscount(order.getDiscount());
+        summary.setTotal(order.getTotal());
+        summary.setStatus(order.getStatus());
+        summary.setPaymentMethod(order.getPaymentMethod());
+        summary.setPaymentStatus(order.getPaymentStatus());
+        summary.setTrackingNumber(order.getTrackingNumber());
+        summary.setEstimatedDelivery(order.getEstimatedDelivery());
+        summary.setNotes(order.getNotes());
+        summary.setCouponCode(order.getCouponCode());
+        summary.setShippingAddress(order.getShippingAddress());
+        summary.setBillingAddress(order.getBillingAddress());
+        summary.setItems(orderItems.stream().map(Item::fromOrderItem).toList());
+        summary.setTotalItems(orderItems.stream().mapToInt(OrderItem::getQuantity).sum());
+        summary.setCreatedAt(order.getCreatedAt());
+        summary.setUpdatedAt(order.getUpdatedAt());
+        return summary;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Item {
+
+        private Long id;
+        private String productId;
+        private String productName;
+        private String productImage;
+        private String productSku;
+        private Integer quantity;
+        private BigDecimal unitPrice;
+        private BigDecimal totalPrice;
+        private Map<String, String> selectedVariants;
+
+        public static Item fromOrderItem(OrderItem orderItem) {
+            Item item = new Item();
+            item.setId(orderItem.getId());
+            item.setProductId(orderItem.getProductId());
+            item.setProductName(orderItem.getProductName());
+            item.setProductImage(orderItem.getProductImage());
+            item.setProductSku(orderItem.getProductSku());
+            item.setQuantity(orderItem.getQuantity());
+            item.setUnitPrice(orderItem.getUnitPrice());
+            item.setTotalPrice(orderItem.getTotalPrice());
+            item.setSelectedVariants(orderItem.getSelectedVariants() != null
+                    ? new HashMap<>(orderItem.getSelectedVariants())
+                    : null);
+            return item;
+        }
+    }
+}
@@ -18,7 +18,8 @@ import java.util.Objects;
 public class Address {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "addresses_seq")
+    @SequenceGenerator(name = "addresses_seq", sequenceName = "addresses_id_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Name is required")
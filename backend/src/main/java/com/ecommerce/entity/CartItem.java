@@ -19,7 +19,8 @@ import java.util.Objects;
 public class CartItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_items_seq")
+    @SequenceGenerator(name = "cart_items_seq", sequenceName = "cart_items_id_seq", allocationSize = 50)
     private Long id;
     
     @NotNull(message = "Product ID is required")
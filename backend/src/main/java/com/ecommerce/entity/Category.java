@@ -9,13 +9,14 @@ import org.springframework.data.annotation.LastModifiedDate;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import jakarta.validation.constraints.Min;
+import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
 @Document(collection = "categories")
-public class Category {
+public class Category implements Serializable {
     
     @Id
     private String id;
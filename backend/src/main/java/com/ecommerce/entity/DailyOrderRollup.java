@@ -0,0 +1,59 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Orders created on one day with one status and payment method, maintained by the analytics rollup job.
+ */
+@Entity
+@Table(name = "daily_order_rollups")
+public class DailyOrderRollup {
+    
+    @EmbeddedId
+    private DailyRollupId id;
+    
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+    
+    // Sum of order totals
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+    
+    // Constructors
+    public DailyOrderRollup() {}
+    
+    // Getters and Setters
+    public DailyRollupId getId() { return id; }
+    public void setId(DailyRollupId id) { this.id = id; }
+    
+    public long getOrderCount() { return orderCount; }
+    public void setOrderCount(long orderCount) { this.orderCount = orderCount; }
+    
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DailyOrderRollup that = (DailyOrderRollup) o;
+        return Objects.equals(id, that.id);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+    
+    @Override
+    public String toString() {
+        return "DailyOrderRollup{" +
+                "id=" + id +
+                ", orderCount=" + orderCount +
+                ", totalAmount=" + totalAmount +
+                '}';
+    }
+}
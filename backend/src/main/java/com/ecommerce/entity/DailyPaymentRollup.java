@@ -0,0 +1,59 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Payments created on one day with one status and payment method, maintained by the analytics rollup job.
+ */
+@Entity
+@Table(name = "daily_payment_rollups")
+public class DailyPaymentRollup {
+    
+    @EmbeddedId
+    private DailyRollupId id;
+    
+    @Column(name = "payment_count", nullable = false)
+    private long paymentCount;
+    
+    // Sum of payment amounts
+    @Column(name = "amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal amount = BigDecimal.ZERO;
+    
+    // Constructors
+    public DailyPaymentRollup() {}
+    
+    // Getters and Setters
+    public DailyRollupId getId() { return id; }
+    public void setId(DailyRollupId id) { this.id = id; }
+    
+    public long getPaymentCount() { return paymentCount; }
+    public void setPaymentCount(long paymentCount) { this.paymentCount = paymentCount; }
+    
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DailyPaymentRollup that = (DailyPaymentRollup) o;
+        return Objects.equals(id, that.id);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+    
+    @Override
+    public String toString() {
+        return "DailyPaymentRollup{" +
+                "id=" + id +
+                ", paymentCount=" + paymentCount +
+                ", amount=" + amount +
+                '}';
+    }
+}
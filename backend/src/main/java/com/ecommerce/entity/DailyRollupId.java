@@ -0,0 +1,64 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Embeddable
+public class DailyRollupId implements Serializable {
+    
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+    
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+    
+    @Column(name = "payment_method", nullable = false, length = 20)
+    private String paymentMethod;
+    
+    // Constructors
+    public DailyRollupId() {}
+    
+    public DailyRollupId(LocalDate day, String status, String paymentMethod) {
+        this.day = day;
+        this.status = status;
+        this.paymentMethod = paymentMethod;
+    }
+    
+    // Getters and Setters
+    public LocalDate getDay() { return day; }
+    public void setDay(LocalDate day) { this.day = day; }
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    
+    public String getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DailyRollupId that = (DailyRollupId) o;
+        return Objects.equals(day, that.day) &&
+               Objects.equals(status, that.status) &&
+               Objects.equals(paymentMethod, that.paymentMethod);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(day, status, paymentMethod);
+    }
+    
+    @Override
+    public String toString() {
+        return "DailyRollupId{" +
+                "day=" + day +
+                ", status='" + status + '\'' +
+                ", paymentMethod='" + paymentMethod + '\'' +
+                '}';
+    }
+}
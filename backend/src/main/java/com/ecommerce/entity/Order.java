@@ -3,6 +3,7 @@ package com.ecommerce.entity;
 import com.ecommerce.entity.enums.OrderStatus;
 import com.ecommerce.entity.enums.PaymentMethod;
 import com.ecommerce.entity.enums.PaymentStatus;
+import com.ecommerce.util.SnowflakeIdGenerator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
@@ -17,7 +18,6 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
 
 @Entity
 @Table(name = "orders")
@@ -25,11 +25,13 @@ import java.util.UUID;
 public class Order {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_id_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Order number is required")
-    @Column(name = "order_number", unique = true, nullable = false)
+    // Unique per (order_number, created_at) in the partitioned table; generated numbers never repeat
+    @Column(name = "order_number", nullable = false)
     private String orderNumber;
     
     @NotNull(message = "Subtotal is required")
@@ -125,9 +127,7 @@ public class Order {
     private LocalDateTime updatedAt;
     
     // Constructors
-    public Order() {
-        this.orderNumber = generateOrderNumber();
-    }
+    public Order() {}
     
     public Order(User user, BigDecimal subtotal, BigDecimal tax, BigDecimal shipping, PaymentMethod paymentMethod) {
         this();
@@ -140,8 +140,12 @@ public class Order {
     }
     
     // Helper methods
-    private String generateOrderNumber() {
-        return "ORD-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    // Assigned on first save rather than in the constructor, which also runs for every loaded row
+    @PrePersist
+    protected void generateOrderNumber() {
+        if (orderNumber == null) {
+            orderNumber = SnowflakeIdGenerator.shared().nextId("ORD-");
+        }
     }
     
     public BigDecimal calculateTotal() {
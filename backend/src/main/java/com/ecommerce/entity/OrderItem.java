@@ -21,7 +21,8 @@ import java.util.Objects;
 public class OrderItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_id_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Product ID is required")
@@ -54,13 +55,15 @@ public class OrderItem {
     private BigDecimal totalPrice;
     
     @ElementCollection
-    @CollectionTable(name = "order_item_variants", joinColumns = @JoinColumn(name = "order_item_id"))
+    @CollectionTable(name = "order_item_variants", joinColumns = @JoinColumn(name = "order_item_id"),
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @MapKeyColumn(name = "variant_name")
     @Column(name = "variant_value")
     private Map<String, String> selectedVariants = new HashMap<>();
     
+    // No database foreign key: orders is partitioned on created_at, so id alone is not a referenceable key
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "order_id", nullable = false)
+    @JoinColumn(name = "order_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Order order;
     
     @CreatedDate
@@ -0,0 +1,97 @@
+package com.ecommerce.entity;
+
+import com.ecommerce.dto.OrderSummary;
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Read model row of one order: the whole {@link OrderSummary} as JSON, plus the columns the history and
+ * detail lookups filter and sort on. Rewritten by {@code OrderViewService} whenever the order changes.
+ */
+@Entity
+@Table(name = "order_views")
+public class OrderView {
+    
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "order_number", nullable = false)
+    private String orderNumber;
+    
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private OrderSummary summary;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public OrderView() {}
+    
+    public OrderView(OrderSummary summary) {
+        this.orderId = summary.getId();
+        update(summary);
+    }
+    
+    // Helper methods
+    public void update(OrderSummary summary) {
+        this.userId = summary.getUserId();
+        this.orderNumber = summary.getOrderNumber();
+        this.summary = summary;
+        this.createdAt = summary.getCreatedAt() != null ? summary.getCreatedAt() : LocalDateTime.now();
+        this.updatedAt = summary.getUpdatedAt() != null ? summary.getUpdatedAt() : this.createdAt;
+    }
+    
+    // Getters and Setters
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public String getOrderNumber() { return orderNumber; }
+    public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+    
+    public OrderSummary getSummary() { return summary; }
+    public void setSummary(OrderSummary summary) { this.summary = summary; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OrderView orderView = (OrderView) o;
+        return Objects.equals(orderId, orderView.orderId);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(orderId);
+    }
+    
+    @Override
+    public String toString() {
+        return "OrderView{" +
+                "orderId=" + orderId +
+                ", orderNumber='" + orderNumber + '\'' +
+                ", userId=" + userId +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
@@ -0,0 +1,147 @@
+package com.ecommerce.entity;
+
+import com.ecommerce.entity.enums.OutboxEventType;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+@Entity
+@Table(name = "outbox_events")
+@EntityListeners(AuditingEntityListener.class)
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_id_seq", allocationSize = 50)
+    private Long id;
+    
+    @NotNull(message = "Event type is required")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxEventType type;
+    
+    // What caused the event, e.g. "order:42"
+    @Column(nullable = false)
+    private String reference;
+    
+    @ElementCollection
+    @CollectionTable(name = "outbox_event_lines", joinColumns = @JoinColumn(name = "event_id"))
+    private List<StockDelta> lines = new ArrayList<>();
+    
+    @Column(nullable = false)
+    private int attempts = 0;
+    
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    
+    // Not relayed again before this after a failure
+    @Column(name = "retry_at")
+    private LocalDateTime retryAt;
+    
+    // Set once the event has failed too often; parked events are left for manual repair
+    @Column(name = "parked_at")
+    private LocalDateTime parkedAt;
+    
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+    
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public OutboxEvent() {}
+    
+    public OutboxEvent(OutboxEventType type, String reference, List<StockDelta> lines) {
+        this.type = type;
+        this.reference = reference;
+        this.lines = new ArrayList<>(lines);
+    }
+    
+    // Helper methods
+    public boolean isProcessed() {
+        return processedAt != null;
+    }
+    
+    public boolean isParked() {
+        return parkedAt != null;
+    }
+    
+    public void markProcessed() {
+        this.processedAt = LocalDateTime.now();
+        this.retryAt = null;
+        this.lastError = null;
+    }
+    
+    public void markFailed(String error, LocalDateTime retryAt) {
+        this.attempts++;
+        this.retryAt = retryAt;
+        this.lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+    
+    public void park() {
+        this.parkedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public OutboxEventType getType() { return type; }
+    public void setType(OutboxEventType type) { this.type = type; }
+    
+    public String getReference() { return reference; }
+    public void setReference(String reference) { this.reference = reference; }
+    
+    public List<StockDelta> getLines() { return lines; }
+    public void setLines(List<StockDelta> lines) { this.lines = lines; }
+    
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    
+    public LocalDateTime getRetryAt() { return retryAt; }
+    public void setRetryAt(LocalDateTime retryAt) { this.retryAt = retryAt; }
+    
+    public LocalDateTime getParkedAt() { return parkedAt; }
+    public void setParkedAt(LocalDateTime parkedAt) { this.parkedAt = parkedAt; }
+    
+    public LocalDateTime getProcessedAt() { return processedAt; }
+    public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OutboxEvent that = (OutboxEvent) o;
+        return Objects.equals(id, that.id);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+    
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+                "id=" + id +
+                ", type=" + type +
+                ", reference='" + reference + '\'' +
+                ", attempts=" + attempts +
+                ", parkedAt=" + parkedAt +
+                ", processedAt=" + processedAt +
+                '}';
+    }
+}
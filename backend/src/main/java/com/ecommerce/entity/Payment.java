@@ -2,6 +2,7 @@ package com.ecommerce.entity;
 
 import com.ecommerce.entity.enums.PaymentMethod;
 import com.ecommerce.entity.enums.PaymentStatus;
+import com.ecommerce.util.SnowflakeIdGenerator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
@@ -14,7 +15,6 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Objects;
-import java.util.UUID;
 
 @Entity
 @Table(name = "payments")
@@ -22,11 +22,13 @@ import java.util.UUID;
 public class Payment {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @SequenceGenerator(name = "payments_seq", sequenceName = "payments_id_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Payment reference is required")
-    @Column(name = "payment_reference", unique = true, nullable = false)
+    // Unique per (payment_reference, created_at) in the partitioned table; generated references never repeat
+    @Column(name = "payment_reference", nullable = false)
     private String paymentReference;
     
     @NotNull(message = "Amount is required")
@@ -77,7 +79,7 @@ public class Payment {
     private String notes;
     
     @OneToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "order_id", nullable = false)
+    @JoinColumn(name = "order_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Order order;
     
     @CreatedDate
@@ -89,9 +91,7 @@ public class Payment {
     private LocalDateTime updatedAt;
     
     // Constructors
-    public Payment() {
-        this.paymentReference = generatePaymentReference();
-    }
+    public Payment() {}
     
     public Payment(BigDecimal amount, String currency, PaymentMethod paymentMethod, Order order) {
         this();
@@ -103,8 +103,12 @@ public class Payment {
     }
     
     // Helper methods
-    private String generatePaymentReference() {
-        return "PAY-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    // Assigned on first save, like Order#generateOrderNumber
+    @PrePersist
+    protected void generatePaymentReference() {
+        if (paymentReference == null) {
+            paymentReference = SnowflakeIdGenerator.shared().nextId("PAY-");
+        }
     }
     
     public void updateNetAmount() {
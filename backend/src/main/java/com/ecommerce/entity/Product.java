@@ -1,5 +1,6 @@
 package com.ecommerce.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -7,13 +8,14 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
 import jakarta.validation.constraints.*;
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.*;
 
 @Document(collection = "products")
-public class Product {
+public class Product implements Serializable {
     
     @Id
     private String id;
@@ -108,6 +110,11 @@ public class Product {
     @Field("meta_keywords")
     private List<String> metaKeywords = new ArrayList<>();
     
+    // Outbox events already applied to the stock and sales counters; written only by StockService
+    @JsonIgnore
+    @Field("applied_outbox_events")
+    private List<Long> appliedOutboxEvents = new ArrayList<>();
+    
     @CreatedDate
     @Field("created_at")
     private LocalDateTime createdAt;
@@ -247,6 +254,9 @@ public class Product {
     public List<String> getMetaKeywords() { return metaKeywords; }
     public void setMetaKeywords(List<String> metaKeywords) { this.metaKeywords = metaKeywords; }
     
+    public List<Long> getAppliedOutboxEvents() { return appliedOutboxEvents; }
+    public void setAppliedOutboxEvents(List<Long> appliedOutboxEvents) { this.appliedOutboxEvents = appliedOutboxEvents; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
@@ -281,7 +291,7 @@ public class Product {
     }
 }
 
-class ProductVariant {
+class ProductVariant implements Serializable {
     private String name;
     private String value;
     private BigDecimal priceModifier = BigDecimal.ZERO;
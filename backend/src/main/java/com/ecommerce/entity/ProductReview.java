@@ -17,7 +17,8 @@ import java.util.Objects;
 public class ProductReview {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_reviews_seq")
+    @SequenceGenerator(name = "product_reviews_seq", sequenceName = "product_reviews_id_seq", allocationSize = 50)
     private Long id;
     
     @NotNull(message = "Product ID is required")
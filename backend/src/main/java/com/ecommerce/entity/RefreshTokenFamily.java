@@ -0,0 +1,122 @@
+package com.ecommerce.entity;
+
+import com.ecommerce.entity.enums.Role;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * The chain of refresh tokens issued from one login. Each refresh replaces {@code currentTokenId} with
+ * a new token; presenting any earlier token of the chain is reuse, and revokes the whole family.
+ * The family carries what a refresh needs to issue new tokens, so refreshing never reads the user.
+ */
+@Entity
+@Table(name = "refresh_token_families", indexes = {
+    @Index(name = "idx_refresh_token_families_user_id", columnList = "user_id"),
+    @Index(name = "idx_refresh_token_families_expires_at", columnList = "expires_at")
+})
+public class RefreshTokenFamily {
+    
+    @Id
+    @Column(name = "family_id", length = 36)
+    private String familyId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(nullable = false)
+    private String email;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Role role;
+    
+    @Column(name = "token_version", nullable = false)
+    private Integer tokenVersion;
+    
+    @Column(name = "current_token_id", nullable = false, length = 36)
+    private String currentTokenId;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public RefreshTokenFamily() {}
+    
+    public RefreshTokenFamily(String familyId, User user, String currentTokenId, LocalDateTime expiresAt) {
+        this.familyId = familyId;
+        this.userId = user.getId();
+        this.email = user.getEmail();
+        this.role = user.getRole();
+        this.tokenVersion = user.getTokenVersion();
+        this.currentTokenId = currentTokenId;
+        this.expiresAt = expiresAt;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+    
+    // Getters and Setters
+    public String getFamilyId() { return familyId; }
+    public void setFamilyId(String familyId) { this.familyId = familyId; }
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    
+    public Role getRole() { return role; }
+    public void setRole(Role role) { this.role = role; }
+    
+    public Integer getTokenVersion() { return tokenVersion; }
+    public void setTokenVersion(Integer tokenVersion) { this.tokenVersion = tokenVersion; }
+    
+    public String getCurrentTokenId() { return currentTokenId; }
+    public void setCurrentTokenId(String currentTokenId) { this.currentTokenId = currentTokenId; }
+    
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+    
+    public LocalDateTime getRevokedAt() { return revokedAt; }
+    public void setRevokedAt(LocalDateTime revokedAt) { this.revokedAt = revokedAt; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RefreshTokenFamily that = (RefreshTokenFamily) o;
+        return Objects.equals(familyId, that.familyId);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(familyId);
+    }
+    
+    @Override
+    public String toString() {
+        return "RefreshTokenFamily{" +
+                "familyId='" + familyId + '\'' +
+                ", userId=" + userId +
+                ", currentTokenId='" + currentTokenId + '\'' +
+                ", expiresAt=" + expiresAt +
+                ", revokedAt=" + revokedAt +
+                '}';
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * How far a rollup job has read its source table: every row updated at or before
+ * {@code processedUntil} is reflected in the rollup.
+ */
+@Entity
+@Table(name = "rollup_watermarks")
+public class RollupWatermark {
+    
+    @Id
+    @Column(length = 100)
+    private String name;
+    
+    @Column(name = "processed_until", nullable = false)
+    private LocalDateTime processedUntil;
+    
+    // Constructors
+    public RollupWatermark() {}
+    
+    public RollupWatermark(String name, LocalDateTime processedUntil) {
+        this.name = name;
+        this.processedUntil = processedUntil;
+    }
+    
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public LocalDateTime getProcessedUntil() { return processedUntil; }
+    public void setProcessedUntil(LocalDateTime processedUntil) { this.processedUntil = processedUntil; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RollupWatermark that = (RollupWatermark) o;
+        return Objects.equals(name, that.name);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(name);
+    }
+    
+    @Override
+    public String toString() {
+        return "RollupWatermark{" +
+                "name='" + name + '\'' +
+                ", processedUntil=" + processedUntil +
+                '}';
+    }
+}
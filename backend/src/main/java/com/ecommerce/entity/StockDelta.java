@@ -0,0 +1,71 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.util.Objects;
+
+@Embeddable
+public class StockDelta {
+    
+    @Column(name = "product_id", nullable = false)
+    private String productId;
+    
+    @Column(name = "stock_delta", nullable = false)
+    private int stockDelta;
+    
+    @Column(name = "sales_delta", nullable = false)
+    private int salesDelta;
+    
+    // Constructors
+    public StockDelta() {}
+    
+    public StockDelta(String productId, int stockDelta, int salesDelta) {
+        this.productId = productId;
+        this.stockDelta = stockDelta;
+        this.salesDelta = salesDelta;
+    }
+    
+    // Helper methods
+    public static StockDelta returned(String productId, int quantity) {
+        return new StockDelta(productId, quantity, 0);
+    }
+    
+    public static StockDelta sold(String productId, int quantity) {
+        return new StockDelta(productId, 0, quantity);
+    }
+    
+    // Getters and Setters
+    public String getProductId() { return productId; }
+    public void setProductId(String productId) { this.productId = productId; }
+    
+    public int getStockDelta() { return stockDelta; }
+    public void setStockDelta(int stockDelta) { this.stockDelta = stockDelta; }
+    
+    public int getSalesDelta() { return salesDelta; }
+    public void setSalesDelta(int salesDelta) { this.salesDelta = salesDelta; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        StockDelta that = (StockDelta) o;
+        return stockDelta == that.stockDelta &&
+               salesDelta == that.salesDelta &&
+               Objects.equals(productId, that.productId);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(productId, stockDelta, salesDelta);
+    }
+    
+    @Override
+    public String toString() {
+        return "StockDelta{" +
+                "productId='" + productId + '\'' +
+                ", stockDelta=" + stockDelta +
+                ", salesDelta=" + salesDelta +
+                '}';
+    }
+}
@@ -0,0 +1,117 @@
+package com.ecommerce.entity;
+
+import com.ecommerce.entity.enums.ReservationStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+@Entity
+@Table(name = "stock_reservations")
+@EntityListeners(AuditingEntityListener.class)
+public class StockReservation {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reservations_seq")
+    @SequenceGenerator(name = "stock_reservations_seq", sequenceName = "stock_reservations_id_seq", allocationSize = 50)
+    private Long id;
+    
+    @NotNull(message = "Order ID is required")
+    @Column(name = "order_id", unique = true, nullable = false)
+    private Long orderId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReservationStatus status = ReservationStatus.ACTIVE;
+    
+    @ElementCollection
+    @CollectionTable(name = "stock_reservation_items", joinColumns = @JoinColumn(name = "reservation_id"))
+    @MapKeyColumn(name = "product_id")
+    @Column(name = "quantity", nullable = false)
+    private Map<String, Integer> quantities = new HashMap<>();
+    
+    @NotNull(message = "Expiry time is required")
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public StockReservation() {}
+    
+    public StockReservation(Long orderId, Map<String, Integer> quantities, LocalDateTime expiresAt) {
+        this.orderId = orderId;
+        this.quantities = new HashMap<>(quantities);
+        this.expiresAt = expiresAt;
+    }
+    
+    // Helper methods
+    public boolean isActive() {
+        return status == ReservationStatus.ACTIVE;
+    }
+    
+    public void commit() {
+        this.status = ReservationStatus.COMMITTED;
+    }
+    
+    public void release() {
+        this.status = ReservationStatus.RELEASED;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    
+    public ReservationStatus getStatus() { return status; }
+    public void setStatus(ReservationStatus status) { this.status = status; }
+    
+    public Map<String, Integer> getQuantities() { return quantities; }
+    public void setQuantities(Map<String, Integer> quantities) { this.quantities = quantities; }
+    
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        StockReservation that = (StockReservation) o;
+        return Objects.equals(id, that.id) && Objects.equals(orderId, that.orderId);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, orderId);
+    }
+    
+    @Override
+    public String toString() {
+        return "StockReservation{" +
+                "id=" + id +
+                ", orderId=" + orderId +
+                ", status=" + status +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
@@ -22,7 +22,8 @@ import java.util.*;
 public class User implements UserDetails {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "First name is required")
@@ -64,6 +65,10 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private Role role = Role.USER;
     
+    // Access tokens carry the version they were issued under; bumping it revokes every earlier token
+    @Column(name = "token_version", nullable = false)
+    private Integer tokenVersion = 0;
+    
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Address> addresses = new HashSet<>();
     
@@ -132,6 +137,10 @@ public class User implements UserDetails {
     }
     
     // Helper methods
+    public void revokeTokens() {
+        this.tokenVersion = tokenVersion + 1;
+    }
+    
     public String getFullName() {
         return firstName + " " + lastName;
     }
@@ -174,6 +183,9 @@ public class User implements UserDetails {
     public Role getRole() { return role; }
     public void setRole(Role role) { this.role = role; }
     
+    public Integer getTokenVersion() { return tokenVersion; }
+    public void setTokenVersion(Integer tokenVersion) { this.tokenVersion = tokenVersion; }
+    
     public Set<Address> getAddresses() { return addresses; }
     public void setAddresses(Set<Address> addresses) { this.addresses = addresses; }
     
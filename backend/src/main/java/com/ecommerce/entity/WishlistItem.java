@@ -16,7 +16,8 @@ import java.util.Objects;
 public class WishlistItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wishlist_items_seq")
+    @SequenceGenerator(name = "wishlist_items_seq", sequenceName = "wishlist_items_id_seq", allocationSize = 50)
     private Long id;
     
     @NotNull(message = "Product ID is required")
@@ -0,0 +1,15 @@
+package com.ecommerce.entity.enums;
+
+public enum OutboxEventType {
+    STOCK_ADJUSTMENT("Stock and sales count changes for products");
+
+    private final String description;
+
+    OutboxEventType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.entity.enums;
+
+public enum ReservationStatus {
+    ACTIVE("Stock is held for the order"),
+    COMMITTED("Held stock was sold"),
+    RELEASED("Held stock was returned");
+
+    private final String description;
+
+    ReservationStatus(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
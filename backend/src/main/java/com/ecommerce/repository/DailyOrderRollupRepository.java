@@ -0,0 +1,36 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.DailyOrderRollup;
+import com.ecommerce.entity.DailyRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DailyOrderRollupRepository extends JpaRepository<DailyOrderRollup, DailyRollupId> {
+    
+    // Creation days of the orders changed in (since, upTo]; only these days need rebuilding
+    @Query(value = "SELECT DISTINCT CAST(created_at AS DATE) FROM orders WHERE updated_at > :since AND updated_at <= :upTo", nativeQuery = true)
+    List<Object> findDaysUpdatedBetween(@Param("since") LocalDateTime since, @Param("upTo") LocalDateTime upTo);
+    
+    @Modifying
+    @Query(value = "DELETE FROM daily_order_rollups WHERE day BETWEEN :firstDay AND :lastDay", nativeQuery = true)
+    int deleteDays(@Param("firstDay") LocalDate firstDay, @Param("lastDay") LocalDate lastDay);
+    
+    @Modifying
+    @Query(value = "INSERT INTO daily_order_rollups (day, status, payment_method, order_count, total_amount) " +
+            "SELECT CAST(created_at AS DATE), status, payment_method, COUNT(*), COALESCE(SUM(total), 0) FROM orders " +
+            "WHERE created_at >= :from AND created_at < :to " +
+            "GROUP BY CAST(created_at AS DATE), status, payment_method", nativeQuery = true)
+    int rollUp(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @Query("SELECT COALESCE(SUM(r.totalAmount), 0) FROM DailyOrderRollup r WHERE r.id.day BETWEEN :firstDay AND :lastDay")
+    BigDecimal sumTotalBetweenDays(@Param("firstDay") LocalDate firstDay, @Param("lastDay") LocalDate lastDay);
+}
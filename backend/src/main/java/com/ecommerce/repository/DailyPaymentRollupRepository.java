@@ -0,0 +1,42 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.DailyPaymentRollup;
+import com.ecommerce.entity.DailyRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DailyPaymentRollupRepository extends JpaRepository<DailyPaymentRollup, DailyRollupId> {
+    
+    // Creation days of the payments changed in (since, upTo]; only these days need rebuilding
+    @Query(value = "SELECT DISTINCT CAST(created_at AS DATE) FROM payments WHERE updated_at > :since AND updated_at <= :upTo", nativeQuery = true)
+    List<Object> findDaysUpdatedBetween(@Param("since") LocalDateTime since, @Param("upTo") LocalDateTime upTo);
+    
+    @Modifying
+    @Query(value = "DELETE FROM daily_payment_rollups WHERE day BETWEEN :firstDay AND :lastDay", nativeQuery = true)
+    int deleteDays(@Param("firstDay") LocalDate firstDay, @Param("lastDay") LocalDate lastDay);
+    
+    @Modifying
+    @Query(value = "INSERT INTO daily_payment_rollups (day, status, payment_method, payment_count, amount) " +
+            "SELECT CAST(created_at AS DATE), status, payment_method, COUNT(*), COALESCE(SUM(amount), 0) FROM payments " +
+            "WHERE created_at >= :from AND created_at < :to " +
+            "GROUP BY CAST(created_at AS DATE), status, payment_method", nativeQuery = true)
+    int rollUp(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    // [day, count, amount] per day, all statuses
+    @Query("SELECT r.id.day, SUM(r.paymentCount), SUM(r.amount) FROM DailyPaymentRollup r " +
+            "WHERE r.id.day BETWEEN :firstDay AND :lastDay GROUP BY r.id.day ORDER BY r.id.day")
+    List<Object[]> getDailyStats(@Param("firstDay") LocalDate firstDay, @Param("lastDay") LocalDate lastDay);
+    
+    // [payment method, count, amount] for one status over the days before :before
+    @Query("SELECT r.id.paymentMethod, SUM(r.paymentCount), SUM(r.amount) FROM DailyPaymentRollup r " +
+            "WHERE r.id.status = :status AND r.id.day < :before GROUP BY r.id.paymentMethod")
+    List<Object[]> getPaymentMethodStats(@Param("status") String status, @Param("before") LocalDate before);
+}
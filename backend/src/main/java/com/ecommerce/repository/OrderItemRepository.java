@@ -11,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +23,8 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     
     List<OrderItem> findByOrderId(Long orderId);
     
+    List<OrderItem> findByOrderIdIn(Collection<Long> orderIds);
+    
     Page<OrderItem> findByOrderId(Long orderId, Pageable pageable);
     
     // Product-based queries
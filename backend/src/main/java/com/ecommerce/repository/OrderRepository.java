@@ -4,8 +4,12 @@ import com.ecommerce.entity.Order;
 import com.ecommerce.entity.User;
 import com.ecommerce.entity.enums.OrderStatus;
 import com.ecommerce.entity.enums.PaymentStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -14,6 +18,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +30,11 @@ public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecific
     
     boolean existsByOrderNumber(String orderNumber);
     
+    // Keyset (cursor) queries
+    Window<Order> findAllBy(ScrollPosition position, Limit limit, Sort sort);
+    
+    Window<Order> findByStatus(OrderStatus status, ScrollPosition position, Limit limit, Sort sort);
+    
     // User-based queries
     List<Order> findByUser(User user);
     
@@ -98,14 +108,36 @@ public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecific
     @Query("SELECT SUM(o.total) FROM Order o WHERE o.status = :status")
     BigDecimal sumTotalByStatus(@Param("status") OrderStatus status);
     
+    // Count and summed total for every status in one pass: [status, count, total]
+    @Query("SELECT o.status, COUNT(o), COALESCE(SUM(o.total), 0) FROM Order o GROUP BY o.status")
+    List<Object[]> summarizeByStatus();
+    
     @Query("SELECT SUM(o.total) FROM Order o WHERE o.createdAt BETWEEN :startDate AND :endDate")
     BigDecimal sumTotalBetweenDates(@Param("startDate") LocalDateTime startDate, 
                                    @Param("endDate") LocalDateTime endDate);
     
+    @Query("SELECT COALESCE(SUM(o.total), 0) FROM Order o WHERE o.createdAt >= :from AND o.createdAt < :to")
+    BigDecimal sumTotalCreatedInInterval(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
     @Query("SELECT SUM(o.total) FROM Order o WHERE o.userId = :userId AND o.status = :status")
     BigDecimal sumTotalByUserIdAndStatus(@Param("userId") Long userId, @Param("status") OrderStatus status);
     
+    // Current status and total of each order, without loading the entities: [id, status, total]
+    @Query("SELECT o.id, o.status, o.total FROM Order o WHERE o.id IN :ids")
+    List<Object[]> findStatusSnapshots(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT o.id FROM Order o WHERE o.updatedAt > :since AND o.updatedAt <= :upTo")
+    List<Long> findIdsUpdatedBetween(@Param("since") LocalDateTime since, @Param("upTo") LocalDateTime upTo);
+    
+    // Update times in order, to cut a catch-up run into batches that end on an update time
+    @Query("SELECT o.updatedAt FROM Order o WHERE o.updatedAt > :since AND o.updatedAt <= :upTo ORDER BY o.updatedAt")
+    List<LocalDateTime> findUpdateTimesBetween(@Param("since") LocalDateTime since, @Param("upTo") LocalDateTime upTo,
+                                               Pageable pageable);
+    
     // Complex queries with joins
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+    
     @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id = :id")
     Optional<Order> findByIdWithItems(@Param("id") Long id);
     
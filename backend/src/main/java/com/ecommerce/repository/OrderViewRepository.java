@@ -0,0 +1,27 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.dto.OrderSummary;
+import com.ecommerce.entity.OrderView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OrderViewRepository extends JpaRepository<OrderView, Long> {
+    
+    // Summaries only, newest first, served by idx_order_views_user_created
+    @Query(value = "SELECT v.summary FROM OrderView v WHERE v.userId = :userId ORDER BY v.createdAt DESC, v.orderId DESC",
+           countQuery = "SELECT COUNT(v) FROM OrderView v WHERE v.userId = :userId")
+    Page<OrderSummary> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query("SELECT v.summary FROM OrderView v WHERE v.orderId = :orderId")
+    Optional<OrderSummary> findSummaryByOrderId(@Param("orderId") Long orderId);
+    
+    @Query("SELECT v.summary FROM OrderView v WHERE v.orderNumber = :orderNumber")
+    Optional<OrderSummary> findSummaryByOrderNumber(@Param("orderNumber") String orderNumber);
+}
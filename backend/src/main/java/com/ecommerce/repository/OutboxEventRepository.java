@@ -0,0 +1,42 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    // Oldest pending events that are due, leaving out parked events and skipping rows another relay
+    // already holds (FOR UPDATE SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.processedAt IS NULL AND e.parkedAt IS NULL " +
+            "AND (e.retryAt IS NULL OR e.retryAt <= :now) ORDER BY e.id")
+    List<OutboxEvent> findPendingForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    long countByProcessedAtIsNullAndParkedAtIsNull();
+    
+    long countByParkedAtIsNotNull();
+    
+    // Cleanup of relayed events; the lines go first since they reference the event rows
+    @Modifying
+    @Query(value = "DELETE FROM outbox_event_lines WHERE event_id IN " +
+            "(SELECT id FROM outbox_events WHERE processed_at < :cutoff)", nativeQuery = true)
+    int deleteLinesProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+    
+    @Modifying
+    @Query(value = "DELETE FROM outbox_events WHERE processed_at < :cutoff", nativeQuery = true)
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
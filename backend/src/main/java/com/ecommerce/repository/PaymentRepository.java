@@ -148,6 +148,13 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<Object[]> getDailyPaymentStats(@Param("startDate") LocalDateTime startDate, 
                                        @Param("endDate") LocalDateTime endDate);
     
+    // Half-open [from, to) variants used for the live tail next to the daily rollups
+    @Query("SELECT p.paymentMethod, COUNT(p), SUM(p.amount) FROM Payment p WHERE p.status = :status AND p.createdAt >= :from GROUP BY p.paymentMethod")
+    List<Object[]> getPaymentMethodStatsByStatusCreatedFrom(@Param("status") PaymentStatus status, @Param("from") LocalDateTime from);
+    
+    @Query("SELECT DATE(p.createdAt), COUNT(p), SUM(p.amount) FROM Payment p WHERE p.createdAt >= :from AND p.createdAt < :to GROUP BY DATE(p.createdAt) ORDER BY DATE(p.createdAt)")
+    List<Object[]> getDailyPaymentStatsInInterval(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
     // Complex queries with joins
     @Query("SELECT p FROM Payment p JOIN FETCH p.order WHERE p.id = :id")
     Optional<Payment> findByIdWithOrder(@Param("id") Long id);
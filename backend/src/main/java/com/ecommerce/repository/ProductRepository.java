@@ -1,8 +1,12 @@
 package com.ecommerce.repository;
 
 import com.ecommerce.entity.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -75,6 +79,8 @@ public interface ProductRepository extends MongoRepository<Product, String> {
     
     Page<Product> findByIsActive(Boolean isActive, Pageable pageable);
     
+    Window<Product> findByIsActive(Boolean isActive, ScrollPosition position, Limit limit, Sort sort);
+    
     List<Product> findByIsFeatured(Boolean isFeatured);
     
     Page<Product> findByIsFeatured(Boolean isFeatured, Pageable pageable);
@@ -0,0 +1,39 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.RefreshTokenFamily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RefreshTokenFamilyRepository extends JpaRepository<RefreshTokenFamily, String> {
+
+    // Moves the family to its next token only if the presented token is still current; returns 0 on reuse
+    @Modifying
+    @Query("UPDATE RefreshTokenFamily f SET f.currentTokenId = :nextTokenId, f.expiresAt = :expiresAt, f.updatedAt = :now " +
+            "WHERE f.familyId = :familyId AND f.currentTokenId = :currentTokenId AND f.revokedAt IS NULL")
+    int rotate(@Param("familyId") String familyId,
+               @Param("currentTokenId") String currentTokenId,
+               @Param("nextTokenId") String nextTokenId,
+               @Param("expiresAt") LocalDateTime expiresAt,
+               @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE RefreshTokenFamily f SET f.revokedAt = :now, f.updatedAt = :now " +
+            "WHERE f.familyId = :familyId AND f.revokedAt IS NULL")
+    int revoke(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+
+    // Every family of the user, e.g. when the account is deleted
+    @Modifying
+    @Query("UPDATE RefreshTokenFamily f SET f.revokedAt = :now, f.updatedAt = :now " +
+            "WHERE f.userId = :userId AND f.revokedAt IS NULL")
+    int revokeByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM RefreshTokenFamily f WHERE f.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    // [tokenId, expiresAt] of the live revocations recorded since the given time, for syncing other nodes
+    @Query("SELECT r.tokenId, r.expiresAt FROM RevokedToken r WHERE r.revokedAt >= :since AND r.expiresAt > :now")
+    List<Object[]> findLiveRevokedSince(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
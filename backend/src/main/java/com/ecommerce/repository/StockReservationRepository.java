@@ -0,0 +1,44 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.StockReservation;
+import com.ecommerce.entity.enums.ReservationStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    
+    // Locked reads; commit, release and expiry serialize on the reservation row
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = "quantities")
+    Optional<StockReservation> findByOrderId(Long orderId);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = "quantities")
+    List<StockReservation> findByIdInAndStatus(Collection<Long> ids, ReservationStatus status);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = "quantities")
+    List<StockReservation> findByOrderIdIn(Collection<Long> orderIds);
+    
+    // Expiry schedule for open reservations, without loading their items
+    @Query("SELECT r.id, r.expiresAt FROM StockReservation r WHERE r.status = :status")
+    List<Object[]> findExpiryScheduleByStatus(@Param("status") ReservationStatus status);
+    
+    // Reservations still open past their deadline, oldest first
+    @Query("SELECT r.id FROM StockReservation r WHERE r.status = :status AND r.expiresAt < :before ORDER BY r.expiresAt")
+    List<Long> findIdsByStatusAndExpiresAtBefore(@Param("status") ReservationStatus status,
+                                                 @Param("before") LocalDateTime before,
+                                                 Pageable pageable);
+}
@@ -2,8 +2,12 @@ package com.ecommerce.repository;
 
 import com.ecommerce.entity.User;
 import com.ecommerce.entity.enums.Role;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -26,6 +30,11 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
     
     boolean existsByEmailIgnoreCase(String email);
     
+    // Keyset (cursor) queries
+    Window<User> findAllBy(ScrollPosition position, Limit limit, Sort sort);
+    
+    Window<User> findByRole(Role role, ScrollPosition position, Limit limit, Sort sort);
+    
     // Role-based queries
     List<User> findByRole(Role role);
     
@@ -98,6 +107,10 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
     @Query("UPDATE User u SET u.isActive = :isActive WHERE u.id IN :ids")
     int updateActiveStatusByIds(@Param("ids") List<Long> ids, @Param("isActive") Boolean isActive);
     
+    // Token versions of users whose tokens were revoked at least once: [id, tokenVersion]
+    @Query("SELECT u.id, u.tokenVersion FROM User u WHERE u.tokenVersion > 0 AND u.updatedAt >= :since")
+    List<Object[]> findTokenVersionsUpdatedSince(@Param("since") LocalDateTime since);
+    
     @Query("UPDATE User u SET u.isVerified = :isVerified WHERE u.id IN :ids")
     int updateVerifiedStatusByIds(@Param("ids") List<Long> ids, @Param("isVerified") Boolean isVerified);
 }
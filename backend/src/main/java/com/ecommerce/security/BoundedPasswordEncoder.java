@@ -0,0 +1,150 @@
+package com.ecommerce.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the password hashes of another encoder on a small pool sized to the CPUs, so a login spike
+ * cannot occupy every request thread with BCrypt and starve other endpoints of CPU. Request threads
+ * wait for their hash without spinning; once the pool's queue is full further hashes are rejected at
+ * once with {@link PasswordHashingRejectedException}, which the controllers answer with HTTP 429.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final int CALIBRATION_STRENGTH = 8;
+    private static final int CALIBRATION_ROUNDS = 3;
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "PasswordHash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        if (meterRegistry != null) {
+            this.encodeTimer = Timer.builder("security.password.hash")
+                    .description("Password hashing time, excluding the wait for a hashing thread")
+                    .tag("operation", "encode")
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+            this.matchesTimer = Timer.builder("security.password.hash")
+                    .description("Password hashing time, excluding the wait for a hashing thread")
+                    .tag("operation", "matches")
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+            this.rejectedCounter = Counter.builder("security.password.hash.rejected")
+                    .description("Password hashes rejected because the hashing queue was full")
+                    .register(meterRegistry);
+            Gauge.builder("security.password.hash.queued", this, BoundedPasswordEncoder::getQueuedHashes)
+                    .description("Password hashes waiting for a hashing thread")
+                    .register(meterRegistry);
+        } else {
+            this.encodeTimer = null;
+            this.matchesTimer = null;
+            this.rejectedCounter = null;
+        }
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public int getQueuedHashes() {
+        return executor.getQueue().size();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Times BCrypt on this host and returns the cost whose hash takes closest to {@code target}.
+     */
+    public static int calibrate(Duration target) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(CALIBRATION_STRENGTH);
+        long[] samples = new long[CALIBRATION_ROUNDS];
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        Duration measured = Duration.ofNanos(samples[CALIBRATION_ROUNDS / 2]);
+
+        int strength = recommendedStrength(measured, CALIBRATION_STRENGTH, target);
+        log.info("BCrypt cost {} takes {} ms on this host; cost {} is closest to the {} ms target",
+                CALIBRATION_STRENGTH, measured.toMillis(), strength, target.toMillis());
+        return strength;
+    }
+
+    // Each step of the BCrypt cost doubles the hashing time
+    static int recommendedStrength(Duration measured, int measuredStrength, Duration target) {
+        double steps = Math.log((double) target.toNanos() / Math.max(1, measured.toNanos())) / Math.log(2);
+        return (int) Math.max(4, Math.min(31, measuredStrength + Math.round(steps)));
+    }
+
+    // Private helper methods
+    private <T> T run(Callable<T> hash, Timer timer) {
+        Future<T> result;
+        try {
+            result = executor.submit(timer == null ? hash : () -> timer.recordCallable(hash));
+        } catch (RejectedExecutionException e) {
+            if (rejectedCounter != null) {
+                rejectedCounter.increment();
+            }
+            throw new PasswordHashingRejectedException();
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a password hash", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.ecommerce.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over 64-bit element hashes with 4-bit counters in place of bits, so elements can be
+ * removed again. {@link #mightContain} never misses an element that was added and not removed; it
+ * answers true for other elements with roughly the configured false positive rate. A counter that
+ * saturates stays saturated, which can only add false positives. Safe for concurrent use; lookups
+ * never lock.
+ */
+public final class CountingBloomFilter {
+
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long MAX_COUNT = 0xF;
+
+    private final AtomicLongArray words;
+    private final int counters;
+    private final int hashFunctions;
+
+    public CountingBloomFilter(int expectedElements, double falsePositiveRate) {
+        if (expectedElements <= 0) {
+            throw new IllegalArgumentException("Expected elements must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+
+        long optimal = (long) Math.ceil(-expectedElements * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.counters = (int) Math.min(Integer.MAX_VALUE - COUNTERS_PER_WORD, Math.max(COUNTERS_PER_WORD, optimal));
+        this.hashFunctions = Math.max(1, (int) Math.round((double) counters / expectedElements * Math.log(2)));
+        this.words = new AtomicLongArray((counters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+    }
+
+    public void add(long hash) {
+        for (int i = 0; i < hashFunctions; i++) {
+            update(index(hash, i), 1);
+        }
+    }
+
+    /**
+     * Removes an element added before; removing one that was never added corrupts the filter.
+     */
+    public void remove(long hash) {
+        for (int i = 0; i < hashFunctions; i++) {
+            update(index(hash, i), -1);
+        }
+    }
+
+    public boolean mightContain(long hash) {
+        for (int i = 0; i < hashFunctions; i++) {
+            if (count(index(hash, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getCounters() {
+        return counters;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    // Private helper methods
+    // Double hashing: the i-th index is h1 + i * h2, as good as k independent hashes for a Bloom filter
+    private int index(long hash, int i) {
+        int combined = (int) hash + i * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % counters;
+    }
+
+    private long count(int index) {
+        return (words.get(index / COUNTERS_PER_WORD) >>> shift(index)) & MAX_COUNT;
+    }
+
+    private void update(int index, int delta) {
+        int word = index / COUNTERS_PER_WORD;
+        int shift = shift(index);
+        while (true) {
+            long current = words.get(word);
+            long count = (current >>> shift) & MAX_COUNT;
+            // A saturated counter no longer knows how many elements share it, so it is never decremented
+            if (count == MAX_COUNT || (delta < 0 && count == 0)) {
+                return;
+            }
+            long updated = current + ((long) delta << shift);
+            if (words.compareAndSet(word, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    private static int shift(int index) {
+        return (index % COUNTERS_PER_WORD) * 4;
+    }
+}
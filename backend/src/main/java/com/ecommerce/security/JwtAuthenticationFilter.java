@@ -1,6 +1,7 @@
 package com.ecommerce.security;
 
 import com.ecommerce.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,6 +17,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Slf4j
 @Component
@@ -27,17 +29,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+    
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         
         try {
             String jwt = getJwtFromRequest(request);
+            Optional<Claims> claims = StringUtils.hasText(jwt) ? tokenProvider.parseToken(jwt) : Optional.empty();
+            if (claims.isPresent() && tokenProvider.isRefreshToken(claims.get())) {
+                log.debug("Rejected refresh token of {} used as an access token", claims.get().getSubject());
+                claims = Optional.empty();
+            }
+            if (claims.isPresent() && tokenProvider.isPurposeToken(claims.get())) {
+                log.debug("Rejected {} token of {} used as an access token",
+                        claims.get().get(JwtTokenProvider.CLAIM_PURPOSE), claims.get().getSubject());
+                claims = Optional.empty();
+            }
+            if (claims.isPresent() && tokenRevocationList.isRevoked(claims.get())) {
+                log.debug("Rejected logged out token of {}", claims.get().getSubject());
+                claims = Optional.empty();
+            }
             
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String email = tokenProvider.getEmailFromToken(jwt);
-                
-                UserDetails userDetails = userService.loadUserByUsername(email);
+            if (claims.isPresent()) {
+                UserDetails userDetails = resolvePrincipal(claims.get());
                 
                 if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authentication = 
@@ -54,6 +74,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    // Built from the token's claims; only access tokens issued before they carried the user still load it
+    private UserDetails resolvePrincipal(Claims claims) {
+        Optional<AuthenticatedUser> principal = tokenProvider.getPrincipal(claims);
+        if (principal.isEmpty()) {
+            return userService.loadUserByUsername(claims.getSubject());
+        }
+        
+        Integer tokenVersion = claims.get(JwtTokenProvider.CLAIM_TOKEN_VERSION, Integer.class);
+        if (!Boolean.TRUE.equals(claims.get(JwtTokenProvider.CLAIM_ACTIVE, Boolean.class))
+                || tokenVersion == null
+                || !tokenVersionRegistry.isCurrent(principal.get().id(), tokenVersion)) {
+            log.debug("Rejected revoked token of user {}", principal.get().id());
+            return null;
+        }
+        return principal.get();
+    }
+    
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         
@@ -1,5 +1,10 @@
 package com.ecommerce.security;
 
+import com.ecommerce.entity.User;
+import com.ecommerce.entity.enums.Role;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SecurityException;
@@ -10,71 +15,139 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
+/**
+ * Issues and verifies the HMAC-signed JWTs. The signing key and parser are built once. Verified tokens
+ * are cached by their SHA-256 hash until they expire, so a client presenting the same token on every
+ * request pays for signature verification and claims parsing only once.
+ */
 @Slf4j
 @Component
 public class JwtTokenProvider {
     
-    @Value("${jwt.secret:mySecretKey}")
-    private String jwtSecret;
+    // Access and refresh token claims describing the user, so requests can be authenticated without loading it
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_ACTIVE = "active";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    // Refresh token family, see RefreshTokenStore
+    public static final String CLAIM_FAMILY = "fid";
+    // What an emailed link token is for; such tokens only identify the email and never authenticate requests
+    public static final String CLAIM_PURPOSE = "pur";
+    public static final String PURPOSE_VERIFY_EMAIL = "verify-email";
+    public static final String PURPOSE_RESET_PASSWORD = "reset-password";
     
-    @Value("${jwt.expiration:86400000}") // 24 hours
-    private long jwtExpirationTime;
+    private final long jwtExpirationTime;
+    private final long refreshTokenExpirationTime;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Cache<String, Claims> verifiedTokens;
     
-    @Value("${jwt.refresh-expiration:604800000}") // 7 days
-    private long refreshTokenExpirationTime;
+    public JwtTokenProvider(@Value("${jwt.secret:mySecretKey}") String jwtSecret,
+                            @Value("${jwt.expiration:86400000}") long jwtExpirationTime, // 24 hours
+                            @Value("${jwt.refresh-expiration:604800000}") long refreshTokenExpirationTime, // 7 days
+                            @Value("${jwt.verified-cache.max-size:10000}") long verifiedCacheSize) {
+        this.jwtExpirationTime = jwtExpirationTime;
+        this.refreshTokenExpirationTime = refreshTokenExpirationTime;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        return untilExpiry(claims);
+                    }
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return untilExpiry(claims);
+                    }
+    
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
     
     public String generateToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        return generateTokenForUser(userPrincipal.getUsername(), jwtExpirationTime);
+        return generateTokenForUser((UserDetails) authentication.getPrincipal(), jwtExpirationTime);
     }
     
-    public String generateRefreshToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        return generateTokenForUser(userPrincipal.getUsername(), refreshTokenExpirationTime);
+    /**
+     * Access token for a principal known from its refresh token family, without the user entity.
+     */
+    public String generateToken(AuthenticatedUser principal, int tokenVersion) {
+        return principalClaims(tokenBuilder(principal.email(), jwtExpirationTime), principal, tokenVersion)
+                .claim(CLAIM_ACTIVE, true)
+                .compact();
+    }
+    
+    /**
+     * One-time refresh token of a family; {@code tokenId} becomes the family's current token.
+     */
+    public String generateRefreshToken(AuthenticatedUser principal, int tokenVersion, String familyId, String tokenId) {
+        return principalClaims(tokenBuilder(principal.email(), refreshTokenExpirationTime), principal, tokenVersion)
+                .claim(CLAIM_ACTIVE, true)
+                .claim(CLAIM_FAMILY, familyId)
+                .id(tokenId)
+                .compact();
     }
     
     public String generateVerificationToken(String email) {
-        return generateTokenForUser(email, 3600000); // 1 hour
+        return generateTokenForEmail(email, 3600000, PURPOSE_VERIFY_EMAIL); // 1 hour
     }
     
     public String generatePasswordResetToken(String email) {
-        return generateTokenForUser(email, 3600000); // 1 hour
+        return generateTokenForEmail(email, 3600000, PURPOSE_RESET_PASSWORD); // 1 hour
     }
     
-    private String generateTokenForUser(String email, long expirationTime) {
+    private String generateTokenForUser(UserDetails principal, long expirationTime) {
+        JwtBuilder builder = tokenBuilder(principal.getUsername(), expirationTime);
+        if (principal instanceof User user) {
+            principalClaims(builder, new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole()), user.getTokenVersion())
+                    .claim(CLAIM_ACTIVE, user.getIsActive());
+        }
+        return builder.compact();
+    }
+    
+    private JwtBuilder principalClaims(JwtBuilder builder, AuthenticatedUser principal, int tokenVersion) {
+        return builder.claim(CLAIM_USER_ID, principal.id())
+                .claim(CLAIM_ROLE, principal.role().name())
+                .claim(CLAIM_TOKEN_VERSION, tokenVersion);
+    }
+    
+    private String generateTokenForEmail(String email, long expirationTime, String purpose) {
+        return tokenBuilder(email, expirationTime).claim(CLAIM_PURPOSE, purpose).compact();
+    }
+    
+    private JwtBuilder tokenBuilder(String email, long expirationTime) {
         Date expiryDate = new Date(System.currentTimeMillis() + expirationTime);
-
+    
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(email)
                 .issuedAt(new Date())
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
-                .compact();
-    }
-    
-    public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.getSubject();
+                .signWith(signingKey);
     }
     
-    public boolean validateToken(String token) {
+    /**
+     * Verifies the token and returns its claims in one pass, or empty if the token is not valid.
+     */
+    public Optional<Claims> parseToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            return Optional.of(verify(token));
         } catch (SecurityException ex) {
             log.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -86,25 +159,96 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty");
         }
-        return false;
+        return Optional.empty();
+    }
+    
+    /**
+     * The principal described by the token's claims, or empty for tokens issued without them.
+     */
+    public Optional<AuthenticatedUser> getPrincipal(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new AuthenticatedUser(userId, claims.getSubject(), Role.valueOf(role)));
+    }
+    
+    /**
+     * Refresh tokens belong to a family and are only accepted by the refresh endpoint, never as access tokens.
+     */
+    public boolean isRefreshToken(Claims claims) {
+        return claims.get(CLAIM_FAMILY) != null;
+    }
+    
+    /**
+     * Verification and password reset tokens are only accepted by the endpoint they were issued for.
+     */
+    public boolean isPurposeToken(Claims claims) {
+        return claims.get(CLAIM_PURPOSE) != null;
+    }
+    
+    public boolean hasPurpose(Claims claims, String purpose) {
+        return purpose.equals(claims.get(CLAIM_PURPOSE, String.class));
+    }
+    
+    public String getEmailFromToken(String token) {
+        return verify(token).getSubject();
+    }
+    
+    public boolean validateToken(String token) {
+        return parseToken(token).isPresent();
     }
     
     public long getExpirationTime() {
         return jwtExpirationTime;
     }
     
+    public long getRefreshExpirationTime() {
+        return refreshTokenExpirationTime;
+    }
+    
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.getExpiration();
+        return verify(token).getExpiration();
     }
     
     public boolean isTokenExpired(String token) {
         Date expiration = getExpirationDateFromToken(token);
         return expiration.before(new Date());
     }
+    
+    // Private helper methods
+    // Throws the parser's exceptions for tokens that are not valid; those are never cached
+    private Claims verify(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("JWT string is empty");
+        }
+    
+        String key = hash(token);
+        Claims claims = verifiedTokens.getIfPresent(key);
+        if (claims == null) {
+            claims = parser.parseSignedClaims(token).getPayload();
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(key, claims);
+            }
+        } else if (claims.getExpiration().getTime() <= System.currentTimeMillis()) {
+            // The cache evicts on a timer wheel; a hit in the last moments of the token's life is still expired
+            verifiedTokens.invalidate(key);
+            throw new ExpiredJwtException(null, claims, "JWT expired at " + claims.getExpiration().toInstant());
+        }
+        return claims;
+    }
+    
+    private static long untilExpiry(Claims claims) {
+        return Math.max(0, Duration.ofMillis(claims.getExpiration().getTime() - System.currentTimeMillis()).toNanos());
+    }
+    
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
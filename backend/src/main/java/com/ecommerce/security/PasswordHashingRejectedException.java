@@ -0,0 +1,24 @@
+package com.ecommerce.security;
+
+/**
+ * Thrown when the password hashing queue is full; the request should be retried later (HTTP 429).
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException() {
+        super("Too many password operations in progress, please retry shortly");
+    }
+
+    /**
+     * Whether the exception, or one it wraps, is a rejection; the authentication manager wraps
+     * exceptions thrown while looking up the user.
+     */
+    public static boolean isCause(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PasswordHashingRejectedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,229 @@
+package com.ecommerce.security;
+
+import com.ecommerce.dto.TokenResponse;
+import com.ecommerce.entity.RefreshTokenFamily;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.RefreshTokenFamilyRepository;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Refresh token families with one-time, rotated refresh tokens. Every login starts a family; every
+ * refresh issues the family's next token and retires the one presented. Presenting a retired token
+ * means it was copied, so the whole family is revoked and both holders have to log in again.
+ * <p>
+ * Families are indexed in memory in shards by user, so a refresh is answered without reading the user
+ * or the family. The family table stays the record: each rotation is a compare-and-set on the family's
+ * current token, which also catches reuse across nodes whose index is behind. A family missing from
+ * the index, or evicted from it, is read back from the table.
+ */
+@Slf4j
+@Component
+public class RefreshTokenStore {
+
+    private final RefreshTokenFamilyRepository familyRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final Shard[] shards;
+
+    public RefreshTokenStore(RefreshTokenFamilyRepository familyRepository,
+                             JwtTokenProvider jwtTokenProvider,
+                             TokenVersionRegistry tokenVersionRegistry,
+                             @Value("${app.security.refresh.shards:64}") int shardCount,
+                             @Value("${app.security.refresh.index-size:200000}") int indexSize) {
+        this.familyRepository = familyRepository;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(Math.max(1, indexSize / shardCount));
+        }
+    }
+
+    /**
+     * Starts a family for a login and returns its first refresh token.
+     */
+    @Transactional
+    public String issue(User user) {
+        String familyId = UUID.randomUUID().toString();
+        String tokenId = UUID.randomUUID().toString();
+        RefreshTokenFamily family = familyRepository.save(
+                new RefreshTokenFamily(familyId, user, tokenId, expiryFromNow()));
+
+        Family entry = new Family(family);
+        Shard shard = shard(user.getId());
+        synchronized (shard) {
+            shard.families.put(familyId, entry);
+        }
+        return jwtTokenProvider.generateRefreshToken(entry.principal, entry.tokenVersion, familyId, tokenId);
+    }
+
+    /**
+     * Exchanges the family's current refresh token for a new access and refresh token. Empty if the
+     * token is not the current one of a live family; a retired token revokes the family.
+     */
+    @Transactional
+    public Optional<TokenResponse> rotate(Claims claims) {
+        String familyId = claims.get(JwtTokenProvider.CLAIM_FAMILY, String.class);
+        Long userId = claims.get(JwtTokenProvider.CLAIM_USER_ID, Long.class);
+        String tokenId = claims.getId();
+        if (familyId == null || userId == null || tokenId == null) {
+            return Optional.empty();
+        }
+
+        Shard shard = shard(userId);
+        synchronized (shard) {
+            Family family = shard.families.get(familyId);
+            if (family == null || !tokenId.equals(family.currentTokenId)) {
+                // Unknown here, or another node may have rotated it since; the table decides
+                family = load(shard, familyId);
+            }
+            if (family == null || !family.isLive() || !family.principal.id().equals(userId)) {
+                return Optional.empty();
+            }
+            if (!tokenVersionRegistry.isCurrent(userId, family.tokenVersion)) {
+                // Password, email or role changed since the login
+                revoke(shard, family);
+                return Optional.empty();
+            }
+
+            String nextTokenId = UUID.randomUUID().toString();
+            LocalDateTime expiresAt = expiryFromNow();
+            if (!tokenId.equals(family.currentTokenId)
+                    || familyRepository.rotate(familyId, tokenId, nextTokenId, expiresAt, LocalDateTime.now()) == 0) {
+                // Either a retired token, or one another node rotated or revoked after the index was read
+                if (revoke(shard, family)) {
+                    log.warn("Refresh token reuse detected for user {}, revoked token family {}", userId, familyId);
+                }
+                return Optional.empty();
+            }
+            family.currentTokenId = nextTokenId;
+            family.expiresAt = toMillis(expiresAt);
+
+            return Optional.of(new TokenResponse(
+                    jwtTokenProvider.generateToken(family.principal, family.tokenVersion),
+                    jwtTokenProvider.generateRefreshToken(family.principal, family.tokenVersion, familyId, nextTokenId),
+                    "Bearer",
+                    jwtTokenProvider.getExpirationTime()
+            ));
+        }
+    }
+
+    /**
+     * Revokes the family of the given refresh token, for logout. Returns false for tokens issued
+     * without a family.
+     */
+    @Transactional
+    public boolean revoke(Claims claims) {
+        String familyId = claims.get(JwtTokenProvider.CLAIM_FAMILY, String.class);
+        Long userId = claims.get(JwtTokenProvider.CLAIM_USER_ID, Long.class);
+        if (familyId == null || userId == null) {
+            return false;
+        }
+
+        familyRepository.revoke(familyId, LocalDateTime.now());
+        Shard shard = shard(userId);
+        synchronized (shard) {
+            Family family = shard.families.get(familyId);
+            if (family != null) {
+                family.revoked = true;
+            }
+        }
+        return true;
+    }
+
+    @Transactional
+    @Scheduled(cron = "${app.security.refresh.purge-cron:0 45 * * * *}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                shard.families.values().removeIf(family -> family.expiresAt <= now);
+            }
+        }
+
+        int purged = familyRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired refresh token families", purged);
+        }
+    }
+
+    // Private helper methods
+    private Family load(Shard shard, String familyId) {
+        Family family = familyRepository.findById(familyId).map(Family::new).orElse(null);
+        if (family == null) {
+            shard.families.remove(familyId);
+        } else {
+            shard.families.put(familyId, family);
+        }
+        return family;
+    }
+
+    // False if the family had already been revoked
+    private boolean revoke(Shard shard, Family family) {
+        int revoked = familyRepository.revoke(family.familyId, LocalDateTime.now());
+        family.revoked = true;
+        shard.families.put(family.familyId, family);
+        return revoked > 0;
+    }
+
+    private Shard shard(Long userId) {
+        return shards[Math.floorMod(Long.hashCode(userId), shards.length)];
+    }
+
+    private LocalDateTime expiryFromNow() {
+        return LocalDateTime.now().plusNanos(jwtTokenProvider.getRefreshExpirationTime() * 1_000_000);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // One lock and one bounded, least recently used index per group of users
+    private static final class Shard {
+        private final Map<String, Family> families;
+
+        private Shard(int capacity) {
+            this.families = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Family> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+
+    // Index entry; only read and written under its shard's lock
+    private static final class Family {
+        private final String familyId;
+        private final AuthenticatedUser principal;
+        private final int tokenVersion;
+        private String currentTokenId;
+        private long expiresAt;
+        private boolean revoked;
+
+        private Family(RefreshTokenFamily family) {
+            this.familyId = family.getFamilyId();
+            this.principal = new AuthenticatedUser(family.getUserId(), family.getEmail(), family.getRole());
+            this.tokenVersion = family.getTokenVersion();
+            this.currentTokenId = family.getCurrentTokenId();
+            this.expiresAt = toMillis(family.getExpiresAt());
+            this.revoked = family.getRevokedAt() != null;
+        }
+
+        private boolean isLive() {
+            return !revoked && expiresAt > System.currentTimeMillis();
+        }
+    }
+}
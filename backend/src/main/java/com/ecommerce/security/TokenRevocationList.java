@@ -0,0 +1,151 @@
+package com.ecommerce.security;
+
+import com.ecommerce.entity.RevokedToken;
+import com.ecommerce.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tokens revoked by ID ({@code jti}) before they expire, for logout. The revoked_tokens table is the
+ * record; every node holds a counting Bloom filter of the live revocations in front of it, so the
+ * authentication filter answers almost every request from memory and only reads the table when the
+ * filter reports a possible match. Revocations made on this node apply at once; other nodes add them
+ * on their next poll. Entries leave the filter and the table once the token would have expired anyway.
+ */
+@Slf4j
+@Component
+public class TokenRevocationList {
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final Duration overlap;
+    private final CountingBloomFilter filter;
+    // Expiry in epoch millis of each hash in the filter, so each is added once and removed at expiry
+    private final ConcurrentHashMap<Long, Long> expiries = new ConcurrentHashMap<>();
+    // Revocations recorded before this have been read; null until the first full load
+    private volatile LocalDateTime syncedUntil;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               @Value("${app.security.revocation.sync-overlap:1m}") Duration overlap,
+                               @Value("${app.security.revocation.expected-tokens:100000}") int expectedTokens,
+                               @Value("${app.security.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.overlap = overlap;
+        this.filter = new CountingBloomFilter(expectedTokens, falsePositiveRate);
+    }
+
+    public boolean isRevoked(Claims claims) {
+        String tokenId = claims.getId();
+        if (tokenId == null) {
+            return false;
+        }
+        if (syncedUntil == null) {
+            sync();
+        }
+        if (!filter.mightContain(hash(tokenId))) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(tokenId);
+    }
+
+    /**
+     * Revokes the token until it expires. Returns false for tokens issued without an ID, which cannot
+     * be revoked one at a time.
+     */
+    public boolean revoke(Claims claims) {
+        String tokenId = claims.getId();
+        if (tokenId == null || claims.getExpiration() == null) {
+            return false;
+        }
+
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault());
+        revokedTokenRepository.save(new RevokedToken(tokenId, claims.getSubject(), expiresAt));
+        track(tokenId, claims.getExpiration().getTime());
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.sync-interval:15000}")
+    public synchronized void sync() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        // Re-reads a window before the last poll, so rows whose transactions committed late are not missed
+        LocalDateTime since = syncedUntil == null ? BEGINNING : syncedUntil.minus(overlap);
+        int added = 0;
+        for (Object[] row : revokedTokenRepository.findLiveRevokedSince(since, startedAt)) {
+            LocalDateTime expiresAt = (LocalDateTime) row[1];
+            if (track((String) row[0], expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())) {
+                added++;
+            }
+        }
+        syncedUntil = startedAt;
+        if (added > 0) {
+            log.debug("Synced {} revoked tokens", added);
+        }
+    }
+
+    /**
+     * Drops expired tokens from this node's filter, and from the table.
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.security.revocation.prune-interval:300000}")
+    public void pruneExpired() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        synchronized (this) {
+            Iterator<Map.Entry<Long, Long>> it = expiries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Long, Long> entry = it.next();
+                if (entry.getValue() <= now) {
+                    it.remove();
+                    filter.remove(entry.getKey());
+                    removed++;
+                }
+            }
+        }
+
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (removed > 0 || deleted > 0) {
+            log.info("Pruned {} expired revoked tokens from the filter and {} from the table", removed, deleted);
+        }
+    }
+
+    // Private helper methods
+    private synchronized boolean track(String tokenId, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            return false;
+        }
+        long hash = hash(tokenId);
+        if (expiries.putIfAbsent(hash, expiresAt) != null) {
+            return false;
+        }
+        filter.add(hash);
+        return true;
+    }
+
+    // 64-bit FNV-1a with a final avalanche, so both halves used for the filter's double hashing are well mixed
+    static long hash(String tokenId) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : tokenId.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecommerce.security;
+
+import com.ecommerce.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current token versions of the users whose tokens have been revoked, held in memory so the
+ * authentication filter can reject stale tokens without reading the user. Revocations made on this node
+ * apply as soon as they commit; other nodes pick them up on their next poll of recently changed users.
+ * Users never revoked are not held at all, and every token version is current for them.
+ */
+@Slf4j
+@Component
+public class TokenVersionRegistry {
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final UserRepository userRepository;
+    private final Duration overlap;
+    private final ConcurrentHashMap<Long, Integer> versions = new ConcurrentHashMap<>();
+    // Users updated before this have been read; null until the first full load
+    private volatile LocalDateTime syncedUntil;
+
+    public TokenVersionRegistry(UserRepository userRepository,
+                                @Value("${app.security.token-version-sync-overlap:1m}") Duration overlap) {
+        this.userRepository = userRepository;
+        this.overlap = overlap;
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        if (syncedUntil == null) {
+            sync();
+        }
+        return tokenVersion >= versions.getOrDefault(userId, 0);
+    }
+
+    /**
+     * Makes tokens older than {@code version} invalid once the surrounding transaction commits.
+     */
+    public void revoke(Long userId, int version) {
+        afterCommit(() -> versions.merge(userId, version, Math::max));
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.token-version-sync-interval:15000}")
+    public synchronized void sync() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        // Re-reads a window before the last poll, so rows whose transactions committed late are not missed
+        LocalDateTime since = syncedUntil == null ? BEGINNING : syncedUntil.minus(overlap);
+        int read = 0;
+        for (Object[] row : userRepository.findTokenVersionsUpdatedSince(since)) {
+            versions.merge((Long) row[0], (Integer) row[1], Math::max);
+            read++;
+        }
+        syncedUntil = startedAt;
+        if (read > 0) {
+            log.debug("Synced token versions of {} users", read);
+        }
+    }
+
+    // Private helper methods
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,218 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.RollupWatermark;
+import com.ecommerce.entity.enums.PaymentMethod;
+import com.ecommerce.entity.enums.PaymentStatus;
+import com.ecommerce.repository.DailyOrderRollupRepository;
+import com.ecommerce.repository.DailyPaymentRollupRepository;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.PaymentRepository;
+import com.ecommerce.repository.RollupWatermarkRepository;
+import com.ecommerce.service.stats.RollupRange;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.BiFunction;
+
+/**
+ * Daily rollups of orders and payments by creation day, status and payment method, used by the revenue and
+ * payment analytics. A scheduled job rebuilds only the days whose rows changed since its high-water mark,
+ * which trails the clock by a safety lag so rows from transactions still in flight are not skipped. Range
+ * queries read whole days from the rollups and the rest, normally just today, from the raw tables.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class AnalyticsRollupService {
+
+    private static final String WATERMARK = "daily_rollups";
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final DailyOrderRollupRepository orderRollupRepository;
+    private final DailyPaymentRollupRepository paymentRollupRepository;
+    private final RollupWatermarkRepository watermarkRepository;
+    private final OrderRepository orderRepository;
+    private final PaymentRepository paymentRepository;
+    private final Duration lag;
+    // Days before this one are rolled up; null until the watermark is known
+    private volatile LocalDate rolledUpBefore;
+
+    public AnalyticsRollupService(DailyOrderRollupRepository orderRollupRepository,
+                                  DailyPaymentRollupRepository paymentRollupRepository,
+                                  RollupWatermarkRepository watermarkRepository,
+                                  OrderRepository orderRepository,
+                                  PaymentRepository paymentRepository,
+                                  @Value("${app.analytics.rollup-lag:2m}") Duration lag) {
+        this.orderRollupRepository = orderRollupRepository;
+        this.paymentRollupRepository = paymentRollupRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.orderRepository = orderRepository;
+        this.paymentRepository = paymentRepository;
+        this.lag = lag;
+    }
+
+    /**
+     * Rebuilds the rollup rows of every day with orders or payments changed since the last run. Runs on
+     * one node at a time: the watermark row stays locked until the run commits, and a node that finds it
+     * locked skips its run.
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.analytics.rollup-interval:60000}")
+    public void rollUp() {
+        watermarkRepository.insertIfAbsent(WATERMARK, BEGINNING);
+        RollupWatermark watermark = watermarkRepository.findForUpdate(WATERMARK).orElse(null);
+        if (watermark == null) {
+            log.debug("Skipping rollup, another node is rolling up");
+            return;
+        }
+        LocalDateTime since = watermark.getProcessedUntil();
+        LocalDateTime upTo = LocalDateTime.now().minus(lag);
+        if (!upTo.isAfter(since)) {
+            return;
+        }
+
+        int orderDays = rebuild(orderRollupRepository.findDaysUpdatedBetween(since, upTo),
+                orderRollupRepository::deleteDays, orderRollupRepository::rollUp);
+        int paymentDays = rebuild(paymentRollupRepository.findDaysUpdatedBetween(since, upTo),
+                paymentRollupRepository::deleteDays, paymentRollupRepository::rollUp);
+
+        watermark.setProcessedUntil(upTo);
+        watermarkRepository.save(watermark);
+        afterCommit(() -> rolledUpBefore = upTo.toLocalDate());
+
+        if (orderDays > 0 || paymentDays > 0) {
+            log.info("Rolled up {} order days and {} payment days up to {}", orderDays, paymentDays, upTo);
+        }
+    }
+
+    /**
+     * Sum of the totals of all orders created in {@code [startDate, endDate]}.
+     */
+    public BigDecimal getRevenue(LocalDateTime startDate, LocalDateTime endDate) {
+        RollupRange range = RollupRange.split(startDate, endDate, getRolledUpBefore());
+        BigDecimal revenue = range.hasRollupDays()
+                ? orderRollupRepository.sumTotalBetweenDays(range.firstDay(), range.lastDay())
+                : BigDecimal.ZERO;
+        for (RollupRange.Interval interval : range.rawIntervals()) {
+            revenue = revenue.add(orderRepository.sumTotalCreatedInInterval(interval.from(), interval.to()));
+        }
+        return revenue;
+    }
+
+    /**
+     * Payment count and amount per creation day in {@code [startDate, endDate]}, as {@code [day, count, amount]}
+     * rows in day order.
+     */
+    public List<Object[]> getDailyPaymentStats(LocalDateTime startDate, LocalDateTime endDate) {
+        RollupRange range = RollupRange.split(startDate, endDate, getRolledUpBefore());
+        Map<LocalDate, Object[]> byDay = new TreeMap<>();
+        if (range.hasRollupDays()) {
+            paymentRollupRepository.getDailyStats(range.firstDay(), range.lastDay())
+                    .forEach(row -> merge(byDay, toLocalDate(row[0]), row));
+        }
+        for (RollupRange.Interval interval : range.rawIntervals()) {
+            paymentRepository.getDailyPaymentStatsInInterval(interval.from(), interval.to())
+                    .forEach(row -> merge(byDay, toLocalDate(row[0]), row));
+        }
+        return new ArrayList<>(byDay.values());
+    }
+
+    /**
+     * Payment count and amount per payment method for one status, as {@code [method, count, amount]} rows.
+     */
+    public List<Object[]> getPaymentMethodStats(PaymentStatus status) {
+        LocalDate before = getRolledUpBefore();
+        if (before == null) {
+            return paymentRepository.getPaymentMethodStatsByStatus(status);
+        }
+
+        Map<PaymentMethod, Object[]> byMethod = new EnumMap<>(PaymentMethod.class);
+        paymentRollupRepository.getPaymentMethodStats(status.name(), before)
+                .forEach(row -> merge(byMethod, PaymentMethod.valueOf((String) row[0]), row));
+        paymentRepository.getPaymentMethodStatsByStatusCreatedFrom(status, before.atStartOfDay())
+                .forEach(row -> merge(byMethod, (PaymentMethod) row[0], row));
+        return new ArrayList<>(byMethod.values());
+    }
+
+    public LocalDate getRolledUpBefore() {
+        if (rolledUpBefore == null) {
+            watermarkRepository.findById(WATERMARK)
+                    .ifPresent(watermark -> rolledUpBefore = watermark.getProcessedUntil().toLocalDate());
+        }
+        return rolledUpBefore;
+    }
+
+    // Private helper methods
+    // Rebuilds each run of consecutive days with one delete and one INSERT ... SELECT
+    private static int rebuild(List<Object> touchedDays,
+                               BiFunction<LocalDate, LocalDate, Integer> deleteDays,
+                               BiFunction<LocalDateTime, LocalDateTime, Integer> rollUp) {
+        TreeSet<LocalDate> days = new TreeSet<>();
+        touchedDays.forEach(day -> days.add(toLocalDate(day)));
+
+        LocalDate runStart = null;
+        LocalDate previous = null;
+        for (LocalDate day : days) {
+            if (runStart != null && !day.equals(previous.plusDays(1))) {
+                deleteDays.apply(runStart, previous);
+                rollUp.apply(runStart.atStartOfDay(), previous.plusDays(1).atStartOfDay());
+                runStart = null;
+            }
+            if (runStart == null) {
+                runStart = day;
+            }
+            previous = day;
+        }
+        if (runStart != null) {
+            deleteDays.apply(runStart, previous);
+            rollUp.apply(runStart.atStartOfDay(), previous.plusDays(1).atStartOfDay());
+        }
+        return days.size();
+    }
+
+    // Adds the count and amount of a [key, count, amount] row to the row already held for its key
+    private static <K> void merge(Map<K, Object[]> rows, K key, Object[] row) {
+        long count = ((Number) row[1]).longValue();
+        BigDecimal amount = row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO;
+        rows.merge(key, new Object[]{key, count, amount}, (held, added) -> new Object[]{key,
+                (Long) held[1] + (Long) added[1], ((BigDecimal) held[2]).add((BigDecimal) added[2])});
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toLocalDate();
+        }
+        return (LocalDate) value;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,203 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.OrderStatusUpdate;
+import com.ecommerce.dto.OrderStatusUpdateResult;
+import com.ecommerce.entity.OrderItem;
+import com.ecommerce.entity.StockDelta;
+import com.ecommerce.entity.enums.OrderStatus;
+import com.ecommerce.repository.OrderItemRepository;
+import com.ecommerce.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Status and tracking number changes for many orders at once, for warehouse batches. Each chunk of the
+ * request is validated in memory against the current statuses, read in one query, and applied with a
+ * single UPDATE that only touches orders still in the status they were validated in. Stock of cancelled
+ * orders is returned with one outbox event per chunk.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class BulkOrderStatusService {
+
+    private static final String UPDATE_PREFIX = "UPDATE orders o SET status = v.status, " +
+            "tracking_number = COALESCE(v.tracking_number, o.tracking_number), updated_at = ? FROM (VALUES ";
+    private static final String UPDATE_ROW = "(?::bigint, ?::varchar, ?::varchar, ?::varchar)";
+    private static final String UPDATE_SUFFIX = ") AS v(id, expected_status, status, tracking_number) " +
+            "WHERE o.id = v.id AND o.status = v.expected_status RETURNING o.id";
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final StockReservationService stockReservationService;
+    private final OutboxService outboxService;
+    private final OrderStatisticsService orderStatisticsService;
+    private final OrderViewService orderViewService;
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+    private final int maxUpdates;
+
+    public BulkOrderStatusService(OrderRepository orderRepository,
+                                  OrderItemRepository orderItemRepository,
+                                  StockReservationService stockReservationService,
+                                  OutboxService outboxService,
+                                  OrderStatisticsService orderStatisticsService,
+                                  OrderViewService orderViewService,
+                                  JdbcTemplate jdbcTemplate,
+                                  @Value("${app.orders.bulk-chunk-size:500}") int chunkSize,
+                                  @Value("${app.orders.bulk-max-updates:5000}") int maxUpdates) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.stockReservationService = stockReservationService;
+        this.outboxService = outboxService;
+        this.orderStatisticsService = orderStatisticsService;
+        this.orderViewService = orderViewService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = chunkSize;
+        this.maxUpdates = maxUpdates;
+    }
+
+    /**
+     * Applies each update with the same rules as {@link OrderService#updateOrderStatus} and
+     * {@link OrderService#updateTrackingNumber}: an update with only a tracking number ships a confirmed or
+     * processing order. Returns one result per update, in request order.
+     */
+    @Transactional
+    public List<OrderStatusUpdateResult> updateStatuses(List<OrderStatusUpdate> updates) {
+        if (updates.size() > maxUpdates) {
+            throw new IllegalArgumentException("At most " + maxUpdates + " orders can be updated at once");
+        }
+
+        List<OrderStatusUpdateResult> results = new ArrayList<>(updates.size());
+        Set<Long> seen = new HashSet<>();
+        for (int from = 0; from < updates.size(); from += chunkSize) {
+            results.addAll(applyChunk(updates.subList(from, Math.min(from + chunkSize, updates.size())), seen));
+        }
+
+        long applied = results.stream().filter(OrderStatusUpdateResult::success).count();
+        log.info("Bulk status update applied {} of {} order updates", applied, updates.size());
+        return results;
+    }
+
+    // Private helper methods
+    private List<OrderStatusUpdateResult> applyChunk(List<OrderStatusUpdate> chunk, Set<Long> seen) {
+        List<Long> ids = chunk.stream().map(OrderStatusUpdate::getOrderId).toList();
+        Map<Long, Object[]> current = new HashMap<>();
+        for (Object[] row : orderRepository.findStatusSnapshots(ids)) {
+            current.put((Long) row[0], row);
+        }
+
+        OrderStatusUpdateResult[] results = new OrderStatusUpdateResult[chunk.size()];
+        List<Integer> planned = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            OrderStatusUpdate update = chunk.get(i);
+            Long orderId = update.getOrderId();
+            if (!seen.add(orderId)) {
+                results[i] = OrderStatusUpdateResult.failed(orderId, null, "Order appears more than once in the request");
+            } else if (!current.containsKey(orderId)) {
+                results[i] = OrderStatusUpdateResult.failed(orderId, null, "Order not found");
+            } else {
+                results[i] = plan(update, (OrderStatus) current.get(orderId)[1]);
+                if (results[i].success()) {
+                    planned.add(i);
+                }
+            }
+        }
+        if (planned.isEmpty()) {
+            return List.of(results);
+        }
+
+        Set<Long> updated = new HashSet<>(jdbcTemplate.queryForList(updateSql(planned.size()), Long.class,
+                updateArgs(chunk, results, planned)));
+
+        List<Long> cancelled = new ArrayList<>();
+        for (int i : planned) {
+            OrderStatusUpdateResult result = results[i];
+            if (!updated.contains(result.orderId())) {
+                results[i] = OrderStatusUpdateResult.failed(result.orderId(), result.previousStatus(),
+                        "Order status changed while the update was applied");
+                continue;
+            }
+            orderStatisticsService.recordStatusChange(result.previousStatus(), result.status(),
+                    (BigDecimal) current.get(result.orderId())[2]);
+            if (result.status() == OrderStatus.CANCELLED && result.previousStatus() != OrderStatus.CANCELLED) {
+                cancelled.add(result.orderId());
+            }
+        }
+        restoreStock(cancelled);
+        orderViewService.projectAll(updated);
+        return List.of(results);
+    }
+
+    // Validates one update against the order's current status and resolves its target status
+    private static OrderStatusUpdateResult plan(OrderStatusUpdate update, OrderStatus currentStatus) {
+        OrderStatus target = update.getStatus();
+        if (target == null) {
+            target = currentStatus == OrderStatus.CONFIRMED || currentStatus == OrderStatus.PROCESSING
+                    ? OrderStatus.SHIPPED
+                    : currentStatus;
+        } else {
+            try {
+                OrderService.validateStatusTransition(currentStatus, target);
+            } catch (IllegalArgumentException e) {
+                return OrderStatusUpdateResult.failed(update.getOrderId(), currentStatus, e.getMessage());
+            }
+        }
+        return new OrderStatusUpdateResult(update.getOrderId(), true, currentStatus, target, null);
+    }
+
+    private static String updateSql(int rows) {
+        StringBuilder sql = new StringBuilder(UPDATE_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append(UPDATE_ROW);
+        }
+        return sql.append(UPDATE_SUFFIX).toString();
+    }
+
+    private static Object[] updateArgs(List<OrderStatusUpdate> chunk, OrderStatusUpdateResult[] results, List<Integer> planned) {
+        Object[] args = new Object[1 + planned.size() * 4];
+        args[0] = LocalDateTime.now();
+        int arg = 1;
+        for (int i : planned) {
+            args[arg++] = results[i].orderId();
+            args[arg++] = results[i].previousStatus().name();
+            args[arg++] = results[i].status().name();
+            args[arg++] = trackingNumber(chunk.get(i));
+        }
+        return args;
+    }
+
+    private static String trackingNumber(OrderStatusUpdate update) {
+        String trackingNumber = update.getTrackingNumber();
+        return trackingNumber != null && !trackingNumber.trim().isEmpty() ? trackingNumber.trim() : null;
+    }
+
+    // Held stock is released through the reservations; orders without an open reservation are restocked from their items
+    private void restoreStock(List<Long> cancelledOrderIds) {
+        if (cancelledOrderIds.isEmpty()) {
+            return;
+        }
+
+        Set<Long> released = stockReservationService.releaseAll(cancelledOrderIds);
+        List<Long> restocked = cancelledOrderIds.stream().filter(id -> !released.contains(id)).toList();
+        if (!restocked.isEmpty()) {
+            List<OrderItem> items = orderItemRepository.findByOrderIdIn(restocked);
+            outboxService.enqueueStockAdjustment("orders:cancelled", items.stream()
+                    .map(item -> StockDelta.returned(item.getProductId(), item.getQuantity()))
+                    .toList());
+        }
+        log.info("Restored stock for {} cancelled orders", cancelledOrderIds.size());
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -206,47 +207,73 @@ public class CartService {
         log.info("Validating cart items for user {}", userId);
         
         List<CartItem> cartItems = getCartItems(userId);
+        List<String> productIds = cartItems.stream().map(CartItem::getProductId).toList();
+        validateCartItems(cartItems, productService.getProductsByIds(productIds));
+        
+        log.info("Cart validation completed for user {}", userId);
+    }
+    
+    // Validates against products loaded up front and returns the items left in the cart
+    @Transactional
+    public List<CartItem> validateCartItems(List<CartItem> cartItems, Map<String, Product> productsById) {
+        List<CartItem> validItems = new ArrayList<>();
+        List<CartItem> changedItems = new ArrayList<>();
+        List<CartItem> removedItems = new ArrayList<>();
         
         for (CartItem cartItem : cartItems) {
-            try {
-                Product product = productService.getProductById(cartItem.getProductId());
-                
-                // Check if product is still active
-                if (!product.getIsActive()) {
-                    log.warn("Removing inactive product {} from cart", cartItem.getProductId());
-                    cartItemRepository.delete(cartItem);
+            Product product = productsById.get(cartItem.getProductId());
+            
+            // Remove items whose product no longer exists
+            if (product == null) {
+                log.warn("Removing missing product {} from cart", cartItem.getProductId());
+                removedItems.add(cartItem);
+                continue;
+            }
+            
+            // Check if product is still active
+            if (!product.getIsActive()) {
+                log.warn("Removing inactive product {} from cart", cartItem.getProductId());
+                removedItems.add(cartItem);
+                continue;
+            }
+            
+            boolean changed = false;
+            
+            // Check stock availability
+            if (cartItem.getQuantity() > product.getStockQuantity()) {
+                if (product.getStockQuantity() > 0) {
+                    log.warn("Reducing quantity for product {} from {} to {}", 
+                            cartItem.getProductId(), cartItem.getQuantity(), product.getStockQuantity());
+                    cartItem.setQuantity(product.getStockQuantity());
+                    changed = true;
+                } else {
+                    log.warn("Removing out of stock product {} from cart", cartItem.getProductId());
+                    removedItems.add(cartItem);
                     continue;
                 }
-                
-                // Check stock availability
-                if (cartItem.getQuantity() > product.getStockQuantity()) {
-                    if (product.getStockQuantity() > 0) {
-                        log.warn("Reducing quantity for product {} from {} to {}", 
-                                cartItem.getProductId(), cartItem.getQuantity(), product.getStockQuantity());
-                        cartItem.setQuantity(product.getStockQuantity());
-                        cartItemRepository.save(cartItem);
-                    } else {
-                        log.warn("Removing out of stock product {} from cart", cartItem.getProductId());
-                        cartItemRepository.delete(cartItem);
-                    }
-                }
-                
-                // Update price if it has changed
-                if (!cartItem.getPrice().equals(product.getPrice())) {
-                    log.info("Updating price for product {} from {} to {}", 
-                            cartItem.getProductId(), cartItem.getPrice(), product.getPrice());
-                    cartItem.setPrice(product.getPrice());
-                    cartItemRepository.save(cartItem);
-                }
-                
-            } catch (Exception e) {
-                log.error("Error validating cart item {}: {}", cartItem.getId(), e.getMessage());
-                // Remove invalid items
-                cartItemRepository.delete(cartItem);
             }
+            
+            // Update price if it has changed
+            if (!cartItem.getPrice().equals(product.getPrice())) {
+                log.info("Updating price for product {} from {} to {}", 
+                        cartItem.getProductId(), cartItem.getPrice(), product.getPrice());
+                cartItem.setPrice(product.getPrice());
+                changed = true;
+            }
+            
+            if (changed) {
+                changedItems.add(cartItem);
+            }
+            validItems.add(cartItem);
         }
         
-        log.info("Cart validation completed for user {}", userId);
+        if (!removedItems.isEmpty()) {
+            cartItemRepository.deleteAll(removedItems);
+        }
+        if (!changedItems.isEmpty()) {
+            cartItemRepository.saveAll(changedItems);
+        }
+        return validItems;
     }
     
     // Cleanup operations
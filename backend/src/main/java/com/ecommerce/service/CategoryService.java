@@ -50,7 +50,7 @@ public class CategoryService {
     }
     
     // Read operations
-    @Cacheable(value = "categories", key = "#id")
+    @Cacheable(value = "categories", key = "#id", sync = true)
     public Optional<Category> findById(String id) {
         return categoryRepository.findById(id);
     }
@@ -69,27 +69,27 @@ public class CategoryService {
                 .orElseThrow(() -> new IllegalArgumentException("Category not found with slug: " + slug));
     }
     
-    @Cacheable(value = "categories", key = "'all-' + #pageable.pageNumber + '-' + #pageable.pageSize")
+    @Cacheable(value = "categories", key = "'all-' + #pageable.pageNumber + '-' + #pageable.pageSize", sync = true)
     public Page<Category> getAllCategories(Pageable pageable) {
         return categoryRepository.findAll(pageable);
     }
     
-    @Cacheable(value = "categories", key = "'active-' + #pageable.pageNumber")
+    @Cacheable(value = "categories", key = "'active-' + #pageable.pageNumber", sync = true)
     public Page<Category> getActiveCategories(Pageable pageable) {
         return categoryRepository.findByIsActive(true, pageable);
     }
     
-    @Cacheable(value = "categories", key = "'parent-categories'")
+    @Cacheable(value = "categories", key = "'parent-categories'", sync = true)
     public List<Category> getParentCategories() {
         return categoryRepository.findActiveParentCategories(Sort.by("sortOrder").ascending());
     }
     
-    @Cacheable(value = "categories", key = "'subcategories-' + #parentId")
+    @Cacheable(value = "categories", key = "'subcategories-' + #parentId", sync = true)
     public List<Category> getSubCategories(String parentId) {
         return categoryRepository.findActiveSubCategories(parentId, Sort.by("sortOrder").ascending());
     }
     
-    @Cacheable(value = "categories", key = "'featured'")
+    @Cacheable(value = "categories", key = "'featured'", sync = true)
     public List<Category> getFeaturedCategories() {
         return categoryRepository.findFeaturedCategories();
     }
@@ -259,12 +259,12 @@ public class CategoryService {
     }
     
     // Popular and trending categories
-    @Cacheable(value = "categories", key = "'popular-' + #pageable.pageNumber")
+    @Cacheable(value = "categories", key = "'popular-' + #pageable.pageNumber", sync = true)
     public List<Category> getPopularCategories(Pageable pageable) {
         return categoryRepository.findPopularCategories(pageable);
     }
     
-    @Cacheable(value = "categories", key = "'popular-parent-' + #pageable.pageNumber")
+    @Cacheable(value = "categories", key = "'popular-parent-' + #pageable.pageNumber", sync = true)
     public List<Category> getPopularParentCategories(Pageable pageable) {
         return categoryRepository.findPopularParentCategories(pageable);
     }
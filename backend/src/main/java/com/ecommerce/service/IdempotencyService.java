@@ -0,0 +1,59 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.IdempotencyRecord;
+import com.ecommerce.repository.IdempotencyRecordRepository;
+import com.ecommerce.service.idempotency.IdempotencyStore;
+import com.ecommerce.service.idempotency.StoredResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Idempotency keys and the responses stored against them, kept in Postgres so every node sees them.
+ * Entries expire after the configured TTL and are purged periodically.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class IdempotencyService implements IdempotencyStore {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Override
+    @Transactional
+    public boolean claim(String key, String fingerprint, LocalDateTime lockedUntil) {
+        return idempotencyRecordRepository.claim(key, fingerprint, lockedUntil, LocalDateTime.now()) > 0;
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String key) {
+        return idempotencyRecordRepository.findById(key).map(record -> record.isComplete()
+                ? new StoredResponse(record.getFingerprint(), record.getResponseStatus(), record.getContentType(), record.getResponseBody())
+                : StoredResponse.inProgress(record.getFingerprint()));
+    }
+
+    @Override
+    @Transactional
+    public void complete(String key, StoredResponse response, LocalDateTime expiresAt) {
+        idempotencyRecordRepository.complete(key, response.status(), response.contentType(), response.body(), expiresAt);
+    }
+
+    @Override
+    @Transactional
+    public void release(String key) {
+        idempotencyRecordRepository.release(key);
+    }
+
+    @Transactional
+    @Scheduled(cron = "${app.idempotency.purge-cron:0 15 * * * *}")
+    public void purgeExpired() {
+        int purged = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        log.info("Purged {} expired idempotency keys", purged);
+    }
+}
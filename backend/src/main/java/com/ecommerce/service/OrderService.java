@@ -1,11 +1,13 @@
 package com.ecommerce.service;
 
+import com.ecommerce.dto.CursorPage;
 import com.ecommerce.entity.*;
 import com.ecommerce.entity.enums.OrderStatus;
 import com.ecommerce.entity.enums.PaymentMethod;
 import com.ecommerce.entity.enums.PaymentStatus;
 import com.ecommerce.repository.OrderRepository;
 import com.ecommerce.repository.OrderItemRepository;
+import com.ecommerce.service.paging.CursorPaging;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -15,8 +17,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -29,6 +35,13 @@ public class OrderService {
     private final UserService userService;
     private final ProductService productService;
     private final CartService cartService;
+    private final OutboxService outboxService;
+    private final StockReservationService stockReservationService;
+    private final OrderStatisticsService orderStatisticsService;
+    private final OrderViewService orderViewService;
+    private final AnalyticsRollupService analyticsRollupService;
+    
+    private static final Set<String> CURSOR_SORT_KEYS = Set.of("createdAt", "total", "id");
     
     // Create operations
     @Transactional
@@ -43,8 +56,13 @@ public class OrderService {
             throw new IllegalArgumentException("Cart is empty");
         }
         
-        // Validate stock availability
-        cartService.validateCartItems(userId);
+        // Validate stock availability against products loaded in one query
+        Map<String, Product> productsById = productService.getProductsByIds(
+                cartItems.stream().map(CartItem::getProductId).toList());
+        cartItems = cartService.validateCartItems(cartItems, productsById);
+        if (cartItems.isEmpty()) {
+            throw new IllegalArgumentException("No items in the cart are available");
+        }
         
         // Create order
         Order order = new Order();
@@ -70,9 +88,19 @@ public class OrderService {
         // Save order
         Order savedOrder = orderRepository.save(order);
         
+        // Take stock for every line or for none. Online payments hold it until the payment completes;
+        // cash on delivery orders are sold straight away.
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        cartItems.forEach(cartItem -> quantities.merge(cartItem.getProductId(), cartItem.getQuantity(), Integer::sum));
+        stockReservationService.reserve(savedOrder.getId(), quantities);
+        if (!request.getPaymentMethod().isOnline()) {
+            stockReservationService.commit(savedOrder.getId());
+        }
+        
         // Create order items
+        List<OrderItem> orderItems = new ArrayList<>();
         for (CartItem cartItem : cartItems) {
-            Product product = productService.getProductById(cartItem.getProductId());
+            Product product = productsById.get(cartItem.getProductId());
             
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(savedOrder);
@@ -85,17 +113,16 @@ public class OrderService {
             orderItem.setSelectedVariants(cartItem.getSelectedVariants());
             orderItem.updateTotalPrice();
             
-            orderItemRepository.save(orderItem);
-            
-            // Update product stock and sales count
-            productService.updateStock(product.getId(), 
-                    product.getStockQuantity() - cartItem.getQuantity());
-            productService.incrementSalesCount(product.getId(), cartItem.getQuantity());
+            orderItems.add(orderItem);
         }
+        orderItemRepository.saveAll(orderItems);
+        orderViewService.project(savedOrder, orderItems);
         
         // Clear cart
         cartService.clearCart(userId);
         
+        orderStatisticsService.recordCreated(savedOrder);
+        
         log.info("Order created successfully with ID: {} and order number: {}", 
                 savedOrder.getId(), savedOrder.getOrderNumber());
         
@@ -138,6 +165,13 @@ public class OrderService {
         return orderRepository.findAll(pageable);
     }
     
+    public CursorPage<Order> getAllOrders(OrderStatus status, String cursor, int size, String sortBy, String sortDir) {
+        return CursorPaging.scroll(cursor, sortBy, sortDir, size, CURSOR_SORT_KEYS,
+                (position, limit, sort) -> status != null
+                        ? orderRepository.findByStatus(status, position, limit, sort)
+                        : orderRepository.findAllBy(position, limit, sort));
+    }
+    
     public Page<Order> searchOrders(String keyword, Pageable pageable) {
         return orderRepository.searchOrders(keyword, pageable);
     }
@@ -161,6 +195,8 @@ public class OrderService {
         }
         
         Order updatedOrder = orderRepository.save(order);
+        orderViewService.project(updatedOrder);
+        orderStatisticsService.recordStatusChange(updatedOrder, oldStatus);
         log.info("Order status updated successfully from {} to {}", oldStatus, newStatus);
         
         return updatedOrder;
@@ -174,6 +210,7 @@ public class OrderService {
         order.updatePaymentStatus(newPaymentStatus);
         
         Order updatedOrder = orderRepository.save(order);
+        orderViewService.project(updatedOrder);
         log.info("Order payment status updated successfully");
         
         return updatedOrder;
@@ -184,6 +221,7 @@ public class OrderService {
         log.info("Updating order {} tracking number to {}", id, trackingNumber);
         
         Order order = getOrderById(id);
+        OrderStatus oldStatus = order.getStatus();
         order.setTrackingNumber(trackingNumber);
         
         if (order.getStatus() == OrderStatus.CONFIRMED || order.getStatus() == OrderStatus.PROCESSING) {
@@ -191,6 +229,8 @@ public class OrderService {
         }
         
         Order updatedOrder = orderRepository.save(order);
+        orderViewService.project(updatedOrder);
+        orderStatisticsService.recordStatusChange(updatedOrder, oldStatus);
         log.info("Order tracking number updated successfully");
         
         return updatedOrder;
@@ -204,6 +244,7 @@ public class OrderService {
         order.setEstimatedDelivery(estimatedDelivery);
         
         Order updatedOrder = orderRepository.save(order);
+        orderViewService.project(updatedOrder);
         log.info("Order estimated delivery updated successfully");
         
         return updatedOrder;
@@ -220,6 +261,7 @@ public class OrderService {
             throw new IllegalArgumentException("Order cannot be cancelled in current status: " + order.getStatus());
         }
         
+        OrderStatus oldStatus = order.getStatus();
         order.updateStatus(OrderStatus.CANCELLED);
         order.setNotes(order.getNotes() != null ? order.getNotes() + "\nCancellation reason: " + reason : "Cancellation reason: " + reason);
         
@@ -227,6 +269,8 @@ public class OrderService {
         restoreStock(order);
         
         Order cancelledOrder = orderRepository.save(order);
+        orderViewService.project(cancelledOrder);
+        orderStatisticsService.recordStatusChange(cancelledOrder, oldStatus);
         log.info("Order cancelled successfully");
         
         return cancelledOrder;
@@ -250,7 +294,7 @@ public class OrderService {
     }
     
     public BigDecimal getRevenueByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return orderRepository.sumTotalBetweenDates(startDate, endDate);
+        return analyticsRollupService.getRevenue(startDate, endDate);
     }
     
     public List<Order> getRecentOrders(int limit) {
@@ -298,7 +342,7 @@ public class OrderService {
         return BigDecimal.ZERO;
     }
     
-    private void validateStatusTransition(OrderStatus from, OrderStatus to) {
+    static void validateStatusTransition(OrderStatus from, OrderStatus to) {
         // Define valid transitions
         switch (from) {
             case PENDING:
@@ -340,20 +384,16 @@ public class OrderService {
     private void restoreStock(Order order) {
         log.info("Restoring stock for cancelled order {}", order.getId());
         
+        if (stockReservationService.release(order.getId())) {
+            log.info("Released held stock for cancelled order {}", order.getId());
+            return;
+        }
+        
         List<OrderItem> orderItems = orderItemRepository.findByOrderId(order.getId());
         
-        for (OrderItem item : orderItems) {
-            try {
-                Product product = productService.getProductById(item.getProductId());
-                int newStock = product.getStockQuantity() + item.getQuantity();
-                productService.updateStock(product.getId(), newStock);
-                
-                // Note: Sales count adjustment would be handled by ProductService if needed
-                
-            } catch (Exception e) {
-                log.error("Error restoring stock for product {}: {}", item.getProductId(), e.getMessage());
-            }
-        }
+        outboxService.enqueueStockAdjustment("order:" + order.getId(), orderItems.stream()
+                .map(item -> StockDelta.returned(item.getProductId(), item.getQuantity()))
+                .toList());
         
         log.info("Stock restoration completed for order {}", order.getId());
     }
@@ -0,0 +1,85 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.enums.OrderStatus;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.service.stats.OrderStatusTally;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Order counts and revenue per status for the admin dashboard, served from memory. The tally is loaded
+ * with one GROUP BY over the orders table, then kept current by the order services reporting each creation
+ * and status change once its transaction commits. Changes that commit while a reconcile query runs can be
+ * counted twice or missed; the periodic reconcile corrects that drift.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class OrderStatisticsService {
+
+    private final OrderRepository orderRepository;
+    private final OrderStatusTally tally = new OrderStatusTally();
+    private volatile boolean loaded = false;
+
+    public OrderStatisticsService(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    public OrderStatusTally.Snapshot getStatistics() {
+        if (!loaded) {
+            reconcile();
+        }
+        return tally.snapshot();
+    }
+
+    public void recordCreated(Order order) {
+        OrderStatus status = order.getStatus();
+        BigDecimal total = order.getTotal();
+        afterCommit(() -> tally.add(status, total));
+    }
+
+    public void recordStatusChange(Order order, OrderStatus previousStatus) {
+        recordStatusChange(previousStatus, order.getStatus(), order.getTotal());
+    }
+
+    public void recordStatusChange(OrderStatus previousStatus, OrderStatus status, BigDecimal total) {
+        if (status == previousStatus) {
+            return;
+        }
+        afterCommit(() -> tally.move(previousStatus, status, total));
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.stats-reconcile-interval:300000}")
+    public void reconcile() {
+        Map<OrderStatus, OrderStatusTally.Bucket> buckets = new EnumMap<>(OrderStatus.class);
+        for (Object[] row : orderRepository.summarizeByStatus()) {
+            buckets.put((OrderStatus) row[0], new OrderStatusTally.Bucket((Long) row[1], (BigDecimal) row[2]));
+        }
+        tally.replace(buckets);
+        loaded = true;
+        log.debug("Reconciled order statistics for {} statuses", buckets.size());
+    }
+
+    // Private helper methods
+    private void afterCommit(Runnable delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            delta.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                delta.run();
+            }
+        });
+    }
+}
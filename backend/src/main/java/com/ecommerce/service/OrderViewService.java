@@ -0,0 +1,185 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.OrderSummary;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OrderItem;
+import com.ecommerce.entity.OrderView;
+import com.ecommerce.entity.RollupWatermark;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.OrderViewRepository;
+import com.ecommerce.repository.RollupWatermarkRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Order read model for the order history and detail endpoints. Every order change rewrites the order's
+ * summary row in the same transaction, so readers get one indexed lookup of ready-made JSON instead of
+ * loading orders, items and users. A scheduled catch-up job re-projects orders updated since its high-water
+ * mark, which backfills existing orders and repairs rows missed by writes outside the order services.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class OrderViewService {
+
+    private static final String WATERMARK = "order_views";
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final OrderViewRepository orderViewRepository;
+    private final OrderRepository orderRepository;
+    private final RollupWatermarkRepository watermarkRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final Duration lag;
+    private final int batchSize;
+
+    public OrderViewService(OrderViewRepository orderViewRepository,
+                            OrderRepository orderRepository,
+                            RollupWatermarkRepository watermarkRepository,
+                            PlatformTransactionManager transactionManager,
+                            EntityManager entityManager,
+                            @Value("${app.orders.view-sync-lag:2m}") Duration lag,
+                            @Value("${app.orders.view-sync-batch-size:500}") int batchSize) {
+        this.orderViewRepository = orderViewRepository;
+        this.orderRepository = orderRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.transactionManager = transactionManager;
+        this.entityManager = entityManager;
+        this.lag = lag;
+        this.batchSize = batchSize;
+    }
+
+    public Page<OrderSummary> getUserOrders(Long userId, int page, int size) {
+        return orderViewRepository.findSummariesByUserId(userId, PageRequest.of(page, size));
+    }
+
+    public OrderSummary getOrder(Long orderId) {
+        return orderViewRepository.findSummaryByOrderId(orderId)
+                .or(() -> orderRepository.findByIdWithItems(orderId).map(this::summarize))
+                .orElseThrow(() -> new IllegalArgumentException("Order not found with ID: " + orderId));
+    }
+
+    public OrderSummary getOrderByNumber(String orderNumber) {
+        return orderViewRepository.findSummaryByOrderNumber(orderNumber)
+                .or(() -> orderRepository.findByOrderNumberWithItems(orderNumber).map(this::summarize))
+                .orElseThrow(() -> new IllegalArgumentException("Order not found with number: " + orderNumber));
+    }
+
+    /**
+     * Rewrites the summary of an order whose items are already loaded or attached.
+     */
+    @Transactional
+    public void project(Order order) {
+        project(order, order.getItems());
+    }
+
+    @Transactional
+    public void project(Order order, List<OrderItem> items) {
+        OrderSummary summary = OrderSummary.fromOrder(order, items);
+        OrderView view = orderViewRepository.findById(order.getId()).orElse(null);
+        if (view == null) {
+            orderViewRepository.save(new OrderView(summary));
+        } else if (!isNewer(view, summary)) {
+            view.update(summary);
+            orderViewRepository.save(view);
+        }
+    }
+
+    /**
+     * Re-reads the given orders with their items and rewrites their summaries, for changes made with
+     * set-based updates.
+     */
+    @Transactional
+    public void projectAll(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, OrderView> views = orderViewRepository.findAllById(orderIds).stream()
+                .collect(Collectors.toMap(OrderView::getOrderId, Function.identity()));
+        for (Order order : orderRepository.findAllWithItemsByIdIn(orderIds)) {
+            OrderSummary summary = summarize(order);
+            OrderView view = views.get(order.getId());
+            if (view == null) {
+                views.put(order.getId(), new OrderView(summary));
+            } else if (!isNewer(view, summary)) {
+                view.update(summary);
+            }
+        }
+        orderViewRepository.saveAll(views.values());
+    }
+
+    /**
+     * Re-projects every order updated since the last run. Each batch commits on its own and advances the
+     * watermark, so a long backfill holds no transaction or persistence context open and resumes where it
+     * stopped. Runs on one node at a time; a node that finds the watermark row locked by another node's
+     * batch stops.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Scheduled(fixedDelayString = "${app.orders.view-sync-interval:60000}")
+    public void syncChanged() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LocalDateTime upTo = LocalDateTime.now().minus(lag);
+        int synced = 0;
+        Integer batch;
+        while ((batch = transaction.execute(status -> syncBatch(upTo))) != null) {
+            synced += batch;
+        }
+        if (synced > 0) {
+            log.info("Synced order views of {} orders updated up to {}", synced, upTo);
+        }
+    }
+
+    // Private helper methods
+    // Projects the next batch after the watermark; null once caught up to upTo or when another node holds it
+    private Integer syncBatch(LocalDateTime upTo) {
+        watermarkRepository.insertIfAbsent(WATERMARK, BEGINNING);
+        RollupWatermark watermark = watermarkRepository.findForUpdate(WATERMARK).orElse(null);
+        if (watermark == null) {
+            log.debug("Skipping order view sync, another node is syncing");
+            return null;
+        }
+        LocalDateTime since = watermark.getProcessedUntil();
+        if (!upTo.isAfter(since)) {
+            return null;
+        }
+
+        // A full batch ends at its last update time; orders sharing that time all go into this batch
+        List<LocalDateTime> updateTimes = orderRepository.findUpdateTimesBetween(since, upTo, PageRequest.of(0, batchSize));
+        LocalDateTime batchUpTo = updateTimes.size() < batchSize ? upTo : updateTimes.get(updateTimes.size() - 1);
+        List<Long> orderIds = orderRepository.findIdsUpdatedBetween(since, batchUpTo);
+        projectAll(orderIds);
+
+        watermark.setProcessedUntil(batchUpTo);
+        watermarkRepository.save(watermark);
+        entityManager.flush();
+        entityManager.clear();
+        return orderIds.size();
+    }
+
+    private OrderSummary summarize(Order order) {
+        return OrderSummary.fromOrder(order, order.getItems());
+    }
+
+    // A projection read before a concurrent change committed must not overwrite that change's summary
+    private static boolean isNewer(OrderView view, OrderSummary summary) {
+        return summary.getUpdatedAt() != null && view.getUpdatedAt().isAfter(summary.getUpdatedAt());
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Drains the outbox in batches until it is empty, then waits for the next interval.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private final OutboxService outboxService;
+
+    @Value("${app.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.outbox.retention:7d}")
+    private Duration retention;
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval:500}")
+    public void relay() {
+        try {
+            int relayed;
+            do {
+                relayed = outboxService.relayBatch(batchSize);
+            } while (relayed == batchSize);
+        } catch (Exception e) {
+            log.error("Outbox relay failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${app.outbox.purge-cron:0 30 3 * * *}")
+    public void purge() {
+        int purged = outboxService.purgeProcessedBefore(LocalDateTime.now().minus(retention));
+        log.info("Purged {} relayed outbox events", purged);
+    }
+}
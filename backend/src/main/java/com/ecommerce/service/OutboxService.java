@@ -0,0 +1,136 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.OutboxEvent;
+import com.ecommerce.entity.StockDelta;
+import com.ecommerce.entity.enums.OutboxEventType;
+import com.ecommerce.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transactional outbox for Mongo side effects of Postgres writes. Events are inserted in the caller's
+ * transaction, so they exist exactly when the order change that caused them commits, and are relayed to
+ * Mongo in batches afterwards.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class OutboxService {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final StockService stockService;
+    
+    private final int maxAttempts;
+    // Wait before the first retry of a failed event, doubled on every further failure
+    private final Duration retryBackoff;
+    
+    public OutboxService(OutboxEventRepository outboxEventRepository,
+                         StockService stockService,
+                         @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+                         @Value("${app.outbox.retry-backoff:1s}") Duration retryBackoff) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.stockService = stockService;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+    }
+    
+    /**
+     * Records stock and sales changes to apply once the current transaction commits. Lines for the same
+     * product are merged, since each event is applied to a product at most once.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueStockAdjustment(String reference, List<StockDelta> lines) {
+        Map<String, StockDelta> merged = new LinkedHashMap<>();
+        for (StockDelta line : lines) {
+            merged.merge(line.getProductId(), line, (a, b) -> new StockDelta(a.getProductId(),
+                    a.getStockDelta() + b.getStockDelta(), a.getSalesDelta() + b.getSalesDelta()));
+        }
+        merged.values().removeIf(line -> line.getStockDelta() == 0 && line.getSalesDelta() == 0);
+        if (merged.isEmpty()) {
+            return;
+        }
+        
+        outboxEventRepository.save(new OutboxEvent(OutboxEventType.STOCK_ADJUSTMENT, reference, List.copyOf(merged.values())));
+    }
+    
+    /**
+     * Applies the oldest due events to Mongo and marks them processed; returns how many were relayed.
+     * If the batch fails, its events are applied one at a time so a bad event cannot hold back the rest.
+     * An event that still fails is retried after a growing delay, and parked once it has failed
+     * {@code app.outbox.max-attempts} times.
+     */
+    @Transactional
+    public int relayBatch(int batchSize) {
+        List<OutboxEvent> events = outboxEventRepository.findPendingForUpdate(LocalDateTime.now(), PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        
+        Map<Long, List<StockDelta>> linesByEvent = new LinkedHashMap<>();
+        events.forEach(event -> linesByEvent.put(event.getId(), event.getLines()));
+        int relayed;
+        try {
+            stockService.applyAdjustments(linesByEvent);
+            events.forEach(OutboxEvent::markProcessed);
+            relayed = events.size();
+        } catch (Exception e) {
+            log.warn("Failed to relay {} outbox events, retrying them one at a time: {}", events.size(), e.getMessage());
+            relayed = relayOneByOne(events);
+        }
+        
+        outboxEventRepository.saveAll(events);
+        log.debug("Relayed {} of {} outbox events", relayed, events.size());
+        return relayed;
+    }
+    
+    @Transactional
+    public int purgeProcessedBefore(LocalDateTime cutoff) {
+        outboxEventRepository.deleteLinesProcessedBefore(cutoff);
+        return outboxEventRepository.deleteProcessedBefore(cutoff);
+    }
+    
+    public long getPendingCount() {
+        return outboxEventRepository.countByProcessedAtIsNullAndParkedAtIsNull();
+    }
+    
+    public long getParkedCount() {
+        return outboxEventRepository.countByParkedAtIsNotNull();
+    }
+    
+    // Private helper methods
+    
+    // Replays are harmless: lines of an event already applied to a product are skipped
+    private int relayOneByOne(List<OutboxEvent> events) {
+        int relayed = 0;
+        for (OutboxEvent event : events) {
+            try {
+                stockService.applyAdjustments(Map.of(event.getId(), event.getLines()));
+                event.markProcessed();
+                relayed++;
+            } catch (Exception e) {
+                fail(event, e);
+            }
+        }
+        return relayed;
+    }
+    
+    private void fail(OutboxEvent event, Exception e) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(event.getAttempts(), 16));
+        event.markFailed(e.getMessage(), LocalDateTime.now().plus(delay));
+        if (event.getAttempts() >= maxAttempts) {
+            event.park();
+            log.error("Parked outbox event {} ({}) after {} failed attempts: {}",
+                    event.getId(), event.getReference(), event.getAttempts(), e.getMessage());
+        }
+    }
+}
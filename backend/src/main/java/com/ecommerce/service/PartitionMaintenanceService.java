@@ -0,0 +1,223 @@
+package com.ecommerce.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the monthly partitions of orders, order_items and payments ahead of the clock, and moves cold
+ * months out of the live tables. Each partition older than the hot window is detached in a short
+ * transaction of its own, so the parent table is locked only for the detach. It is then exported to a
+ * gzipped CSV file in the archive directory and dropped. The stock reservations of an archived orders
+ * partition are deleted with it, since V8 dropped their foreign key to orders; reservations are not
+ * exported. A partition whose export fails stays detached and is picked up again by the next run. One
+ * node archives at a time, under a database advisory lock.
+ */
+@Slf4j
+@Service
+public class PartitionMaintenanceService {
+
+    private static final List<String> PARTITIONED_TABLES = List.of("orders", "order_items", "payments");
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("[a-z_]+_\\d{4}_\\d{2}");
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+    // pg_try_advisory_lock key held by the node that is archiving
+    private static final long ARCHIVE_LOCK_KEY = 7_201_800_001L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final int monthsAhead;
+    private final int hotMonths;
+    private final boolean archiveEnabled;
+    private final Path archiveDirectory;
+    private final Duration detachLockTimeout;
+
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate,
+                                       DataSource dataSource,
+                                       @Value("${app.partitions.months-ahead:3}") int monthsAhead,
+                                       @Value("${app.partitions.hot-months:12}") int hotMonths,
+                                       @Value("${app.partitions.archive.enabled:false}") boolean archiveEnabled,
+                                       @Value("${app.partitions.archive.dir:./archive}") String archiveDirectory,
+                                       @Value("${app.partitions.archive.detach-lock-timeout:5s}") Duration detachLockTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.monthsAhead = monthsAhead;
+        this.hotMonths = hotMonths;
+        this.archiveEnabled = archiveEnabled;
+        this.archiveDirectory = Paths.get(archiveDirectory).toAbsolutePath().normalize();
+        this.detachLockTimeout = detachLockTimeout;
+    }
+
+    /**
+     * Creates the partitions for the current month and the configured number of months after it. Rows
+     * written to the default partition while a month had none are moved into the month's new partition.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.partitions.maintenance-cron:0 0 2 * * *}")
+    public void createFuturePartitions() {
+        for (String table : PARTITIONED_TABLES) {
+            try {
+                Integer created = jdbcTemplate.queryForObject("SELECT create_monthly_partitions(?, CURRENT_DATE, ?)",
+                        Integer.class, table, monthsAhead);
+                if (created != null && created > 0) {
+                    log.info("Created {} monthly partitions of {}", created, table);
+                }
+            } catch (Exception e) {
+                log.error("Could not create monthly partitions of {}: {}", table, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Archives every monthly partition that lies entirely before the hot window.
+     */
+    @Scheduled(cron = "${app.partitions.archive.cron:0 30 2 1 * *}")
+    public void archiveColdPartitions() {
+        if (!archiveEnabled) {
+            return;
+        }
+
+        // The advisory lock belongs to this session and is released when the connection closes
+        try (Connection lockConnection = dataSource.getConnection()) {
+            if (!advisoryLock(lockConnection, "pg_try_advisory_lock")) {
+                log.info("Partition archiving is running on another node");
+                return;
+            }
+            try {
+                archiveBefore(LocalDate.now().withDayOfMonth(1).minusMonths(hotMonths));
+            } finally {
+                advisoryLock(lockConnection, "pg_advisory_unlock");
+            }
+        } catch (SQLException e) {
+            log.error("Could not run partition archiving: {}", e.getMessage());
+        }
+    }
+
+    // Private helper methods
+    private void archiveBefore(LocalDate cutoff) {
+        for (String table : PARTITIONED_TABLES) {
+            List<String> attached = jdbcTemplate.queryForList("SELECT monthly_partitions_before(?, ?)",
+                    String.class, table, cutoff);
+            List<String> partitions = new ArrayList<>(detachedBefore(table, cutoff));
+            partitions.addAll(attached);
+            for (String partition : partitions) {
+                try {
+                    if (attached.contains(partition)) {
+                        detach(table, partition);
+                    }
+                    long rows = exportAndDrop(partition);
+                    log.info("Archived {} rows of partition {}", rows, partition);
+                } catch (Exception e) {
+                    log.error("Failed to archive partition {}: {}", partition, e.getMessage());
+                    return;
+                }
+            }
+        }
+    }
+
+    // Monthly tables of the parent left detached by an earlier run whose export failed
+    private List<String> detachedBefore(String table, LocalDate cutoff) {
+        List<String> tables = jdbcTemplate.queryForList(
+                "SELECT c.relname::text FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                "WHERE n.nspname = current_schema() AND c.relkind = 'r' AND NOT c.relispartition " +
+                "AND c.relname ~ ? ORDER BY c.relname",
+                String.class, "^" + table + "_[0-9]{4}_[0-9]{2}$");
+        return tables.stream()
+                .filter(name -> YearMonth.parse(name.substring(name.length() - 7), PARTITION_MONTH)
+                        .plusMonths(1).atDay(1).compareTo(cutoff) <= 0)
+                .toList();
+    }
+
+    // Short transaction: the parent is locked only while the partition is unhooked, never during the export
+    private void detach(String table, String partition) throws SQLException {
+        requireMonthlyPartition(partition);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                // Give up rather than queue behind long queries while blocking the order tables
+                statement.execute("SET LOCAL lock_timeout = '" + detachLockTimeout.toMillis() + "ms'");
+                statement.execute("ALTER TABLE \"" + table + "\" DETACH PARTITION \"" + partition + "\"");
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // The table no longer takes writes once detached, so the export and its row count agree
+    private long exportAndDrop(String partition) throws SQLException, IOException {
+        requireMonthlyPartition(partition);
+        Files.createDirectories(archiveDirectory);
+        Path file = archiveDirectory.resolve(partition + ".csv.gz");
+        Path partFile = archiveDirectory.resolve(partition + ".csv.gz.part");
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                long exported;
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(partFile))) {
+                    exported = connection.unwrap(PGConnection.class).getCopyAPI()
+                            .copyOut("COPY \"" + partition + "\" TO STDOUT WITH (FORMAT csv, HEADER)", out);
+                }
+                try (ResultSet count = statement.executeQuery("SELECT COUNT(*) FROM \"" + partition + "\"")) {
+                    count.next();
+                    if (count.getLong(1) != exported) {
+                        throw new IllegalStateException("Exported " + exported + " of " + count.getLong(1) + " rows");
+                    }
+                }
+
+                Files.move(partFile, file, StandardCopyOption.REPLACE_EXISTING);
+                if (partition.startsWith("orders_")) {
+                    // Their items go with them through stock_reservation_items' ON DELETE CASCADE
+                    statement.executeUpdate("DELETE FROM stock_reservations WHERE order_id IN " +
+                            "(SELECT id FROM \"" + partition + "\")");
+                }
+                statement.execute("DROP TABLE \"" + partition + "\"");
+                connection.commit();
+                return exported;
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                Files.deleteIfExists(partFile);
+                throw e;
+            }
+        }
+    }
+
+    private static boolean advisoryLock(Connection connection, String function) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT " + function + "(" + ARCHIVE_LOCK_KEY + ")")) {
+            return result.next() && result.getBoolean(1);
+        }
+    }
+
+    private static void requireMonthlyPartition(String partition) {
+        if (!MONTHLY_PARTITION.matcher(partition).matches()) {
+            throw new IllegalArgumentException("Not a monthly partition: " + partition);
+        }
+    }
+}
@@ -10,7 +10,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -25,6 +28,9 @@ public class PaymentService {
     
     private final PaymentRepository paymentRepository;
     private final OrderService orderService;
+    private final StockReservationService stockReservationService;
+    private final AnalyticsRollupService analyticsRollupService;
+    private final PlatformTransactionManager transactionManager;
     
     // Create operations
     @Transactional
@@ -92,49 +98,76 @@ public class PaymentService {
     }
     
     // Payment processing operations
-    @Transactional
+    /**
+     * Charges a pending payment. The steps before and after the gateway call run in transactions of their
+     * own, so no transaction is open while the gateway is called and a charge whose stock can no longer
+     * be counted as sold is voided and recorded as failed instead of rolled back unnoticed.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Payment processPayment(String paymentReference, ProcessPaymentRequest request) {
         log.info("Processing payment with reference: {}", paymentReference);
         
-        Payment payment = getPaymentByReference(paymentReference);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        
+        // An expired reservation fails here, before anything is charged
+        Payment payment = transaction.execute(status -> {
+            Payment pending = getPaymentByReference(paymentReference);
+            if (pending.getStatus() != PaymentStatus.PENDING) {
+                throw new IllegalArgumentException("Payment is not in pending status: " + pending.getStatus());
+            }
+            stockReservationService.holdForPayment(pending.getOrder().getId());
+            
+            // Mark as processing
+            pending.markAsProcessing();
+            return paymentRepository.save(pending);
+        });
+        Long orderId = payment.getOrder().getId();
+        
+        // Process payment based on method
+        PaymentResult result;
+        try {
+            result = processPaymentByMethod(payment, request);
+        } catch (Exception e) {
+            log.error("Error processing payment {}: {}", paymentReference, e.getMessage());
+            transaction.executeWithoutResult(status ->
+                    recordFailure(paymentReference, "Processing error: " + e.getMessage(), null));
+            throw new RuntimeException("Payment processing failed", e);
+        }
         
-        if (payment.getStatus() != PaymentStatus.PENDING) {
-            throw new IllegalArgumentException("Payment is not in pending status: " + payment.getStatus());
+        if (!result.isSuccess()) {
+            log.warn("Payment processing failed: {} - {}", paymentReference, result.getFailureReason());
+            return transaction.execute(status ->
+                    recordFailure(paymentReference, result.getFailureReason(), result.getResponse()));
         }
         
         try {
-            // Mark as processing
-            payment.markAsProcessing();
-            paymentRepository.save(payment);
-            
-            // Process payment based on method
-            PaymentResult result = processPaymentByMethod(payment, request);
-            
-            if (result.isSuccess()) {
-                payment.markAsCompleted(result.getTransactionId());
-                payment.setGatewayResponse(result.getResponse());
-                
-                // Update order payment status
-                orderService.updatePaymentStatus(payment.getOrder().getId(), PaymentStatus.COMPLETED);
+            return transaction.execute(status -> {
+                // Stock held at checkout becomes a sale
+                stockReservationService.commit(orderId);
                 
-                log.info("Payment processed successfully: {}", paymentReference);
-            } else {
-                payment.markAsFailed(result.getFailureReason());
-                payment.setGatewayResponse(result.getResponse());
+                Payment charged = getPaymentByReference(paymentReference);
+                charged.markAsCompleted(result.getTransactionId());
+                charged.setGatewayResponse(result.getResponse());
                 
                 // Update order payment status
-                orderService.updatePaymentStatus(payment.getOrder().getId(), PaymentStatus.FAILED);
+                orderService.updatePaymentStatus(orderId, PaymentStatus.COMPLETED);
                 
-                log.warn("Payment processing failed: {} - {}", paymentReference, result.getFailureReason());
+                log.info("Payment processed successfully: {}", paymentReference);
+                return paymentRepository.save(charged);
+            });
+        } catch (RuntimeException e) {
+            // The customer has been charged but the sale could not be recorded, so the charge is given back
+            log.error("Could not complete charged payment {}, voiding the charge: {}", paymentReference, e.getMessage());
+            RefundResult voided = voidChargeByMethod(payment, result.getTransactionId());
+            String reason = voided.isSuccess()
+                    ? "Charge voided: " + e.getMessage()
+                    : "Charge could not be voided, refund manually: " + e.getMessage();
+            if (!voided.isSuccess()) {
+                log.error("Failed to void charge {} of payment {}: {}",
+                        result.getTransactionId(), paymentReference, voided.getFailureReason());
             }
-            
-            return paymentRepository.save(payment);
-            
-        } catch (Exception e) {
-            log.error("Error processing payment {}: {}", paymentReference, e.getMessage());
-            payment.markAsFailed("Processing error: " + e.getMessage());
-            paymentRepository.save(payment);
-            throw new RuntimeException("Payment processing failed", e);
+            transaction.executeWithoutResult(status -> recordFailure(paymentReference, reason, voided.getResponse()));
+            throw new IllegalStateException("Payment could not be completed: " + e.getMessage(), e);
         }
     }
     
@@ -229,11 +262,11 @@ public class PaymentService {
     }
     
     public List<Object[]> getPaymentMethodStats() {
-        return paymentRepository.getPaymentMethodStatsByStatus(PaymentStatus.COMPLETED);
+        return analyticsRollupService.getPaymentMethodStats(PaymentStatus.COMPLETED);
     }
     
     public List<Object[]> getDailyPaymentStats(LocalDateTime startDate, LocalDateTime endDate) {
-        return paymentRepository.getDailyPaymentStats(startDate, endDate);
+        return analyticsRollupService.getDailyPaymentStats(startDate, endDate);
     }
     
     public List<Payment> getRecentPayments(int limit) {
@@ -311,6 +344,26 @@ public class PaymentService {
         return new PaymentResult(true, "NB_" + System.currentTimeMillis(), "Net banking payment successful", null);
     }
     
+    private RefundResult voidChargeByMethod(Payment payment, String transactionId) {
+        // Simulate voiding a charge that has not settled yet
+        log.info("Voiding {} charge {} - Amount: {}", payment.getPaymentMethod(), transactionId, payment.getAmount());
+        
+        // In real implementation, call the gateway's void or refund API for the transaction
+        return new RefundResult(true, "VOID_" + System.currentTimeMillis(), "Charge voided successfully", null);
+    }
+    
+    private Payment recordFailure(String paymentReference, String reason, String gatewayResponse) {
+        Payment payment = getPaymentByReference(paymentReference);
+        payment.markAsFailed(reason);
+        if (gatewayResponse != null) {
+            payment.setGatewayResponse(gatewayResponse);
+        }
+        
+        // Update order payment status
+        orderService.updatePaymentStatus(payment.getOrder().getId(), PaymentStatus.FAILED);
+        return paymentRepository.save(payment);
+    }
+    
     private RefundResult processRefundByMethod(Payment payment, BigDecimal refundAmount, String reason) {
         // Simulate refund processing
         log.info("Processing refund for payment method: {} - Amount: {}", payment.getPaymentMethod(), refundAmount);
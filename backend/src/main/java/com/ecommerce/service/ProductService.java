@@ -1,19 +1,39 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.CacheTagEvictor;
+import com.ecommerce.cache.ProductCacheTags;
+import com.ecommerce.dto.CursorPage;
+import com.ecommerce.dto.FacetedPage;
 import com.ecommerce.entity.Product;
 import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.paging.CursorPaging;
+import com.ecommerce.service.search.ProductFacetIndex;
+import com.ecommerce.service.search.ProductFilter;
+import com.ecommerce.service.search.ProductSearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -22,10 +42,16 @@ import java.util.Optional;
 public class ProductService {
     
     private final ProductRepository productRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final ProductViewCounter productViewCounter;
+    private final CacheTagEvictor cacheTagEvictor;
+    
+    private static final Set<String> CURSOR_SORT_KEYS = Set.of("createdAt", "name");
     
     // Create operations
     @Transactional
-    @CacheEvict(value = {"products", "categories"}, allEntries = true)
     public Product createProduct(Product product) {
         log.info("Creating new product with SKU: {}", product.getSku());
         
@@ -40,12 +66,13 @@ public class ProductService {
         product.setReviewCount(0);
         
         Product savedProduct = productRepository.save(product);
+        applyChange(null, savedProduct);
         log.info("Product created successfully with ID: {}", savedProduct.getId());
         return savedProduct;
     }
     
     // Read operations
-    @Cacheable(value = "products", key = "#id")
+    @Cacheable(value = "products", key = "#id", sync = true)
     public Optional<Product> findById(String id) {
         return productRepository.findById(id);
     }
@@ -59,22 +86,33 @@ public class ProductService {
                 .orElseThrow(() -> new IllegalArgumentException("Product not found with ID: " + id));
     }
     
+    public Map<String, Product> getProductsByIds(Collection<String> ids) {
+        Map<String, Product> productsById = new HashMap<>();
+        productRepository.findAllById(ids).forEach(product -> productsById.put(product.getId(), product));
+        return productsById;
+    }
+    
     public Product getProductBySku(String sku) {
         return productRepository.findBySku(sku)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found with SKU: " + sku));
     }
     
-    @Cacheable(value = "products", key = "'all-' + #pageable.pageNumber + '-' + #pageable.pageSize")
+    @Cacheable(value = "products", key = "'all-' + #pageable.pageNumber + '-' + #pageable.pageSize", sync = true)
     public Page<Product> getAllProducts(Pageable pageable) {
         return productRepository.findAll(pageable);
     }
     
-    @Cacheable(value = "products", key = "'active-' + #pageable.pageNumber + '-' + #pageable.pageSize")
+    @Cacheable(value = "products", key = "'active-' + #pageable.pageNumber + '-' + #pageable.pageSize", sync = true)
     public Page<Product> getActiveProducts(Pageable pageable) {
         return productRepository.findByIsActive(true, pageable);
     }
     
-    @Cacheable(value = "products", key = "'category-' + #category + '-' + #pageable.pageNumber")
+    public CursorPage<Product> getActiveProducts(String cursor, int size, String sortBy, String sortDir) {
+        return CursorPaging.scroll(cursor, sortBy, sortDir, size, CURSOR_SORT_KEYS,
+                (position, limit, sort) -> productRepository.findByIsActive(true, position, limit, sort));
+    }
+    
+    @Cacheable(value = "products", key = "'category-' + #category + '-' + #pageable.pageNumber", sync = true)
     public Page<Product> getProductsByCategory(String category, Pageable pageable) {
         return productRepository.findByCategory(category, pageable);
     }
@@ -95,158 +133,160 @@ public class ProductService {
         return productRepository.findInStockProducts(pageable);
     }
     
-    @Cacheable(value = "products", key = "'featured-' + #pageable.pageNumber")
+    @Cacheable(value = "products", key = "'featured-' + #pageable.pageNumber", sync = true)
     public Page<Product> getFeaturedProducts(Pageable pageable) {
         return productRepository.findByIsFeatured(true, pageable);
     }
     
+    public Page<Product> findProducts(ProductFilter filter, Pageable pageable) {
+        if (!productFacetIndex.isReady() || (filter.hasSearch() && !productSearchIndex.isReady())) {
+            return new FacetedPage<>(findProductsFromDatabase(filter, pageable), Map.of());
+        }
+        
+        List<String> searchHits = filter.hasSearch() ? productSearchIndex.search(filter.getSearch()) : null;
+        ProductFacetIndex.FacetResult result = productFacetIndex.filter(filter, searchHits, pageable.getSort());
+        
+        return new FacetedPage<>(getProductPage(result.getProductIds(), pageable), result.getFacets());
+    }
+    
     public Page<Product> searchProducts(String keyword, Pageable pageable) {
-        return productRepository.searchActiveProducts(keyword, pageable);
+        if (!productSearchIndex.isReady()) {
+            return productRepository.searchActiveProducts(keyword, pageable);
+        }
+        
+        List<String> rankedIds = productSearchIndex.search(keyword);
+        return getProductPage(rankedIds, pageable);
     }
     
     // Update operations
+    // Each update sets only the fields it changes, so it never overwrites the stock and sales counters
+    // or the applied outbox events that StockService moves concurrently
     @Transactional
-    @CacheEvict(value = {"products", "categories"}, allEntries = true)
     public Product updateProduct(String id, Product productDetails) {
         log.info("Updating product with ID: {}", id);
         
-        Product product = getProductById(id);
-        
-        product.setName(productDetails.getName());
-        product.setDescription(productDetails.getDescription());
-        product.setPrice(productDetails.getPrice());
-        product.setOriginalPrice(productDetails.getOriginalPrice());
-        product.setMainImage(productDetails.getMainImage());
-        product.setImages(productDetails.getImages());
-        product.setCategory(productDetails.getCategory());
-        product.setSubcategory(productDetails.getSubcategory());
-        product.setBrand(productDetails.getBrand());
-        product.setStockQuantity(productDetails.getStockQuantity());
-        product.setLowStockThreshold(productDetails.getLowStockThreshold());
-        product.setWeight(productDetails.getWeight());
-        product.setDimensions(productDetails.getDimensions());
-        product.setTags(productDetails.getTags());
-        product.setSpecifications(productDetails.getSpecifications());
-        product.setVariants(productDetails.getVariants());
-        product.setMetaTitle(productDetails.getMetaTitle());
-        product.setMetaDescription(productDetails.getMetaDescription());
-        product.setMetaKeywords(productDetails.getMetaKeywords());
+        // Stock is changed through updateStock, which states the new quantity explicitly
+        Update update = new Update()
+                .set("name", productDetails.getName())
+                .set("description", productDetails.getDescription())
+                .set("price", productDetails.getPrice())
+                .set("originalPrice", productDetails.getOriginalPrice())
+                .set("mainImage", productDetails.getMainImage())
+                .set("images", productDetails.getImages())
+                .set("category", productDetails.getCategory())
+                .set("subcategory", productDetails.getSubcategory())
+                .set("brand", productDetails.getBrand())
+                .set("lowStockThreshold", productDetails.getLowStockThreshold())
+                .set("weight", productDetails.getWeight())
+                .set("dimensions", productDetails.getDimensions())
+                .set("tags", productDetails.getTags())
+                .set("specifications", productDetails.getSpecifications())
+                .set("variants", productDetails.getVariants())
+                .set("metaTitle", productDetails.getMetaTitle())
+                .set("metaDescription", productDetails.getMetaDescription())
+                .set("metaKeywords", productDetails.getMetaKeywords());
         
-        Product updatedProduct = productRepository.save(product);
+        Product updatedProduct = update(id, update);
         log.info("Product updated successfully with ID: {}", updatedProduct.getId());
         return updatedProduct;
     }
     
     @Transactional
-    @CacheEvict(value = "products", key = "#id")
     public Product updateStock(String id, Integer newStock) {
         log.info("Updating stock for product ID: {} to: {}", id, newStock);
         
-        Product product = getProductById(id);
-        product.setStockQuantity(newStock);
-        
-        Product updatedProduct = productRepository.save(product);
+        Product updatedProduct = update(id, new Update().set("stockQuantity", newStock));
         log.info("Stock updated successfully for product ID: {}", id);
         return updatedProduct;
     }
     
     @Transactional
-    @CacheEvict(value = "products", key = "#id")
     public Product updatePrice(String id, BigDecimal newPrice) {
         log.info("Updating price for product ID: {} to: {}", id, newPrice);
         
-        Product product = getProductById(id);
-        product.setPrice(newPrice);
-        
-        Product updatedProduct = productRepository.save(product);
+        Product updatedProduct = update(id, new Update().set("price", newPrice));
         log.info("Price updated successfully for product ID: {}", id);
         return updatedProduct;
     }
     
     @Transactional
-    @CacheEvict(value = "products", key = "#id")
     public Product activateProduct(String id) {
         log.info("Activating product with ID: {}", id);
         
-        Product product = getProductById(id);
-        product.setIsActive(true);
-        
-        Product activatedProduct = productRepository.save(product);
+        Product activatedProduct = update(id, new Update().set("isActive", true));
         log.info("Product activated successfully with ID: {}", id);
         return activatedProduct;
     }
     
     @Transactional
-    @CacheEvict(value = "products", key = "#id")
     public Product deactivateProduct(String id) {
         log.info("Deactivating product with ID: {}", id);
         
-        Product product = getProductById(id);
-        product.setIsActive(false);
-        
-        Product deactivatedProduct = productRepository.save(product);
+        Product deactivatedProduct = update(id, new Update().set("isActive", false));
         log.info("Product deactivated successfully with ID: {}", id);
         return deactivatedProduct;
     }
     
     @Transactional
-    @CacheEvict(value = "products", key = "#id")
     public Product featureProduct(String id) {
         log.info("Featuring product with ID: {}", id);
         
-        Product product = getProductById(id);
-        product.setIsFeatured(true);
-        
-        Product featuredProduct = productRepository.save(product);
+        Product featuredProduct = update(id, new Update().set("isFeatured", true));
         log.info("Product featured successfully with ID: {}", id);
         return featuredProduct;
     }
     
     @Transactional
-    @CacheEvict(value = "products", key = "#id")
     public Product unfeatureProduct(String id) {
         log.info("Unfeaturing product with ID: {}", id);
         
-        Product product = getProductById(id);
-        product.setIsFeatured(false);
-        
-        Product unfeaturedProduct = productRepository.save(product);
+        Product unfeaturedProduct = update(id, new Update().set("isFeatured", false));
         log.info("Product unfeatured successfully with ID: {}", id);
         return unfeaturedProduct;
     }
     
-    @Transactional
-    @CacheEvict(value = "products", key = "#id")
-    public Product incrementViewCount(String id) {
-        Product product = getProductById(id);
-        product.incrementViewCount();
-        return productRepository.save(product);
+    public void incrementViewCount(String id) {
+        productViewCounter.record(id);
     }
     
     @Transactional
-    @CacheEvict(value = "products", key = "#id")
     public Product incrementSalesCount(String id, int quantity) {
-        Product product = getProductById(id);
-        product.incrementSalesCount(quantity);
-        return productRepository.save(product);
+        return update(id, new Update().inc("salesCount", quantity));
     }
     
     @Transactional
-    @CacheEvict(value = "products", key = "#id")
     public Product updateRating(String id, BigDecimal averageRating, int reviewCount) {
-        Product product = getProductById(id);
-        product.updateRating(averageRating, reviewCount);
-        return productRepository.save(product);
+        return update(id, new Update().set("averageRating", averageRating).set("reviewCount", reviewCount));
+    }
+    
+    /**
+     * Brings the indexes and caches up to date for products that were modified directly in the database.
+     */
+    public void applyChanges(List<ProductCacheTags.State> before, List<Product> after) {
+        Set<String> tags = new HashSet<>();
+        for (int i = 0; i < after.size(); i++) {
+            Product product = after.get(i);
+            productSearchIndex.index(product);
+            productFacetIndex.index(product);
+            tags.addAll(ProductCacheTags.changed(before.get(i), ProductCacheTags.State.of(product)));
+        }
+        evictCaches(tags);
+    }
+    
+    public void refresh(Collection<String> ids) {
+        List<Product> products = List.copyOf(getProductsByIds(ids).values());
+        applyChanges(products.stream().map(ProductCacheTags.State::of).toList(), products);
     }
     
     // Delete operations
     @Transactional
-    @CacheEvict(value = {"products", "categories"}, allEntries = true)
     public void deleteProduct(String id) {
         log.info("Deleting product with ID: {}", id);
         
         Product product = getProductById(id);
+        ProductCacheTags.State before = ProductCacheTags.State.of(product);
         productRepository.delete(product);
+        applyDelete(before);
         
         log.info("Product deleted successfully with ID: {}", id);
     }
@@ -281,22 +321,22 @@ public class ProductService {
     }
     
     // Popular and trending products
-    @Cacheable(value = "products", key = "'most-viewed-' + #pageable.pageNumber")
+    @Cacheable(value = "products", key = "'most-viewed-' + #pageable.pageNumber", sync = true)
     public List<Product> getMostViewedProducts(Pageable pageable) {
         return productRepository.findMostViewedProducts(pageable);
     }
     
-    @Cacheable(value = "products", key = "'best-selling-' + #pageable.pageNumber")
+    @Cacheable(value = "products", key = "'best-selling-' + #pageable.pageNumber", sync = true)
     public List<Product> getBestSellingProducts(Pageable pageable) {
         return productRepository.findBestSellingProducts(pageable);
     }
     
-    @Cacheable(value = "products", key = "'top-rated-' + #pageable.pageNumber")
+    @Cacheable(value = "products", key = "'top-rated-' + #pageable.pageNumber", sync = true)
     public List<Product> getTopRatedProducts(Pageable pageable) {
         return productRepository.findTopRatedProducts(pageable);
     }
     
-    @Cacheable(value = "products", key = "'recent-' + #pageable.pageNumber")
+    @Cacheable(value = "products", key = "'recent-' + #pageable.pageNumber", sync = true)
     public List<Product> getRecentProducts(Pageable pageable) {
         return productRepository.findRecentProducts(pageable);
     }
@@ -325,4 +365,67 @@ public class ProductService {
     public List<String> getDistinctSubcategoriesByCategory(String category) {
         return productRepository.findDistinctSubcategoriesByCategory(category);
     }
+    
+    // Private helper methods
+    // Keeps the in-memory indexes current and evicts only the cached entries the change can affect
+    private Product update(String id, Update update) {
+        ProductCacheTags.State before = ProductCacheTags.State.of(getProductById(id));
+        Product updated = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id)),
+                update.set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                Product.class);
+        if (updated == null) {
+            throw new IllegalArgumentException("Product not found with ID: " + id);
+        }
+        return applyChange(before, updated);
+    }
+    
+    private Product applyChange(ProductCacheTags.State before, Product product) {
+        productSearchIndex.index(product);
+        productFacetIndex.index(product);
+        evictCaches(ProductCacheTags.changed(before, ProductCacheTags.State.of(product)));
+        return product;
+    }
+    
+    private void applyDelete(ProductCacheTags.State before) {
+        productSearchIndex.remove(before.id());
+        productFacetIndex.remove(before.id());
+        evictCaches(ProductCacheTags.changed(before, null));
+    }
+    
+    private void evictCaches(Set<String> tags) {
+        cacheTagEvictor.evict("products", tags);
+        cacheTagEvictor.evict("categories", tags);
+    }
+    
+    private Page<Product> findProductsFromDatabase(ProductFilter filter, Pageable pageable) {
+        if (filter.hasSearch()) {
+            return productRepository.searchActiveProducts(filter.getSearch(), pageable);
+        } else if (filter.getCategories() != null && !filter.getCategories().isEmpty()) {
+            return productRepository.findByCategory(filter.getCategories().get(0), pageable);
+        } else if (filter.getBrands() != null && !filter.getBrands().isEmpty()) {
+            return productRepository.findByBrand(filter.getBrands().get(0), pageable);
+        } else if (filter.getMinPrice() != null && filter.getMaxPrice() != null) {
+            return productRepository.findByPriceBetween(filter.getMinPrice(), filter.getMaxPrice(), pageable);
+        } else if (filter.isActiveOnly()) {
+            return productRepository.findByIsActive(true, pageable);
+        }
+        return productRepository.findAll(pageable);
+    }
+    
+    private Page<Product> getProductPage(List<String> orderedIds, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), orderedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), orderedIds.size());
+        List<String> pageIds = orderedIds.subList(from, to);
+        
+        Map<String, Product> productsById = getProductsByIds(pageIds);
+        
+        List<Product> content = pageIds.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        
+        return new PageImpl<>(content, pageable, orderedIds.size());
+    }
 }
@@ -0,0 +1,76 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.Product;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffers product views in memory and writes them behind as one bulk {@code $inc} per dirty product.
+ * Counts are eventually consistent; at most one flush interval of views is pending at a time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductViewCounter {
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ConcurrentHashMap<String, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public void record(String productId) {
+        pending.computeIfAbsent(productId, id -> new LongAdder()).increment();
+    }
+
+    @Scheduled(fixedDelayString = "${app.products.view-count-flush-interval:5000}")
+    public void flush() {
+        Map<String, Long> deltas = drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        deltas.forEach((id, delta) ->
+                bulk.updateOne(Query.query(Criteria.where("_id").is(id)), new Update().inc("viewCount", delta)));
+
+        try {
+            bulk.execute();
+            log.debug("Flushed view counts for {} products", deltas.size());
+        } catch (Exception e) {
+            log.warn("Failed to flush view counts for {} products, will retry: {}", deltas.size(), e.getMessage());
+            deltas.forEach((id, delta) -> pending.computeIfAbsent(id, key -> new LongAdder()).add(delta));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Idle counters are dropped so the map only holds recently viewed products. A view racing with the
+    // removal of an idle counter can be lost, which is acceptable for a popularity metric.
+    private Map<String, Long> drain() {
+        Map<String, Long> deltas = new HashMap<>();
+        pending.forEach((id, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta > 0) {
+                deltas.put(id, delta);
+            } else {
+                pending.remove(id, adder);
+            }
+        });
+        return deltas;
+    }
+}
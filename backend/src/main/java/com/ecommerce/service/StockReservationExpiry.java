@@ -0,0 +1,71 @@
+package com.ecommerce.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Drives the reservation expiry wheel: one tick per interval, releasing due reservations in batches.
+ * A slower sweep of the database expires what no wheel did, such as reservations scheduled on a node
+ * that has since stopped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockReservationExpiry {
+
+    private static final int BATCH_SIZE = 500;
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+    // Left to the wheels first, including one retry of a failed batch
+    private static final Duration SWEEP_GRACE = Duration.ofMinutes(1);
+
+    private final StockReservationService stockReservationService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleOpenReservations() {
+        int scheduled = stockReservationService.scheduleOpenReservations();
+        log.info("Scheduled expiry for {} open stock reservations", scheduled);
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.expiry-tick:1000}")
+    public void tick() {
+        List<Long> due = stockReservationService.pollExpired();
+        for (int from = 0; from < due.size(); from += BATCH_SIZE) {
+            List<Long> batch = due.subList(from, Math.min(from + BATCH_SIZE, due.size()));
+            try {
+                stockReservationService.expire(batch);
+            } catch (Exception e) {
+                log.error("Failed to expire {} stock reservations, will retry: {}", batch.size(), e.getMessage());
+                stockReservationService.postpone(batch, RETRY_DELAY);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.expiry-sweep-interval:60000}")
+    public void sweep() {
+        int expired = 0;
+        List<Long> overdue;
+        do {
+            overdue = stockReservationService.findOverdue(SWEEP_GRACE, BATCH_SIZE);
+            if (overdue.isEmpty()) {
+                break;
+            }
+            try {
+                expired += stockReservationService.expire(overdue);
+            } catch (Exception e) {
+                log.error("Failed to expire {} overdue stock reservations, will retry: {}", overdue.size(), e.getMessage());
+                return;
+            }
+        } while (overdue.size() == BATCH_SIZE);
+
+        if (expired > 0) {
+            log.warn("Expired {} overdue stock reservations missed by the expiry wheel", expired);
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.StockDelta;
+import com.ecommerce.entity.StockReservation;
+import com.ecommerce.entity.enums.OrderStatus;
+import com.ecommerce.entity.enums.PaymentStatus;
+import com.ecommerce.entity.enums.ReservationStatus;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.StockReservationRepository;
+import com.ecommerce.service.inventory.TimingWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Holds stock for unpaid orders. Checkout takes the stock and records a reservation with a deadline,
+ * payment commits it as a sale, and reservations that reach their deadline are released in batches and
+ * their orders cancelled. Sales counts and returned stock reach Mongo through the outbox. Deadlines are
+ * tracked in an in-memory {@link TimingWheel}, rebuilt from the open reservations on startup, so expiry
+ * does not scan the table on every tick. A periodic database sweep picks up the overdue reservations no
+ * wheel expired, such as those scheduled on a node that has since stopped.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class StockReservationService {
+
+    private final StockReservationRepository reservationRepository;
+    private final OrderRepository orderRepository;
+    private final StockService stockService;
+    private final OutboxService outboxService;
+    private final OrderStatisticsService orderStatisticsService;
+    private final OrderViewService orderViewService;
+    private final Duration ttl;
+    private final Duration paymentHold;
+    private final TimingWheel<Long> expiryWheel;
+
+    public StockReservationService(StockReservationRepository reservationRepository,
+                                   OrderRepository orderRepository,
+                                   StockService stockService,
+                                   OutboxService outboxService,
+                                   OrderStatisticsService orderStatisticsService,
+                                   OrderViewService orderViewService,
+                                   @Value("${app.inventory.reservation-ttl:15m}") Duration ttl,
+                                   @Value("${app.inventory.payment-hold:5m}") Duration paymentHold,
+                                   @Value("${app.inventory.expiry-tick:1000}") long tickMillis,
+                                   @Value("${app.inventory.wheel-size:512}") int wheelSize) {
+        this.reservationRepository = reservationRepository;
+        this.orderRepository = orderRepository;
+        this.stockService = stockService;
+        this.outboxService = outboxService;
+        this.orderStatisticsService = orderStatisticsService;
+        this.orderViewService = orderViewService;
+        this.ttl = ttl;
+        this.paymentHold = paymentHold;
+        this.expiryWheel = new TimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    /**
+     * Takes stock for every line of the order or for none, and holds it until payment or expiry.
+     */
+    @Transactional
+    public StockReservation reserve(Long orderId, Map<String, Integer> quantities) {
+        StockService.StockResult result = stockService.reserve(quantities);
+        if (!result.isSuccessful()) {
+            throw new IllegalArgumentException("Insufficient stock for products: " + result.getFailedProductIds());
+        }
+
+        StockReservation reservation = reservationRepository.save(
+                new StockReservation(orderId, quantities, LocalDateTime.now().plus(ttl)));
+        afterCompletion(
+                () -> expiryWheel.schedule(reservation.getId(), toMillis(reservation.getExpiresAt())),
+                () -> stockService.restock(quantities));
+
+        log.info("Reserved stock for order {} until {}", orderId, reservation.getExpiresAt());
+        return reservation;
+    }
+
+    /**
+     * Checks the order's reservation before its payment is charged, and keeps it open for at least the
+     * payment hold so it cannot expire while the gateway call runs. Throws if it has already expired.
+     */
+    @Transactional
+    public void holdForPayment(Long orderId) {
+        Optional<StockReservation> found = reservationRepository.findByOrderId(orderId);
+        if (found.isEmpty() || found.get().getStatus() == ReservationStatus.COMMITTED) {
+            return;
+        }
+
+        StockReservation reservation = found.get();
+        if (reservation.getStatus() == ReservationStatus.RELEASED) {
+            throw new IllegalStateException("Stock reservation for order " + orderId + " has expired");
+        }
+        LocalDateTime holdUntil = LocalDateTime.now().plus(paymentHold);
+        if (reservation.getExpiresAt().isBefore(holdUntil)) {
+            reservation.setExpiresAt(holdUntil);
+            reservationRepository.save(reservation);
+            afterCompletion(() -> expiryWheel.schedule(reservation.getId(), toMillis(holdUntil)), null);
+            log.info("Extended stock reservation for order {} until {} for payment", orderId, holdUntil);
+        }
+    }
+
+    /**
+     * Counts the order's held stock as sold. Orders placed without a reservation are left alone.
+     */
+    @Transactional
+    public void commit(Long orderId) {
+        Optional<StockReservation> found = reservationRepository.findByOrderId(orderId);
+        if (found.isEmpty()) {
+            return;
+        }
+
+        StockReservation reservation = found.get();
+        switch (reservation.getStatus()) {
+            case COMMITTED -> {
+                return;
+            }
+            case RELEASED -> throw new IllegalStateException("Stock reservation for order " + orderId + " has expired");
+            case ACTIVE -> {
+                reservation.commit();
+                reservationRepository.save(reservation);
+                outboxService.enqueueStockAdjustment(reference(orderId), lines(reservation.getQuantities(), StockDelta::sold));
+                afterCompletion(() -> expiryWheel.cancel(reservation.getId()), null);
+                log.info("Committed stock reservation for order {}", orderId);
+            }
+        }
+    }
+
+    /**
+     * Returns held stock for a cancelled order. Returns false when the order has no reservation or it was
+     * already committed, in which case the caller restocks the order items itself.
+     */
+    @Transactional
+    public boolean release(Long orderId) {
+        Optional<StockReservation> found = reservationRepository.findByOrderId(orderId);
+        if (found.isEmpty() || found.get().getStatus() == ReservationStatus.COMMITTED) {
+            return false;
+        }
+
+        StockReservation reservation = found.get();
+        if (reservation.isActive()) {
+            reservation.release();
+            reservationRepository.save(reservation);
+            outboxService.enqueueStockAdjustment(reference(orderId), lines(reservation.getQuantities(), StockDelta::returned));
+            afterCompletion(() -> expiryWheel.cancel(reservation.getId()), null);
+            log.info("Released stock reservation for order {}", orderId);
+        }
+        return true;
+    }
+
+    /**
+     * Bulk form of {@link #release(Long)}: returns the held stock of the given cancelled orders in one outbox
+     * event. Returns the IDs of the orders whose stock it accounted for; the caller restocks the items of
+     * the others itself.
+     */
+    @Transactional
+    public Set<Long> releaseAll(Collection<Long> orderIds) {
+        Set<Long> handled = new HashSet<>();
+        List<StockDelta> lines = new ArrayList<>();
+        List<StockReservation> released = new ArrayList<>();
+        for (StockReservation reservation : reservationRepository.findByOrderIdIn(orderIds)) {
+            if (reservation.getStatus() == ReservationStatus.COMMITTED) {
+                continue;
+            }
+            handled.add(reservation.getOrderId());
+            if (reservation.isActive()) {
+                reservation.release();
+                lines.addAll(lines(reservation.getQuantities(), StockDelta::returned));
+                released.add(reservation);
+            }
+        }
+        if (released.isEmpty()) {
+            return handled;
+        }
+
+        reservationRepository.saveAll(released);
+        outboxService.enqueueStockAdjustment("reservations:released", lines);
+        List<Long> releasedIds = released.stream().map(StockReservation::getId).toList();
+        afterCompletion(() -> releasedIds.forEach(expiryWheel::cancel), null);
+        log.info("Released {} stock reservations of cancelled orders", released.size());
+        return handled;
+    }
+
+    /**
+     * Releases the given reservations if they are still open and cancels their pending orders. Orders
+     * that have already moved past pending keep their stock, which is then counted as sold.
+     */
+    @Transactional
+    public int expire(List<Long> reservationIds) {
+        List<StockReservation> reservations = reservationRepository.findByIdInAndStatus(reservationIds, ReservationStatus.ACTIVE);
+        if (reservations.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Order> ordersById = orderRepository.findAllById(
+                        reservations.stream().map(StockReservation::getOrderId).toList())
+                .stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        List<StockDelta> lines = new ArrayList<>();
+        List<Order> cancelledOrders = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        int expired = 0;
+        for (StockReservation reservation : reservations) {
+            if (reservation.getExpiresAt().isAfter(now)) {
+                // Extended for a payment in progress, possibly by another node; wait for the new deadline
+                long deadline = toMillis(reservation.getExpiresAt());
+                afterCompletion(() -> expiryWheel.schedule(reservation.getId(), deadline), null);
+                continue;
+            }
+            expired++;
+            Order order = ordersById.get(reservation.getOrderId());
+            if (order != null && order.getStatus() != OrderStatus.PENDING && order.getStatus() != OrderStatus.CANCELLED) {
+                reservation.commit();
+                lines.addAll(lines(reservation.getQuantities(), StockDelta::sold));
+                continue;
+            }
+
+            reservation.release();
+            lines.addAll(lines(reservation.getQuantities(), StockDelta::returned));
+            if (order != null && order.getStatus() == OrderStatus.PENDING) {
+                order.updateStatus(OrderStatus.CANCELLED);
+                order.updatePaymentStatus(PaymentStatus.CANCELLED);
+                order.setNotes(order.getNotes() != null
+                        ? order.getNotes() + "\nCancellation reason: payment not received in time"
+                        : "Cancellation reason: payment not received in time");
+                orderStatisticsService.recordStatusChange(order, OrderStatus.PENDING);
+                cancelledOrders.add(order);
+            }
+        }
+        reservationRepository.saveAll(reservations);
+        orderRepository.saveAll(cancelledOrders);
+        orderViewService.projectAll(cancelledOrders.stream().map(Order::getId).toList());
+        outboxService.enqueueStockAdjustment("reservations:expired", lines);
+
+        log.info("Expired {} stock reservations and cancelled {} orders", expired, cancelledOrders.size());
+        return expired;
+    }
+
+    /**
+     * Reservation IDs whose deadline has passed since the last poll.
+     */
+    public List<Long> pollExpired() {
+        return expiryWheel.advance(System.currentTimeMillis());
+    }
+
+    /**
+     * Open reservations whose deadline passed more than {@code grace} ago, as read from the database. These
+     * are the ones no wheel expired: scheduled on a node that has since stopped, or lost to a failed commit.
+     */
+    public List<Long> findOverdue(Duration grace, int limit) {
+        return reservationRepository.findIdsByStatusAndExpiresAtBefore(ReservationStatus.ACTIVE,
+                LocalDateTime.now().minus(grace), PageRequest.of(0, limit));
+    }
+
+    public void postpone(List<Long> reservationIds, Duration delay) {
+        long deadline = System.currentTimeMillis() + delay.toMillis();
+        reservationIds.forEach(id -> expiryWheel.schedule(id, deadline));
+    }
+
+    /**
+     * Puts every open reservation on the expiry wheel, e.g. after a restart.
+     */
+    public int scheduleOpenReservations() {
+        List<Object[]> schedule = reservationRepository.findExpiryScheduleByStatus(ReservationStatus.ACTIVE);
+        for (Object[] row : schedule) {
+            expiryWheel.schedule((Long) row[0], toMillis((LocalDateTime) row[1]));
+        }
+        return schedule.size();
+    }
+
+    public int getOpenReservationCount() {
+        return expiryWheel.size();
+    }
+
+    // Private helper methods
+    // Stock lives in Mongo and the wheel in memory, so both follow the reservation row's transaction outcome
+    private void afterCompletion(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else if (onRollback != null) {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+
+    private static String reference(Long orderId) {
+        return "order:" + orderId;
+    }
+
+    private static List<StockDelta> lines(Map<String, Integer> quantities, BiFunction<String, Integer, StockDelta> delta) {
+        return quantities.entrySet().stream().map(entry -> delta.apply(entry.getKey(), entry.getValue())).toList();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
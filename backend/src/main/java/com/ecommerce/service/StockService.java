@@ -0,0 +1,153 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.ProductCacheTags;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.StockDelta;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Atomic stock changes. Taking stock is a single server-side {@code $inc} per line guarded by the available
+ * stock, so concurrent checkouts cannot oversell, and a multi-line take either applies every line or none.
+ * Other adjustments arrive through the outbox and are applied idempotently.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockService {
+
+    // Outbox event IDs already applied to a product, most recent last
+    private static final String APPLIED_EVENTS_FIELD = "applied_outbox_events";
+    private static final int APPLIED_EVENTS_KEPT = 100;
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductService productService;
+
+    /**
+     * Takes each quantity out of stock. Every line costs one round trip; if any line fails, the lines
+     * already taken are put back in one bulk write.
+     */
+    public StockResult reserve(Map<String, Integer> quantities) {
+        LocalDateTime now = LocalDateTime.now();
+        List<StockLine> lines = new ArrayList<>();
+        List<ProductCacheTags.State> before = new ArrayList<>();
+        List<Product> taken = new ArrayList<>();
+
+        quantities.forEach((id, quantity) -> {
+            Query query = Query.query(Criteria.where("_id").is(id).and("stockQuantity").gte(quantity));
+            Update update = new Update().inc("stockQuantity", -quantity).set("updatedAt", now);
+            Product product = mongoTemplate.findAndModify(query, update, Product.class);
+
+            if (product == null) {
+                lines.add(new StockLine(id, quantity, false, null));
+                return;
+            }
+            // The returned document is the pre-update state; apply the same change to it in memory
+            before.add(ProductCacheTags.State.of(product));
+            product.setStockQuantity(product.getStockQuantity() - quantity);
+            product.setUpdatedAt(now);
+            lines.add(new StockLine(id, quantity, true, product.getStockQuantity()));
+            taken.add(product);
+        });
+
+        StockResult result = new StockResult(lines);
+        if (!result.isSuccessful()) {
+            log.warn("Insufficient stock for products {}, putting back {} lines already taken", result.getFailedProductIds(), taken.size());
+            restock(result.getSuccessfulQuantities());
+            return result;
+        }
+
+        productService.applyChanges(before, taken);
+        return result;
+    }
+
+    /**
+     * Puts quantities back into stock as one bulk write. Used directly only to undo a {@link #reserve} whose
+     * transaction rolled back; committed changes go through the outbox.
+     */
+    public void restock(Map<String, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        log.info("Restocking {} products", quantities.size());
+
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        quantities.forEach((id, quantity) -> bulk.updateOne(Query.query(Criteria.where("_id").is(id)),
+                new Update().inc("stockQuantity", quantity).set("updatedAt", now)));
+        bulk.execute();
+        productService.refresh(quantities.keySet());
+    }
+
+    /**
+     * Applies outbox stock adjustments as one bulk write. Each product records the IDs of the events applied
+     * to it, and a line is skipped if its event is already recorded, so a replayed batch changes nothing.
+     */
+    public void applyAdjustments(Map<Long, List<StockDelta>> linesByEvent) {
+        if (linesByEvent.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> productIds = new HashSet<>();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        linesByEvent.forEach((eventId, lines) -> lines.forEach(line -> {
+            Update update = new Update().set("updatedAt", now);
+            if (line.getStockDelta() != 0) {
+                update.inc("stockQuantity", line.getStockDelta());
+            }
+            if (line.getSalesDelta() != 0) {
+                update.inc("salesCount", line.getSalesDelta());
+            }
+            update.push(APPLIED_EVENTS_FIELD).slice(-APPLIED_EVENTS_KEPT).each(eventId);
+            bulk.updateOne(Query.query(Criteria.where("_id").is(line.getProductId()).and(APPLIED_EVENTS_FIELD).ne(eventId)), update);
+            productIds.add(line.getProductId());
+        }));
+        bulk.execute();
+        productService.refresh(productIds);
+    }
+
+    /**
+     * Outcome of one product line; {@code remainingStock} is only known for lines that succeeded.
+     */
+    public record StockLine(String productId, int quantity, boolean success, Integer remainingStock) {
+    }
+
+    public static class StockResult {
+        private final List<StockLine> lines;
+
+        public StockResult(List<StockLine> lines) {
+            this.lines = List.copyOf(lines);
+        }
+
+        public List<StockLine> getLines() { return lines; }
+
+        public boolean isSuccessful() {
+            return lines.stream().allMatch(StockLine::success);
+        }
+
+        public List<String> getFailedProductIds() {
+            return lines.stream().filter(line -> !line.success()).map(StockLine::productId).toList();
+        }
+
+        Map<String, Integer> getSuccessfulQuantities() {
+            Map<String, Integer> quantities = new HashMap<>();
+            lines.stream().filter(StockLine::success).forEach(line -> quantities.put(line.productId(), line.quantity()));
+            return quantities;
+        }
+    }
+}
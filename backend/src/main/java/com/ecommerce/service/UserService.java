@@ -1,8 +1,12 @@
 package com.ecommerce.service;
 
+import com.ecommerce.dto.CursorPage;
 import com.ecommerce.entity.User;
 import com.ecommerce.entity.enums.Role;
+import com.ecommerce.repository.RefreshTokenFamilyRepository;
 import com.ecommerce.repository.UserRepository;
+import com.ecommerce.security.TokenVersionRegistry;
+import com.ecommerce.service.paging.CursorPaging;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -17,6 +21,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -26,6 +31,10 @@ public class UserService implements UserDetailsService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final RefreshTokenFamilyRepository refreshTokenFamilyRepository;
+    
+    private static final Set<String> CURSOR_SORT_KEYS = Set.of("createdAt", "email", "id");
     
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
@@ -93,6 +102,13 @@ public class UserService implements UserDetailsService {
         return userRepository.findAll(pageable);
     }
     
+    public CursorPage<User> getAllUsers(Role role, String cursor, int size, String sortBy, String sortDir) {
+        return CursorPaging.scroll(cursor, sortBy, sortDir, size, CURSOR_SORT_KEYS,
+                (position, limit, sort) -> role != null
+                        ? userRepository.findByRole(role, position, limit, sort)
+                        : userRepository.findAllBy(position, limit, sort));
+    }
+    
     public Page<User> getActiveUsers(Pageable pageable) {
         return userRepository.findByIsActive(true, pageable);
     }
@@ -138,7 +154,9 @@ public class UserService implements UserDetailsService {
         }
         
         user.setPassword(passwordEncoder.encode(newPassword));
+        user.revokeTokens();
         User updatedUser = userRepository.save(user);
+        tokenVersionRegistry.revoke(id, updatedUser.getTokenVersion());
         
         log.info("Password changed successfully for user ID: {}", id);
         return updatedUser;
@@ -155,8 +173,10 @@ public class UserService implements UserDetailsService {
         User user = getUserById(id);
         user.setEmail(newEmail);
         user.setIsVerified(false); // Require re-verification
+        user.revokeTokens();
         
         User updatedUser = userRepository.save(user);
+        tokenVersionRegistry.revoke(id, updatedUser.getTokenVersion());
         log.info("Email updated successfully for user ID: {}", id);
         return updatedUser;
     }
@@ -191,8 +211,10 @@ public class UserService implements UserDetailsService {
         
         User user = getUserById(id);
         user.setIsActive(false);
+        user.revokeTokens();
         
         User deactivatedUser = userRepository.save(user);
+        tokenVersionRegistry.revoke(id, deactivatedUser.getTokenVersion());
         log.info("User deactivated successfully with ID: {}", id);
         return deactivatedUser;
     }
@@ -203,8 +225,10 @@ public class UserService implements UserDetailsService {
         
         User user = getUserById(id);
         user.setRole(role);
+        user.revokeTokens();
         
         User updatedUser = userRepository.save(user);
+        tokenVersionRegistry.revoke(id, updatedUser.getTokenVersion());
         log.info("Role updated successfully for user ID: {}", id);
         return updatedUser;
     }
@@ -216,6 +240,10 @@ public class UserService implements UserDetailsService {
         
         User user = getUserById(id);
         userRepository.delete(user);
+        // The row is gone, so other nodes cannot learn a new token version; ending every refresh token
+        // family stops the account from refreshing anywhere, and its access tokens run out at expiry
+        refreshTokenFamilyRepository.revokeByUserId(id, LocalDateTime.now());
+        tokenVersionRegistry.revoke(id, Integer.MAX_VALUE);
         
         log.info("User deleted successfully with ID: {}", id);
     }
@@ -261,7 +289,13 @@ public class UserService implements UserDetailsService {
     @Transactional
     public void deactivateUsers(List<Long> userIds) {
         log.info("Deactivating {} users", userIds.size());
-        userRepository.updateActiveStatusByIds(userIds, false);
+        List<User> users = userRepository.findAllById(userIds);
+        for (User user : users) {
+            user.setIsActive(false);
+            user.revokeTokens();
+        }
+        userRepository.saveAll(users);
+        users.forEach(user -> tokenVersionRegistry.revoke(user.getId(), user.getTokenVersion()));
         log.info("Users deactivated successfully");
     }
     
@@ -0,0 +1,185 @@
+package com.ecommerce.service.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Decides whether a request carrying an idempotency key runs, replays an earlier response, or is refused.
+ * Finished responses are kept in a bounded in-memory front over the shared {@link IdempotencyStore}, so
+ * most replays never reach the database. Duplicates arriving on the same node while the first request
+ * is still running wait for its outcome instead of claiming the key themselves; a duplicate running on
+ * another node is refused as in progress.
+ */
+@Slf4j
+public class IdempotencyGate {
+
+    public enum Outcome { PROCEED, REPLAY, MISMATCH, IN_PROGRESS }
+
+    private static final int STORE_ATTEMPTS = 3;
+    private static final Duration STORE_RETRY_DELAY = Duration.ofMillis(50);
+
+    public record Decision(Outcome outcome, StoredResponse response) {
+
+        static final Decision PROCEED = new Decision(Outcome.PROCEED, null);
+        static final Decision MISMATCH = new Decision(Outcome.MISMATCH, null);
+        static final Decision IN_PROGRESS = new Decision(Outcome.IN_PROGRESS, null);
+
+        static Decision replay(StoredResponse response) {
+            return new Decision(Outcome.REPLAY, response);
+        }
+    }
+
+    private final IdempotencyStore store;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+    private final Duration waitTimeout;
+    private final Cache<String, StoredResponse> completed;
+    // Requests running on this node; resolves with the response, or null if the request gave the key up
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyGate(IdempotencyStore store, Duration ttl, Duration lockTimeout, Duration waitTimeout, long maximumWeight) {
+        this.store = store;
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+        this.waitTimeout = waitTimeout;
+        this.completed = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((String key, StoredResponse response) -> key.length() + response.weight())
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Decision begin(String key, String fingerprint) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            StoredResponse cached = completed.getIfPresent(key);
+            if (cached != null) {
+                return replayOrMismatch(cached, fingerprint);
+            }
+
+            CompletableFuture<StoredResponse> own = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, own);
+            if (running == null) {
+                Decision decision = claim(key, fingerprint, own);
+                if (decision != null) {
+                    return decision;
+                }
+                continue;
+            }
+
+            StoredResponse response;
+            try {
+                response = running.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                return Decision.IN_PROGRESS;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Decision.IN_PROGRESS;
+            } catch (ExecutionException e) {
+                response = null;
+            }
+            if (response != null) {
+                return replayOrMismatch(response, fingerprint);
+            }
+            // The first request gave the key up; try to claim it again
+        }
+    }
+
+    /**
+     * Records the response of a request that was allowed to proceed and hands it to any waiting duplicates.
+     * The store is retried a few times; if it still fails, the response is kept on this node only and an
+     * {@link IllegalStateException} is thrown, since other nodes could run a retry of the request again.
+     */
+    public void complete(String key, String fingerprint, int status, String contentType, byte[] body) {
+        StoredResponse response = new StoredResponse(fingerprint, status, contentType, body);
+        completed.put(key, response);
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    store.complete(key, response, LocalDateTime.now().plus(ttl));
+                    return;
+                } catch (RuntimeException e) {
+                    if (attempt == STORE_ATTEMPTS) {
+                        // The stored claim lapses after the lock timeout, after which the key can be used again
+                        throw new IllegalStateException("Failed to store response for idempotency key", e);
+                    }
+                    log.warn("Failed to store response for idempotency key, retrying: {}", e.getMessage());
+                    pause(STORE_RETRY_DELAY.multipliedBy(attempt));
+                }
+            }
+        } finally {
+            resolve(key, response);
+        }
+    }
+
+    /**
+     * Gives the key up after a request that did not succeed, so a retry with the same key runs again.
+     */
+    public void abandon(String key) {
+        try {
+            store.release(key);
+        } catch (RuntimeException e) {
+            log.error("Failed to release idempotency key: {}", e.getMessage());
+        } finally {
+            resolve(key, null);
+        }
+    }
+
+    // Private helper methods
+    // Returns null when the key vanished between the claim and the lookup and the caller should try again
+    private Decision claim(String key, String fingerprint, CompletableFuture<StoredResponse> own) {
+        try {
+            if (store.claim(key, fingerprint, LocalDateTime.now().plus(lockTimeout))) {
+                return Decision.PROCEED;
+            }
+
+            Optional<StoredResponse> existing = store.find(key);
+            if (existing.isEmpty()) {
+                resolve(key, null);
+                return null;
+            }
+
+            StoredResponse response = existing.get();
+            if (response.isComplete()) {
+                completed.put(key, response);
+                resolve(key, response);
+                return replayOrMismatch(response, fingerprint);
+            }
+            // Running on another node; local duplicates waiting on this claim check the store themselves
+            resolve(key, null);
+            return response.matches(fingerprint) ? Decision.IN_PROGRESS : Decision.MISMATCH;
+        } catch (RuntimeException e) {
+            resolve(key, null);
+            throw e;
+        }
+    }
+
+    private static void pause(Duration delay) {
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void resolve(String key, StoredResponse response) {
+        CompletableFuture<StoredResponse> running = inFlight.remove(key);
+        if (running != null) {
+            running.complete(response);
+        }
+    }
+
+    private static Decision replayOrMismatch(StoredResponse response, String fingerprint) {
+        return response.matches(fingerprint) ? Decision.replay(response) : Decision.MISMATCH;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.service.idempotency;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Durable side of the idempotency keys, shared by every node.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Atomically claims the key for a new request, taking it over if its previous entry has expired.
+     * Returns false when a live entry already exists.
+     */
+    boolean claim(String key, String fingerprint, LocalDateTime lockedUntil);
+
+    Optional<StoredResponse> find(String key);
+
+    void complete(String key, StoredResponse response, LocalDateTime expiresAt);
+
+    void release(String key);
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.service.idempotency;
+
+/**
+ * What an idempotency key remembers: the fingerprint of the request that first used it and, once that
+ * request has finished, its response. {@code status} is 0 while the first request is still running.
+ */
+public record StoredResponse(String fingerprint, int status, String contentType, byte[] body) {
+
+    public static StoredResponse inProgress(String fingerprint) {
+        return new StoredResponse(fingerprint, 0, null, null);
+    }
+
+    public boolean isComplete() {
+        return status > 0;
+    }
+
+    public boolean matches(String requestFingerprint) {
+        return fingerprint.equals(requestFingerprint);
+    }
+
+    // Key length plus body bytes, used to bound the in-memory front
+    int weight() {
+        return fingerprint.length() + (body != null ? body.length : 0);
+    }
+}
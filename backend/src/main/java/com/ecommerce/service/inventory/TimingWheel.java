@@ -0,0 +1,94 @@
+package com.ecommerce.service.inventory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hashed timing wheel: items are hashed into one of {@code wheelSize} buckets by the tick their deadline
+ * falls in, so scheduling and cancelling are O(1) and each advance only visits the buckets for the ticks
+ * that passed. Deadlines further out than one revolution share a bucket with nearer ones and are skipped
+ * until their own tick comes round. Deadlines are rounded up to the next tick.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final List<Set<T>> buckets;
+    private final Map<T, Long> deadlineTicks = new HashMap<>();
+    private final long startMillis;
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new LinkedHashSet<>());
+        }
+    }
+
+    /**
+     * Schedules an item, replacing any earlier deadline for it; past deadlines expire on the next advance.
+     */
+    public synchronized void schedule(T item, long deadlineMillis) {
+        cancel(item);
+        long tick = Math.max(ceilTick(deadlineMillis), currentTick + 1);
+        deadlineTicks.put(item, tick);
+        bucket(tick).add(item);
+    }
+
+    public synchronized boolean cancel(T item) {
+        Long tick = deadlineTicks.remove(item);
+        if (tick == null) {
+            return false;
+        }
+        bucket(tick).remove(item);
+        return true;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis} and returns the items whose deadline has passed, in bucket order.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long nowTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        if (nowTick <= currentTick) {
+            return List.of();
+        }
+
+        List<T> expired = new ArrayList<>();
+        long visited = Math.min(nowTick - currentTick, buckets.size());
+        for (long tick = nowTick - visited + 1; tick <= nowTick; tick++) {
+            Iterator<T> items = bucket(tick).iterator();
+            while (items.hasNext()) {
+                T item = items.next();
+                if (deadlineTicks.get(item) <= nowTick) {
+                    items.remove();
+                    deadlineTicks.remove(item);
+                    expired.add(item);
+                }
+            }
+        }
+        currentTick = nowTick;
+        return expired;
+    }
+
+    public synchronized int size() {
+        return deadlineTicks.size();
+    }
+
+    // Private helper methods
+    private long ceilTick(long millis) {
+        return -Math.floorDiv(startMillis - millis, tickMillis);
+    }
+
+    private Set<T> bucket(long tick) {
+        return buckets.get((int) Math.floorMod(tick, (long) buckets.size()));
+    }
+}
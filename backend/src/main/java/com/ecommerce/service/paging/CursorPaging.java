@@ -0,0 +1,153 @@
+package com.ecommerce.service.paging;
+
+import com.ecommerce.dto.CursorPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keyset pagination over Spring Data {@link Window} queries. Pages seek on {@code (sortKey, id)} and hand
+ * back an opaque continuation token instead of running a count query.
+ */
+public final class CursorPaging {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int TOKEN_VERSION = 1;
+
+    @FunctionalInterface
+    public interface WindowQuery<T> {
+        Window<T> fetch(ScrollPosition position, Limit limit, Sort sort);
+    }
+
+    private CursorPaging() {
+    }
+
+    /**
+     * Fetches one page. When {@code cursor} is present the sort key and direction it was issued for are
+     * reused and {@code sortBy}/{@code sortDir} are ignored.
+     */
+    public static <T> CursorPage<T> scroll(String cursor, String sortBy, String sortDir, int size,
+                                           Set<String> sortKeys, WindowQuery<T> query) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        Token token;
+        if (cursor != null && !cursor.isBlank()) {
+            token = decode(cursor);
+        } else {
+            token = new Token(sortBy, "desc".equalsIgnoreCase(sortDir) ? Sort.Direction.DESC : Sort.Direction.ASC, Map.of());
+        }
+        if (!sortKeys.contains(token.sortKey)) {
+            throw new IllegalArgumentException("Cursor pagination is not supported for sort field: " + token.sortKey);
+        }
+
+        Sort sort = "id".equals(token.sortKey)
+                ? Sort.by(token.direction, "id")
+                : Sort.by(token.direction, token.sortKey, "id");
+        ScrollPosition position = token.keys.isEmpty() ? ScrollPosition.keyset() : ScrollPosition.forward(token.keys);
+
+        Window<T> window = query.fetch(position, Limit.of(limit), sort);
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            nextCursor = encode(new Token(token.sortKey, token.direction, last.getKeys()));
+        }
+        return new CursorPage<>(window.getContent(), nextCursor, nextCursor != null, limit);
+    }
+
+    static String encode(Token token) {
+        List<List<String>> keys = new ArrayList<>();
+        token.keys.forEach((name, value) -> keys.add(List.of(name, typeOf(value), format(value))));
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("v", TOKEN_VERSION);
+        payload.put("s", token.sortKey);
+        payload.put("d", token.direction.name());
+        payload.put("k", keys);
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(payload));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static Token decode(String cursor) {
+        try {
+            Map<String, Object> payload = MAPPER.readValue(
+                    new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8), Map.class);
+            if (!Integer.valueOf(TOKEN_VERSION).equals(payload.get("v"))) {
+                throw new IllegalArgumentException("Unsupported cursor version");
+            }
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (List<String> key : (List<List<String>>) payload.get("k")) {
+                keys.put(key.get(0), parse(key.get(1), key.get(2)));
+            }
+            return new Token((String) payload.get("s"), Sort.Direction.valueOf((String) payload.get("d")), keys);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    // Key values keep their Java type across the round trip so the seek predicate compares like with like
+    private static String typeOf(Object value) {
+        if (value == null) return "z";
+        if (value instanceof String) return "s";
+        if (value instanceof Long) return "l";
+        if (value instanceof Integer) return "i";
+        if (value instanceof Double) return "d";
+        if (value instanceof BigDecimal) return "n";
+        if (value instanceof LocalDateTime) return "t";
+        if (value instanceof Date) return "D";
+        if (value instanceof Boolean) return "b";
+        if (value instanceof ObjectId) return "o";
+        if (value instanceof Decimal128) return "m";
+        throw new IllegalStateException("Unsupported cursor key type: " + value.getClass().getName());
+    }
+
+    private static String format(Object value) {
+        if (value == null) return "";
+        if (value instanceof Date date) return Long.toString(date.getTime());
+        if (value instanceof BigDecimal decimal) return decimal.toPlainString();
+        return value.toString();
+    }
+
+    private static Object parse(String type, String value) {
+        return switch (type) {
+            case "z" -> null;
+            case "s" -> value;
+            case "l" -> Long.valueOf(value);
+            case "i" -> Integer.valueOf(value);
+            case "d" -> Double.valueOf(value);
+            case "n" -> new BigDecimal(value);
+            case "t" -> LocalDateTime.parse(value);
+            case "D" -> new Date(Long.parseLong(value));
+            case "b" -> Boolean.valueOf(value);
+            case "o" -> new ObjectId(value);
+            case "m" -> Decimal128.parse(value);
+            default -> throw new IllegalArgumentException("Unknown cursor key type: " + type);
+        };
+    }
+
+    record Token(String sortKey, Sort.Direction direction, Map<String, Object> keys) {
+    }
+}
@@ -0,0 +1,487 @@
+package com.ecommerce.service.search;
+
+import com.ecommerce.entity.Product;
+import com.ecommerce.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Keeps one compressed bitmap per facet value so any combination of product
+ * filters is answered by bitmap intersection, together with per-facet counts.
+ */
+@Slf4j
+@Component
+public class ProductFacetIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String SUBCATEGORY = "subcategory";
+    public static final String BRAND = "brand";
+    public static final String PRICE = "price";
+    public static final String IN_STOCK = "inStock";
+    public static final String FEATURED = "featured";
+
+    private static final BigDecimal[] PRICE_BUCKET_BOUNDS = {
+            BigDecimal.valueOf(25), BigDecimal.valueOf(50), BigDecimal.valueOf(100),
+            BigDecimal.valueOf(250), BigDecimal.valueOf(500), BigDecimal.valueOf(1000)
+    };
+    private static final String[] PRICE_BUCKET_LABELS = {
+            "0-25", "25-50", "50-100", "100-250", "250-500", "500-1000", "1000+"
+    };
+
+    private static final Map<String, Comparator<FacetDocument>> SORT_KEYS = Map.of(
+            "createdAt", byKey(doc -> doc.createdAt),
+            "price", byKey(doc -> doc.price),
+            "name", byKey(doc -> doc.name),
+            "averageRating", byKey(doc -> doc.averageRating),
+            "reviewCount", byKey(doc -> doc.reviewCount),
+            "salesCount", byKey(doc -> doc.salesCount),
+            "viewCount", byKey(doc -> doc.viewCount)
+    );
+
+    private final ProductRepository productRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> ordinalByProductId = new HashMap<>();
+    private final List<FacetDocument> documents = new ArrayList<>();
+    // Ordinals of removed products, handed to the next products added so the ordinal space stays dense
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final RoaringBitmap allProducts = new RoaringBitmap();
+    private final RoaringBitmap activeProducts = new RoaringBitmap();
+    private final RoaringBitmap inStockProducts = new RoaringBitmap();
+    private final RoaringBitmap featuredProducts = new RoaringBitmap();
+    private final Map<String, RoaringBitmap> byCategory = new HashMap<>();
+    private final Map<String, RoaringBitmap> bySubcategory = new HashMap<>();
+    private final Map<String, RoaringBitmap> byBrand = new HashMap<>();
+    private final RoaringBitmap[] byPriceBucket = new RoaringBitmap[PRICE_BUCKET_LABELS.length];
+
+    private volatile boolean ready;
+
+    public ProductFacetIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+        for (int i = 0; i < byPriceBucket.length; i++) {
+            byPriceBucket[i] = new RoaringBitmap();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            rebuild(productRepository.findAll());
+            log.info("Product facet index built with {} products", size());
+        } catch (Exception e) {
+            log.error("Failed to build product facet index, falling back to database filters: {}", e.getMessage());
+        }
+    }
+
+    public void rebuild(Collection<Product> products) {
+        lock.writeLock().lock();
+        try {
+            ordinalByProductId.clear();
+            documents.clear();
+            freeOrdinals.clear();
+            allProducts.clear();
+            activeProducts.clear();
+            inStockProducts.clear();
+            featuredProducts.clear();
+            byCategory.clear();
+            bySubcategory.clear();
+            byBrand.clear();
+            for (RoaringBitmap bucket : byPriceBucket) {
+                bucket.clear();
+            }
+
+            for (Product product : products) {
+                if (product.getId() != null) {
+                    addDocument(product);
+                }
+            }
+            runOptimize();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Write operations
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalByProductId.get(product.getId());
+            if (ordinal != null) {
+                clearDocument(ordinal);
+                setDocument(ordinal, new FacetDocument(product));
+            } else {
+                addDocument(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String productId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalByProductId.remove(productId);
+            if (ordinal != null) {
+                clearDocument(ordinal);
+                documents.set(ordinal, null);
+                freeOrdinals.push(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Read operations
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalByProductId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ordinals allocated, live or free
+    int capacity() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies every filter at once. When {@code rankedCandidates} is given (search hits in
+     * relevance order) the result is restricted to them and keeps their order unless a sort is requested.
+     */
+    public FacetResult filter(ProductFilter filter, List<String> rankedCandidates, Sort sort) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap base = allProducts.clone();
+            if (filter.isActiveOnly()) {
+                base.and(activeProducts);
+            }
+            if (rankedCandidates != null) {
+                base.and(toBitmap(rankedCandidates));
+            }
+
+            Map<String, RoaringBitmap> constraints = new LinkedHashMap<>();
+            constraints.put(CATEGORY, anyOf(byCategory, filter.getCategories()));
+            constraints.put(SUBCATEGORY, anyOf(bySubcategory, filter.getSubcategories()));
+            constraints.put(BRAND, anyOf(byBrand, filter.getBrands()));
+            constraints.put(PRICE, priceRange(filter.getMinPrice(), filter.getMaxPrice()));
+            constraints.put(IN_STOCK, flag(inStockProducts, filter.getInStock()));
+            constraints.put(FEATURED, flag(featuredProducts, filter.getFeatured()));
+
+            RoaringBitmap matches = base.clone();
+            for (RoaringBitmap constraint : constraints.values()) {
+                if (constraint != null) {
+                    matches.and(constraint);
+                }
+            }
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put(CATEGORY, countValues(byCategory, excluding(base, constraints, CATEGORY)));
+            facets.put(SUBCATEGORY, countValues(bySubcategory, excluding(base, constraints, SUBCATEGORY)));
+            facets.put(BRAND, countValues(byBrand, excluding(base, constraints, BRAND)));
+            facets.put(PRICE, countPriceBuckets(excluding(base, constraints, PRICE)));
+            facets.put(IN_STOCK, countFlag(inStockProducts, excluding(base, constraints, IN_STOCK)));
+            facets.put(FEATURED, countFlag(featuredProducts, excluding(base, constraints, FEATURED)));
+
+            return new FacetResult(order(matches, rankedCandidates, sort), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Private helper methods
+    private void addDocument(Product product) {
+        Integer ordinal = freeOrdinals.poll();
+        if (ordinal == null) {
+            ordinal = documents.size();
+            documents.add(null);
+        }
+        ordinalByProductId.put(product.getId(), ordinal);
+        setDocument(ordinal, new FacetDocument(product));
+    }
+
+    private void setDocument(int ordinal, FacetDocument document) {
+        documents.set(ordinal, document);
+        allProducts.add(ordinal);
+        if (document.active) activeProducts.add(ordinal);
+        if (document.inStock) inStockProducts.add(ordinal);
+        if (document.featured) featuredProducts.add(ordinal);
+        addValue(byCategory, document.category, ordinal);
+        addValue(bySubcategory, document.subcategory, ordinal);
+        addValue(byBrand, document.brand, ordinal);
+        if (document.price != null) {
+            byPriceBucket[priceBucket(document.price)].add(ordinal);
+        }
+    }
+
+    private void clearDocument(int ordinal) {
+        FacetDocument document = documents.get(ordinal);
+        allProducts.remove(ordinal);
+        activeProducts.remove(ordinal);
+        inStockProducts.remove(ordinal);
+        featuredProducts.remove(ordinal);
+        removeValue(byCategory, document.category, ordinal);
+        removeValue(bySubcategory, document.subcategory, ordinal);
+        removeValue(byBrand, document.brand, ordinal);
+        if (document.price != null) {
+            byPriceBucket[priceBucket(document.price)].remove(ordinal);
+        }
+    }
+
+    private void runOptimize() {
+        allProducts.runOptimize();
+        activeProducts.runOptimize();
+        inStockProducts.runOptimize();
+        featuredProducts.runOptimize();
+        byCategory.values().forEach(RoaringBitmap::runOptimize);
+        bySubcategory.values().forEach(RoaringBitmap::runOptimize);
+        byBrand.values().forEach(RoaringBitmap::runOptimize);
+        for (RoaringBitmap bucket : byPriceBucket) {
+            bucket.runOptimize();
+        }
+    }
+
+    private RoaringBitmap toBitmap(List<String> productIds) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (String productId : productIds) {
+            Integer ordinal = ordinalByProductId.get(productId);
+            if (ordinal != null) {
+                bitmap.add(ordinal);
+            }
+        }
+        return bitmap;
+    }
+
+    private RoaringBitmap anyOf(Map<String, RoaringBitmap> bitmaps, List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        RoaringBitmap union = new RoaringBitmap();
+        for (String value : values) {
+            RoaringBitmap bitmap = bitmaps.get(value);
+            if (bitmap != null) {
+                union.or(bitmap);
+            }
+        }
+        return union;
+    }
+
+    private RoaringBitmap flag(RoaringBitmap flagged, Boolean wanted) {
+        if (wanted == null) {
+            return null;
+        }
+        return wanted ? flagged : RoaringBitmap.andNot(allProducts, flagged);
+    }
+
+    private RoaringBitmap priceRange(BigDecimal min, BigDecimal max) {
+        if (min == null && max == null) {
+            return null;
+        }
+
+        RoaringBitmap range = new RoaringBitmap();
+        for (int bucket = 0; bucket < byPriceBucket.length; bucket++) {
+            BigDecimal lower = bucket == 0 ? BigDecimal.ZERO : PRICE_BUCKET_BOUNDS[bucket - 1];
+            BigDecimal upper = bucket < PRICE_BUCKET_BOUNDS.length ? PRICE_BUCKET_BOUNDS[bucket] : null;
+
+            boolean belowMin = min != null && upper != null && upper.compareTo(min) <= 0;
+            boolean aboveMax = max != null && lower.compareTo(max) > 0;
+            if (belowMin || aboveMax) {
+                continue;
+            }
+
+            boolean coversLower = min == null || lower.compareTo(min) >= 0;
+            boolean coversUpper = max == null || (upper != null && upper.compareTo(max) <= 0);
+            if (coversLower && coversUpper) {
+                range.or(byPriceBucket[bucket]);
+            } else {
+                for (int ordinal : byPriceBucket[bucket]) {
+                    BigDecimal price = documents.get(ordinal).price;
+                    if ((min == null || price.compareTo(min) >= 0) && (max == null || price.compareTo(max) <= 0)) {
+                        range.add(ordinal);
+                    }
+                }
+            }
+        }
+        return range;
+    }
+
+    private RoaringBitmap excluding(RoaringBitmap base, Map<String, RoaringBitmap> constraints, String dimension) {
+        RoaringBitmap result = base.clone();
+        constraints.forEach((name, constraint) -> {
+            if (constraint != null && !name.equals(dimension)) {
+                result.and(constraint);
+            }
+        });
+        return result;
+    }
+
+    private Map<String, Integer> countValues(Map<String, RoaringBitmap> bitmaps, RoaringBitmap scope) {
+        Map<String, Integer> counts = new TreeMap<>();
+        bitmaps.forEach((value, bitmap) -> {
+            int count = RoaringBitmap.andCardinality(scope, bitmap);
+            if (count > 0) {
+                counts.put(value, count);
+            }
+        });
+        return counts;
+    }
+
+    private Map<String, Integer> countPriceBuckets(RoaringBitmap scope) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int bucket = 0; bucket < byPriceBucket.length; bucket++) {
+            int count = RoaringBitmap.andCardinality(scope, byPriceBucket[bucket]);
+            if (count > 0) {
+                counts.put(PRICE_BUCKET_LABELS[bucket], count);
+            }
+        }
+        return counts;
+    }
+
+    private Map<String, Integer> countFlag(RoaringBitmap flagged, RoaringBitmap scope) {
+        int matching = RoaringBitmap.andCardinality(scope, flagged);
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("true", matching);
+        counts.put("false", scope.getCardinality() - matching);
+        return counts;
+    }
+
+    private List<String> order(RoaringBitmap matches, List<String> rankedCandidates, Sort sort) {
+        List<String> productIds = new ArrayList<>(matches.getCardinality());
+
+        if (rankedCandidates != null && sort.isUnsorted()) {
+            for (String productId : rankedCandidates) {
+                Integer ordinal = ordinalByProductId.get(productId);
+                if (ordinal != null && matches.contains(ordinal)) {
+                    productIds.add(productId);
+                }
+            }
+            return productIds;
+        }
+
+        List<FacetDocument> matched = new ArrayList<>(matches.getCardinality());
+        for (int ordinal : matches) {
+            matched.add(documents.get(ordinal));
+        }
+        matched.sort(comparator(sort));
+
+        for (FacetDocument document : matched) {
+            productIds.add(document.productId);
+        }
+        return productIds;
+    }
+
+    private static Comparator<FacetDocument> comparator(Sort sort) {
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.desc("createdAt"));
+        Comparator<FacetDocument> comparator = SORT_KEYS.getOrDefault(order.getProperty(), SORT_KEYS.get("createdAt"));
+        if (order.isDescending()) {
+            comparator = comparator.reversed();
+        }
+        return comparator.thenComparing(doc -> doc.productId);
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<FacetDocument> byKey(Function<FacetDocument, T> key) {
+        return Comparator.comparing(key, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+
+    private static int priceBucket(BigDecimal price) {
+        for (int i = 0; i < PRICE_BUCKET_BOUNDS.length; i++) {
+            if (price.compareTo(PRICE_BUCKET_BOUNDS[i]) < 0) {
+                return i;
+            }
+        }
+        return PRICE_BUCKET_BOUNDS.length;
+    }
+
+    private static void addValue(Map<String, RoaringBitmap> bitmaps, String value, int ordinal) {
+        if (value != null) {
+            bitmaps.computeIfAbsent(value, key -> new RoaringBitmap()).add(ordinal);
+        }
+    }
+
+    private static void removeValue(Map<String, RoaringBitmap> bitmaps, String value, int ordinal) {
+        if (value == null) {
+            return;
+        }
+        RoaringBitmap bitmap = bitmaps.get(value);
+        if (bitmap != null) {
+            bitmap.remove(ordinal);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(value);
+            }
+        }
+    }
+
+    // Result and index structures
+    public static class FacetResult {
+        private final List<String> productIds;
+        private final Map<String, Map<String, Integer>> facets;
+
+        public FacetResult(List<String> productIds, Map<String, Map<String, Integer>> facets) {
+            this.productIds = productIds;
+            this.facets = facets;
+        }
+
+        public List<String> getProductIds() { return productIds; }
+        public Map<String, Map<String, Integer>> getFacets() { return facets; }
+    }
+
+    private static final class FacetDocument {
+        final String productId;
+        final String category;
+        final String subcategory;
+        final String brand;
+        final BigDecimal price;
+        final boolean active;
+        final boolean inStock;
+        final boolean featured;
+        final String name;
+        final LocalDateTime createdAt;
+        final BigDecimal averageRating;
+        final Integer reviewCount;
+        final Long salesCount;
+        final Long viewCount;
+
+        FacetDocument(Product product) {
+            this.productId = product.getId();
+            this.category = product.getCategory();
+            this.subcategory = product.getSubcategory();
+            this.brand = product.getBrand();
+            this.price = product.getPrice();
+            this.active = Boolean.TRUE.equals(product.getIsActive());
+            this.inStock = product.isInStock();
+            this.featured = Boolean.TRUE.equals(product.getIsFeatured());
+            this.name = product.getName();
+            this.createdAt = product.getCreatedAt();
+            this.averageRating = product.getAverageRating();
+            this.reviewCount = product.getReviewCount();
+            this.salesCount = product.getSalesCount();
+            this.viewCount = product.getViewCount();
+        }
+    }
+}
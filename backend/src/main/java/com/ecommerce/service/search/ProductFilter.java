@@ -0,0 +1,52 @@
+package com.ecommerce.service.search;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Combined product listing criteria. Every non-null field narrows the result.
+ */
+public class ProductFilter {
+
+    private String search;
+    private List<String> categories;
+    private List<String> subcategories;
+    private List<String> brands;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Boolean inStock;
+    private Boolean featured;
+    private boolean activeOnly = true;
+
+    public boolean hasSearch() {
+        return search != null && !search.trim().isEmpty();
+    }
+
+    // Getters and setters
+    public String getSearch() { return search; }
+    public void setSearch(String search) { this.search = search; }
+
+    public List<String> getCategories() { return categories; }
+    public void setCategories(List<String> categories) { this.categories = categories; }
+
+    public List<String> getSubcategories() { return subcategories; }
+    public void setSubcategories(List<String> subcategories) { this.subcategories = subcategories; }
+
+    public List<String> getBrands() { return brands; }
+    public void setBrands(List<String> brands) { this.brands = brands; }
+
+    public BigDecimal getMinPrice() { return minPrice; }
+    public void setMinPrice(BigDecimal minPrice) { this.minPrice = minPrice; }
+
+    public BigDecimal getMaxPrice() { return maxPrice; }
+    public void setMaxPrice(BigDecimal maxPrice) { this.maxPrice = maxPrice; }
+
+    public Boolean getInStock() { return inStock; }
+    public void setInStock(Boolean inStock) { this.inStock = inStock; }
+
+    public Boolean getFeatured() { return featured; }
+    public void setFeatured(Boolean featured) { this.featured = featured; }
+
+    public boolean isActiveOnly() { return activeOnly; }
+    public void setActiveOnly(boolean activeOnly) { this.activeOnly = activeOnly; }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.service.search;
+
+import com.ecommerce.entity.Product;
+import com.ecommerce.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps this node's in-memory product indexes current with writes made on other nodes, which only update
+ * the index of the node that made them. Products updated since the last run are re-indexed every few
+ * seconds; a periodic full rebuild also drops products deleted elsewhere.
+ */
+@Slf4j
+@Component
+public class ProductIndexSync {
+
+    private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final Duration overlap;
+    // Products updated from here on are re-indexed by the next run; set before the startup build reads
+    private LocalDateTime syncedFrom = LocalDateTime.now();
+
+    public ProductIndexSync(ProductRepository productRepository,
+                            ProductSearchIndex productSearchIndex,
+                            ProductFacetIndex productFacetIndex,
+                            @Value("${app.products.index-sync-overlap:1m}") Duration overlap) {
+        this.productRepository = productRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.productFacetIndex = productFacetIndex;
+        this.overlap = overlap;
+    }
+
+    @Scheduled(fixedDelayString = "${app.products.index-sync-interval:30000}")
+    public void syncChanged() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        // Reaches back by the overlap for writes committed late or stamped by a node with a slower clock
+        LocalDateTime since = syncedFrom.minus(overlap);
+        List<Product> changed = productRepository.findProductsUpdatedAfter(since);
+        for (Product product : changed) {
+            productSearchIndex.index(product);
+            productFacetIndex.index(product);
+        }
+        syncedFrom = startedAt;
+        log.debug("Re-indexed {} products updated since {}", changed.size(), since);
+    }
+
+    @Scheduled(cron = "${app.products.index-rebuild-cron:0 15 * * * *}")
+    public void rebuild() {
+        productSearchIndex.rebuild();
+        productFacetIndex.rebuild();
+    }
+}
@@ -0,0 +1,333 @@
+package com.ecommerce.service.search;
+
+import com.ecommerce.entity.Product;
+import com.ecommerce.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over active products, ranked with BM25.
+ * Built on startup and kept current by ProductService writes, and by ProductIndexSync for
+ * writes made on other nodes.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_COMPACTION_THRESHOLD = 1024;
+
+    private final ProductRepository productRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<String, Postings> postingsByTerm = new TreeMap<>();
+    private final Map<String, Integer> docByProductId = new HashMap<>();
+    private final List<IndexedDocument> documents = new ArrayList<>();
+    private long totalLength;
+    private int liveDocuments;
+
+    private volatile boolean ready;
+
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            List<Product> activeProducts = productRepository.findByIsActive(true);
+            rebuild(activeProducts);
+            log.info("Product search index built with {} products and {} terms", liveDocuments, termCount());
+        } catch (Exception e) {
+            log.error("Failed to build product search index, falling back to database search: {}", e.getMessage());
+        }
+    }
+
+    public void rebuild(Collection<Product> products) {
+        lock.writeLock().lock();
+        try {
+            clear();
+            for (Product product : products) {
+                if (isIndexable(product)) {
+                    addDocument(product.getId(), termFrequencies(product));
+                }
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Write operations
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(product.getId());
+            if (isIndexable(product)) {
+                addDocument(product.getId(), termFrequencies(product));
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String productId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Read operations
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocuments;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns IDs of active products matching every query term, best match first.
+     * The last term is matched as a prefix so partially typed words still hit.
+     */
+    public List<String> search(String query) {
+        List<String> queryTerms = SearchTokenizer.tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        boolean prefixLastTerm = !Character.isWhitespace(query.charAt(query.length() - 1));
+
+        lock.readLock().lock();
+        try {
+            if (liveDocuments == 0) {
+                return List.of();
+            }
+
+            double averageLength = (double) totalLength / liveDocuments;
+            Map<Integer, Double> scores = null;
+
+            for (int i = 0; i < queryTerms.size(); i++) {
+                boolean prefix = prefixLastTerm && i == queryTerms.size() - 1;
+                Map<Integer, Double> termScores = scoreTerm(queryTerms.get(i), prefix, averageLength);
+
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((doc, score) -> score + termScores.get(doc));
+                }
+
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+
+            List<String> productIds = new ArrayList<>(ranked.size());
+            for (Map.Entry<Integer, Double> entry : ranked) {
+                productIds.add(documents.get(entry.getKey()).productId);
+            }
+            return productIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Private helper methods
+    private Map<Integer, Double> scoreTerm(String term, boolean prefix, double averageLength) {
+        Map<Integer, Double> scores = new HashMap<>();
+
+        Collection<Map.Entry<String, Postings>> matches;
+        if (prefix) {
+            matches = postingsByTerm.subMap(term, true, term + Character.MAX_VALUE, false).entrySet();
+        } else {
+            Postings exact = postingsByTerm.get(term);
+            matches = exact != null ? List.of(Map.entry(term, exact)) : List.of();
+        }
+
+        int expansions = 0;
+        for (Map.Entry<String, Postings> match : matches) {
+            if (expansions++ >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+
+            Postings postings = match.getValue();
+            double idf = Math.log(1 + (liveDocuments - postings.size + 0.5) / (postings.size + 0.5));
+
+            for (int i = 0; i < postings.size; i++) {
+                int doc = postings.docs[i];
+                int frequency = postings.frequencies[i];
+                double lengthNorm = 1 - B + B * documents.get(doc).length / averageLength;
+                double score = idf * (frequency * (K1 + 1)) / (frequency + K1 * lengthNorm);
+                scores.merge(doc, score, Double::sum);
+            }
+        }
+
+        return scores;
+    }
+
+    private void addDocument(String productId, Map<String, Integer> frequencies) {
+        int doc = documents.size();
+        int length = 0;
+
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postingsByTerm.computeIfAbsent(entry.getKey(), term -> new Postings()).add(doc, entry.getValue());
+            length += entry.getValue();
+        }
+
+        documents.add(new IndexedDocument(productId, frequencies, length));
+        docByProductId.put(productId, doc);
+        totalLength += length;
+        liveDocuments++;
+    }
+
+    private void removeDocument(String productId) {
+        Integer doc = docByProductId.remove(productId);
+        if (doc == null) {
+            return;
+        }
+
+        IndexedDocument document = documents.get(doc);
+        for (String term : document.frequencies.keySet()) {
+            Postings postings = postingsByTerm.get(term);
+            if (postings != null && postings.remove(doc) && postings.size == 0) {
+                postingsByTerm.remove(term);
+            }
+        }
+
+        documents.set(doc, IndexedDocument.REMOVED);
+        totalLength -= document.length;
+        liveDocuments--;
+    }
+
+    private void compactIfNeeded() {
+        int removed = documents.size() - liveDocuments;
+        if (removed < Math.max(MIN_COMPACTION_THRESHOLD, liveDocuments)) {
+            return;
+        }
+
+        List<IndexedDocument> live = new ArrayList<>(liveDocuments);
+        for (IndexedDocument document : documents) {
+            if (document != IndexedDocument.REMOVED) {
+                live.add(document);
+            }
+        }
+
+        clear();
+        for (IndexedDocument document : live) {
+            addDocument(document.productId, document.frequencies);
+        }
+    }
+
+    private void clear() {
+        postingsByTerm.clear();
+        docByProductId.clear();
+        documents.clear();
+        totalLength = 0;
+        liveDocuments = 0;
+    }
+
+    private int termCount() {
+        lock.readLock().lock();
+        try {
+            return postingsByTerm.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean isIndexable(Product product) {
+        return product.getId() != null && Boolean.TRUE.equals(product.getIsActive());
+    }
+
+    private static Map<String, Integer> termFrequencies(Product product) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addTerms(frequencies, product.getName(), NAME_WEIGHT);
+        addTerms(frequencies, product.getDescription(), DESCRIPTION_WEIGHT);
+        if (product.getTags() != null) {
+            for (String tag : product.getTags()) {
+                addTerms(frequencies, tag, TAG_WEIGHT);
+            }
+        }
+        return frequencies;
+    }
+
+    private static void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        for (String token : SearchTokenizer.tokenize(text)) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+    }
+
+    // Index structures
+    private static final class IndexedDocument {
+        static final IndexedDocument REMOVED = new IndexedDocument(null, Map.of(), 0);
+
+        final String productId;
+        final Map<String, Integer> frequencies;
+        final int length;
+
+        IndexedDocument(String productId, Map<String, Integer> frequencies, int length) {
+            this.productId = productId;
+            this.frequencies = frequencies;
+            this.length = length;
+        }
+    }
+
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] frequencies = new int[4];
+        int size;
+
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        boolean remove(int doc) {
+            int index = Arrays.binarySearch(docs, 0, size, doc);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(docs, index + 1, docs, index, size - index - 1);
+            System.arraycopy(frequencies, index + 1, frequencies, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.service.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into lower-case alphanumeric terms for the product search index.
+ */
+public final class SearchTokenizer {
+
+    static final int MIN_TOKEN_LENGTH = 1;
+    static final int MAX_TOKEN_LENGTH = 40;
+
+    private SearchTokenizer() {}
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        String normalized = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean tokenChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                addToken(tokens, normalized, start, i);
+                start = -1;
+            }
+        }
+
+        return tokens;
+    }
+
+    private static void addToken(List<String> tokens, String text, int start, int end) {
+        int length = end - start;
+        if (length < MIN_TOKEN_LENGTH) {
+            return;
+        }
+        tokens.add(text.substring(start, start + Math.min(length, MAX_TOKEN_LENGTH)));
+    }
+}
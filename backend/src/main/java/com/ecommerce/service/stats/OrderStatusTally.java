@@ -0,0 +1,80 @@
+package com.ecommerce.service.stats;
+
+import com.ecommerce.entity.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Order count and summed order total per status, kept current by applying each creation and status
+ * change as a delta and replaced wholesale when reconciled against the database.
+ */
+public class OrderStatusTally {
+
+    private final long[] counts = new long[OrderStatus.values().length];
+    private final BigDecimal[] totals = new BigDecimal[OrderStatus.values().length];
+
+    public OrderStatusTally() {
+        Arrays.fill(totals, BigDecimal.ZERO);
+    }
+
+    public synchronized void add(OrderStatus status, BigDecimal total) {
+        counts[status.ordinal()]++;
+        totals[status.ordinal()] = totals[status.ordinal()].add(nonNull(total));
+    }
+
+    public synchronized void move(OrderStatus from, OrderStatus to, BigDecimal total) {
+        if (from == to) {
+            return;
+        }
+        counts[from.ordinal()]--;
+        totals[from.ordinal()] = totals[from.ordinal()].subtract(nonNull(total));
+        counts[to.ordinal()]++;
+        totals[to.ordinal()] = totals[to.ordinal()].add(nonNull(total));
+    }
+
+    /**
+     * Replaces every bucket; statuses missing from {@code buckets} are reset to zero.
+     */
+    public synchronized void replace(Map<OrderStatus, Bucket> buckets) {
+        for (OrderStatus status : OrderStatus.values()) {
+            Bucket bucket = buckets.getOrDefault(status, Bucket.EMPTY);
+            counts[status.ordinal()] = bucket.count();
+            totals[status.ordinal()] = bucket.total();
+        }
+    }
+
+    public synchronized Snapshot snapshot() {
+        Map<OrderStatus, Bucket> buckets = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            buckets.put(status, new Bucket(counts[status.ordinal()], totals[status.ordinal()]));
+        }
+        return new Snapshot(buckets);
+    }
+
+    private static BigDecimal nonNull(BigDecimal total) {
+        return total != null ? total : BigDecimal.ZERO;
+    }
+
+    public record Bucket(long count, BigDecimal total) {
+
+        public static final Bucket EMPTY = new Bucket(0, BigDecimal.ZERO);
+    }
+
+    public record Snapshot(Map<OrderStatus, Bucket> buckets) {
+
+        public long count(OrderStatus status) {
+            return buckets.get(status).count();
+        }
+
+        public BigDecimal total(OrderStatus status) {
+            return buckets.get(status).total();
+        }
+
+        public long totalCount() {
+            return buckets.values().stream().mapToLong(Bucket::count).sum();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.service.stats;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A closed {@code [start, end]} range split into the whole days that can be answered from daily rollups
+ * and the stretches that still have to be read from the raw rows: a partial first or last day, and the
+ * days the rollups do not cover yet (normally just today).
+ *
+ * @param firstDay      first rolled-up day, or null if the range has none
+ * @param lastDay       last rolled-up day, inclusive
+ * @param rawIntervals  half-open {@code [from, to)} intervals to aggregate from the raw rows
+ */
+public record RollupRange(LocalDate firstDay, LocalDate lastDay, List<Interval> rawIntervals) {
+
+    public record Interval(LocalDateTime from, LocalDateTime to) {
+    }
+
+    /**
+     * @param rolledUpBefore days before this one are fully rolled up; null if no rollup has run yet
+     */
+    public static RollupRange split(LocalDateTime start, LocalDateTime end, LocalDate rolledUpBefore) {
+        // Timestamps are stored to the microsecond, so this bound includes everything up to end
+        LocalDateTime endExclusive = end.truncatedTo(ChronoUnit.MICROS).plus(1, ChronoUnit.MICROS);
+        if (!endExclusive.isAfter(start)) {
+            return new RollupRange(null, null, List.of());
+        }
+
+        LocalDate firstFullDay = start.toLocalTime().equals(LocalTime.MIDNIGHT) ? start.toLocalDate() : start.toLocalDate().plusDays(1);
+        LocalDate rollupEnd = endExclusive.toLocalDate();
+        if (rolledUpBefore == null || rolledUpBefore.isBefore(rollupEnd)) {
+            rollupEnd = rolledUpBefore != null ? rolledUpBefore : firstFullDay;
+        }
+        if (!rollupEnd.isAfter(firstFullDay)) {
+            return new RollupRange(null, null, List.of(new Interval(start, endExclusive)));
+        }
+
+        List<Interval> raw = new ArrayList<>(2);
+        if (start.isBefore(firstFullDay.atStartOfDay())) {
+            raw.add(new Interval(start, firstFullDay.atStartOfDay()));
+        }
+        if (rollupEnd.atStartOfDay().isBefore(endExclusive)) {
+            raw.add(new Interval(rollupEnd.atStartOfDay(), endExclusive));
+        }
+        return new RollupRange(firstFullDay, rollupEnd.minusDays(1), raw);
+    }
+
+    public boolean hasRollupDays() {
+        return firstDay != null;
+    }
+}
@@ -0,0 +1,94 @@
+package com.ecommerce.util;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered 63-bit IDs: 41 bits of milliseconds since 2024-01-01, a 10-bit worker ID and a 12-bit
+ * sequence within the millisecond. Generation is a single CAS on the last (timestamp, sequence) pair, so
+ * it never locks. IDs only ever increase on one worker: when the sequence of a millisecond runs out, or
+ * the clock steps backwards, the generator keeps counting from its last timestamp instead of waiting.
+ * <p>
+ * Rendered as fixed-width Crockford base32 the IDs sort in generation order, so columns holding them are
+ * filled from the right edge of their index.
+ */
+public class SnowflakeIdGenerator {
+
+    public static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    public static final int WORKER_BITS = 10;
+    public static final long MAX_WORKER_ID = (1L << WORKER_BITS) - 1;
+    private static final int SEQUENCE_BITS = 12;
+    private static final char[] CROCKFORD_BASE32 = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    // 13 base32 digits cover 65 bits
+    private static final int ENCODED_LENGTH = 13;
+
+    private static volatile SnowflakeIdGenerator shared = new SnowflakeIdGenerator(0);
+
+    private final long workerBits;
+    private final LongSupplier clock;
+    // (milliseconds since epoch << SEQUENCE_BITS) | sequence of the last ID handed out
+    private final AtomicLong last = new AtomicLong();
+
+    public SnowflakeIdGenerator(long workerId) {
+        this(workerId, System::currentTimeMillis);
+    }
+
+    public SnowflakeIdGenerator(long workerId, LongSupplier clock) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("Worker ID must be between 0 and " + MAX_WORKER_ID + ": " + workerId);
+        }
+        this.workerBits = workerId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    /**
+     * The generator used by entities for their business identifiers; replaced at startup with one that
+     * carries the configured worker ID.
+     */
+    public static SnowflakeIdGenerator shared() {
+        return shared;
+    }
+
+    public static void setShared(SnowflakeIdGenerator generator) {
+        shared = generator;
+    }
+
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = last.get();
+            next = now > previous ? now : previous + 1;
+        } while (!last.compareAndSet(previous, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (timestamp << (WORKER_BITS + SEQUENCE_BITS)) | workerBits | sequence;
+    }
+
+    /**
+     * The next ID as {@code prefix} followed by 13 Crockford base32 digits, e.g. {@code ORD-01HV5QZ3K8M2X}.
+     */
+    public String nextId(String prefix) {
+        return prefix + encode(nextId());
+    }
+
+    public static String encode(long id) {
+        char[] digits = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            digits[i] = CROCKFORD_BASE32[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(digits);
+    }
+
+    public static long timestampMillis(long id) {
+        return (id >>> (WORKER_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    public static long workerId(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_WORKER_ID;
+    }
+}
@@ -0,0 +1,6 @@
+-- Version stamped into every access token; bumping it on password, email or role changes and on
+-- deactivation revokes the tokens issued before
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
+
+-- Nodes poll the recently changed revoked users to keep their in-memory versions current
+CREATE INDEX IF NOT EXISTS idx_users_revoked_updated_at ON users(updated_at) WHERE token_version > 0;
@@ -0,0 +1,11 @@
+-- Tokens revoked on logout, by token ID (jti); rows are deleted once the token would have expired
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    token_id VARCHAR(36) PRIMARY KEY,
+    email VARCHAR(255) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL
+);
+
+-- Nodes poll recent revocations into their Bloom filters; the prune job deletes by expiry
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_revoked_at ON revoked_tokens(revoked_at);
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
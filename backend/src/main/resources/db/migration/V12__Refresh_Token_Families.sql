@@ -0,0 +1,17 @@
+-- One row per login: the refresh token currently valid for it, replaced on every refresh.
+-- Presenting a replaced token revokes the family. Rows are deleted once the family expires.
+CREATE TABLE IF NOT EXISTS refresh_token_families (
+    family_id VARCHAR(36) PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL,
+    token_version INTEGER NOT NULL,
+    current_token_id VARCHAR(36) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_token_families_user_id ON refresh_token_families(user_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_token_families_expires_at ON refresh_token_families(expires_at);
@@ -0,0 +1,9 @@
+-- Outbox retries: a failed event waits until retry_at before the relay picks it up again, and is parked
+-- once it has failed app.outbox.max-attempts times. Parked events are never relayed; clearing parked_at
+-- and attempts puts one back in the queue.
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS retry_at TIMESTAMP;
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS parked_at TIMESTAMP;
+
+DROP INDEX IF EXISTS idx_outbox_events_pending;
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending ON outbox_events(id) WHERE processed_at IS NULL AND parked_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_outbox_events_parked_at ON outbox_events(parked_at) WHERE parked_at IS NOT NULL;
@@ -0,0 +1,30 @@
+-- Entity ids come from sequences in blocks of 50 (Hibernate pooled-lo optimizer) instead of one
+-- IDENTITY round trip per insert, which lets inserts go out as JDBC batches.
+-- Each sequence steps by the block size and restarts above the current highest id.
+
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+SELECT setval('users_id_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+
+ALTER SEQUENCE addresses_id_seq INCREMENT BY 50;
+SELECT setval('addresses_id_seq', COALESCE((SELECT MAX(id) FROM addresses), 0) + 1, false);
+
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+SELECT setval('orders_id_seq', COALESCE((SELECT MAX(id) FROM orders), 0) + 1, false);
+
+ALTER SEQUENCE order_items_id_seq INCREMENT BY 50;
+SELECT setval('order_items_id_seq', COALESCE((SELECT MAX(id) FROM order_items), 0) + 1, false);
+
+ALTER SEQUENCE cart_items_id_seq INCREMENT BY 50;
+SELECT setval('cart_items_id_seq', COALESCE((SELECT MAX(id) FROM cart_items), 0) + 1, false);
+
+ALTER SEQUENCE wishlist_items_id_seq INCREMENT BY 50;
+SELECT setval('wishlist_items_id_seq', COALESCE((SELECT MAX(id) FROM wishlist_items), 0) + 1, false);
+
+ALTER SEQUENCE product_reviews_id_seq INCREMENT BY 50;
+SELECT setval('product_reviews_id_seq', COALESCE((SELECT MAX(id) FROM product_reviews), 0) + 1, false);
+
+ALTER SEQUENCE payments_id_seq INCREMENT BY 50;
+SELECT setval('payments_id_seq', COALESCE((SELECT MAX(id) FROM payments), 0) + 1, false);
+
+ALTER SEQUENCE stock_reservations_id_seq INCREMENT BY 50;
+SELECT setval('stock_reservations_id_seq', COALESCE((SELECT MAX(id) FROM stock_reservations), 0) + 1, false);
@@ -0,0 +1,26 @@
+-- Transactional outbox: Mongo stock and sales changes written with the order transaction
+-- and applied afterwards by the relay
+
+CREATE SEQUENCE IF NOT EXISTS outbox_events_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT PRIMARY KEY DEFAULT nextval('outbox_events_id_seq'),
+    type VARCHAR(50) NOT NULL,
+    reference VARCHAR(255) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    processed_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS outbox_event_lines (
+    event_id BIGINT NOT NULL REFERENCES outbox_events(id) ON DELETE CASCADE,
+    product_id VARCHAR(255) NOT NULL,
+    stock_delta INTEGER NOT NULL,
+    sales_delta INTEGER NOT NULL
+);
+
+-- The relay only ever reads pending events, oldest first
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending ON outbox_events(id) WHERE processed_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_outbox_events_processed_at ON outbox_events(processed_at);
+CREATE INDEX IF NOT EXISTS idx_outbox_event_lines_event_id ON outbox_event_lines(event_id);
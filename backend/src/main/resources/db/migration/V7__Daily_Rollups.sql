@@ -0,0 +1,29 @@
+-- Daily order and payment rollups by creation day, status and payment method, rebuilt
+-- incrementally from the rows changed since the watermark
+
+CREATE TABLE IF NOT EXISTS daily_order_rollups (
+    day DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    payment_method VARCHAR(20) NOT NULL,
+    order_count BIGINT NOT NULL,
+    total_amount DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (day, status, payment_method)
+);
+
+CREATE TABLE IF NOT EXISTS daily_payment_rollups (
+    day DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    payment_method VARCHAR(20) NOT NULL,
+    payment_count BIGINT NOT NULL,
+    amount DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (day, status, payment_method)
+);
+
+CREATE TABLE IF NOT EXISTS rollup_watermarks (
+    name VARCHAR(100) PRIMARY KEY,
+    processed_until TIMESTAMP NOT NULL
+);
+
+-- The rollup job finds changed rows by their last update
+CREATE INDEX IF NOT EXISTS idx_orders_updated_at ON orders(updated_at);
+CREATE INDEX IF NOT EXISTS idx_payments_updated_at ON payments(updated_at);
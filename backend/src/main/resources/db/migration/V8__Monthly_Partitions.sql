@@ -0,0 +1,112 @@
+-- Monthly range partitioning of orders, order_items and payments on created_at.
+-- A partitioned table needs its partition key in every primary key and unique constraint, so:
+--   * primary keys become (id, created_at); ids still come from the table sequences and stay unique
+--   * order_number and payment_reference are unique together with created_at; both are time-ordered
+--     generated identifiers, so the same value cannot appear in two different months
+--   * foreign keys that point at orders(id) are dropped; order ownership is kept by the application.
+--     This includes V3's stock_reservations.order_id REFERENCES orders(id) ON DELETE CASCADE, which the
+--     DROP ... CASCADE of the old orders table removes, so the reservations of an archived month are
+--     deleted by PartitionMaintenanceService instead
+-- Future partitions and archival of cold ones are handled by PartitionMaintenanceService.
+
+-- Creates the missing monthly partitions of parent from from_month up to months_ahead months from now.
+-- Rows of a month that reached the default partition before its own partition existed are moved into
+-- the new partition; a plain CREATE ... PARTITION OF would fail for as long as they stay there.
+CREATE OR REPLACE FUNCTION create_monthly_partitions(parent TEXT, from_month DATE, months_ahead INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    m DATE := date_trunc('month', from_month)::date;
+    last_month DATE := (date_trunc('month', CURRENT_DATE) + make_interval(months => months_ahead))::date;
+    default_name TEXT := parent || '_default';
+    part_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    WHILE m <= last_month LOOP
+        part_name := parent || '_' || to_char(m, 'YYYY_MM');
+        IF to_regclass(part_name) IS NULL AND to_regclass(default_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                           part_name, parent, m, (m + INTERVAL '1 month')::date);
+            created := created + 1;
+        ELSIF to_regclass(part_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part_name, parent);
+            EXECUTE format('WITH moved AS (DELETE FROM %I WHERE created_at >= %L AND created_at < %L RETURNING *) ' ||
+                           'INSERT INTO %I SELECT * FROM moved',
+                           default_name, m, (m + INTERVAL '1 month')::date, part_name);
+            EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                           parent, part_name, m, (m + INTERVAL '1 month')::date);
+            created := created + 1;
+        END IF;
+        m := (m + INTERVAL '1 month')::date;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Monthly partitions of parent whose whole month lies before cutoff, oldest first
+CREATE OR REPLACE FUNCTION monthly_partitions_before(parent TEXT, cutoff DATE)
+RETURNS SETOF TEXT AS $$
+    SELECT c.relname::text
+    FROM pg_inherits i
+    JOIN pg_class c ON c.oid = i.inhrelid
+    JOIN pg_class p ON p.oid = i.inhparent
+    WHERE p.relname = parent
+      AND c.relname ~ '_[0-9]{4}_[0-9]{2}$'
+      AND to_date(right(c.relname, 7), 'YYYY_MM') + INTERVAL '1 month' <= cutoff
+    ORDER BY c.relname
+$$ LANGUAGE sql STABLE;
+
+-- Swaps an unpartitioned table for a partitioned copy with the same columns, data and id sequence
+CREATE OR REPLACE FUNCTION convert_to_monthly_partitions(tbl TEXT)
+RETURNS VOID AS $$
+DECLARE
+    old_tbl TEXT := tbl || '_unpartitioned';
+    seq TEXT := tbl || '_id_seq';
+    first_month DATE;
+BEGIN
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', tbl, old_tbl);
+    EXECUTE format('ALTER SEQUENCE %I OWNED BY NONE', seq);
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS) PARTITION BY RANGE (created_at)', tbl, old_tbl);
+
+    EXECUTE format('SELECT MIN(created_at)::date FROM %I', old_tbl) INTO first_month;
+    PERFORM create_monthly_partitions(tbl, COALESCE(first_month, CURRENT_DATE), 3);
+    -- Catches rows outside the created months instead of failing the insert; create_monthly_partitions
+    -- moves them out once their month's partition is created
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', tbl || '_default', tbl);
+
+    EXECUTE format('INSERT INTO %I SELECT * FROM %I', tbl, old_tbl);
+    -- CASCADE also drops the foreign keys that point at the old table, see the header
+    EXECUTE format('DROP TABLE %I CASCADE', old_tbl);
+    EXECUTE format('ALTER SEQUENCE %I OWNED BY %I.id', seq, tbl);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Orders
+SELECT convert_to_monthly_partitions('orders');
+ALTER TABLE orders ADD PRIMARY KEY (id, created_at);
+ALTER TABLE orders ADD CONSTRAINT orders_order_number_key UNIQUE (order_number, created_at);
+ALTER TABLE orders ADD CONSTRAINT orders_user_id_fkey FOREIGN KEY (user_id) REFERENCES users(id);
+
+CREATE INDEX IF NOT EXISTS idx_orders_user_id_created_at ON orders(user_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_orders_status ON orders(status);
+CREATE INDEX IF NOT EXISTS idx_orders_payment_status ON orders(payment_status);
+CREATE INDEX IF NOT EXISTS idx_orders_created_at ON orders(created_at);
+CREATE INDEX IF NOT EXISTS idx_orders_updated_at ON orders(updated_at);
+
+-- Order items
+SELECT convert_to_monthly_partitions('order_items');
+ALTER TABLE order_items ADD PRIMARY KEY (id, created_at);
+
+CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items(order_id);
+CREATE INDEX IF NOT EXISTS idx_order_items_product_id ON order_items(product_id);
+
+-- Payments
+SELECT convert_to_monthly_partitions('payments');
+ALTER TABLE payments ADD PRIMARY KEY (id, created_at);
+ALTER TABLE payments ADD CONSTRAINT payments_payment_reference_key UNIQUE (payment_reference, created_at);
+
+CREATE INDEX IF NOT EXISTS idx_payments_order_id ON payments(order_id);
+CREATE INDEX IF NOT EXISTS idx_payments_status ON payments(status);
+CREATE INDEX IF NOT EXISTS idx_payments_created_at ON payments(created_at);
+CREATE INDEX IF NOT EXISTS idx_payments_updated_at ON payments(updated_at);
+
+DROP FUNCTION convert_to_monthly_partitions(TEXT);
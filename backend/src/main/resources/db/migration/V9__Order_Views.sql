@@ -0,0 +1,14 @@
+-- Order read model: one JSON summary per order with its items and addresses, rewritten on every change.
+-- Rows for existing orders are filled in by the OrderViewService catch-up job.
+CREATE TABLE IF NOT EXISTS order_views (
+    order_id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    order_number VARCHAR(255) NOT NULL,
+    summary JSONB NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+-- Order history: one user's orders, newest first
+CREATE INDEX IF NOT EXISTS idx_order_views_user_created ON order_views(user_id, created_at DESC, order_id DESC);
+CREATE INDEX IF NOT EXISTS idx_order_views_order_number ON order_views(order_number);
@@ -0,0 +1,164 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCacheTest {
+
+    private final AtomicLong time = new AtomicLong();
+    private BoundedCache cache;
+
+    @BeforeEach
+    void setUp() {
+        CacheProperties.Spec spec = new CacheProperties.Spec();
+        spec.setMaximumWeight(100L);
+        spec.setExpireAfterWrite(Duration.ofMinutes(10));
+        spec.setRefreshAfterWrite(Duration.ofMinutes(1));
+        cache = new BoundedCache("products", spec, null, time::get);
+    }
+
+    @Test
+    void testRefreshHandsOneReaderAMissAndKeepsServingOthers() {
+        cache.put("featured-0", "v1");
+        advance(2);
+
+        assertNull(cache.get("featured-0"), "first reader past the refresh age reloads");
+        Cache.ValueWrapper stale = cache.get("featured-0");
+        assertNotNull(stale);
+        assertEquals("v1", stale.get());
+
+        cache.put("featured-0", "v2");
+
+        assertEquals("v2", cache.get("featured-0").get());
+    }
+
+    @Test
+    void testLoaderRefreshesInTheCallingThread() {
+        assertEquals("v1", cache.get("best-selling-0", () -> "v1"));
+        assertEquals("v1", cache.get("best-selling-0", () -> "unused"));
+
+        advance(2);
+
+        assertEquals("v2", cache.get("best-selling-0", () -> "v2"));
+    }
+
+    @Test
+    void testConcurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = IntStream.range(0, 8)
+                    .mapToObj(i -> pool.submit(() -> cache.get("featured-0", () -> {
+                        loads.incrementAndGet();
+                        release.await();
+                        return "loaded";
+                    })))
+                    .toList();
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("loaded", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSlowEntriesRefreshEarlyNearExpiry() {
+        CacheProperties.Spec spec = new CacheProperties.Spec();
+        spec.setExpireAfterWrite(Duration.ofMinutes(10));
+        spec.setEarlyRefreshBeta(1_000_000.0);
+        BoundedCache eager = new BoundedCache("products", spec, null, time::get);
+
+        eager.get("best-selling-0", () -> {
+            advance(1);
+            return "v1";
+        });
+
+        assertEquals("v2", eager.get("best-selling-0", () -> "v2"));
+
+        spec.setEarlyRefreshBeta(0.0);
+        BoundedCache lazy = new BoundedCache("products", spec, null, time::get);
+        lazy.get("best-selling-0", () -> {
+            advance(1);
+            return "v1";
+        });
+
+        assertEquals("v1", lazy.get("best-selling-0", () -> "v2"));
+    }
+
+    @Test
+    void testEntriesExpireAfterWrite() {
+        cache.put("product-1", "value");
+        advance(11);
+
+        assertNull(cache.get("product-1"));
+    }
+
+    @Test
+    void testWeightIsBoundedByElementCount() {
+        IntStream.range(0, 20).forEach(i -> cache.put("page-" + i, List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)));
+        cache.getNativeCache().cleanUp();
+
+        long weight = cache.getNativeCache().policy().eviction().orElseThrow().weightedSize().orElseThrow();
+        assertTrue(weight <= 100, "weighted size " + weight);
+    }
+
+    @Test
+    void testProductWriteEvictsOnlyAffectedEntries() {
+        BoundedCache products = new BoundedCache("products", new CacheProperties.Spec(), ProductCacheTags.productsTagger(), time::get);
+        Product phone = product("p1", "Electronics");
+        Product ball = product("p2", "Sports");
+        products.put("p1", Optional.of(phone));
+        products.put("category-Electronics-0", List.of(phone));
+        products.put("category-Sports-0", List.of(ball));
+        products.put("featured-0", List.of(ball));
+
+        ProductCacheTags.State before = ProductCacheTags.State.of(phone);
+        phone.setCategory("Home-Garden");
+        products.evictTags(ProductCacheTags.changed(before, ProductCacheTags.State.of(phone)));
+
+        assertNull(products.get("p1"));
+        assertNull(products.get("category-Electronics-0"));
+        assertNotNull(products.get("category-Sports-0"));
+        assertNotNull(products.get("featured-0"));
+
+        products.put("category-Home-Garden-0", List.of());
+        ProductCacheTags.State moved = ProductCacheTags.State.of(product("p3", "Home-Garden"));
+        products.evictTags(ProductCacheTags.changed(null, moved));
+
+        assertNull(products.get("category-Home-Garden-0"));
+        assertNotNull(products.get("category-Sports-0"));
+    }
+
+    private Product product(String id, String category) {
+        Product product = new Product("Product " + id, "Description", BigDecimal.TEN, category, "Acme", "SKU-" + id);
+        product.setId(id);
+        return product;
+    }
+
+    private void advance(long minutes) {
+        time.addAndGet(TimeUnit.MINUTES.toNanos(minutes));
+    }
+}
@@ -0,0 +1,158 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TwoLevelCacheTest {
+
+    private Cache nodeA;
+    private Cache nodeB;
+
+    @BeforeEach
+    void setUp() {
+        InProcessRedis redis = new InProcessRedis();
+        nodeA = node(redis).getCache("products");
+        nodeB = node(redis).getCache("products");
+    }
+
+    @Test
+    void testLocalMissReadsThroughToSharedStore() {
+        Product product = product("p1", "Electronics");
+        nodeA.put("p1", product);
+
+        Product fromB = nodeB.get("p1", () -> fail("node B should not reload"));
+
+        assertEquals("p1", fromB.getId());
+    }
+
+    @Test
+    void testEvictionOnOneNodeReachesTheOthers() {
+        nodeA.get("featured-0", () -> List.of(product("p1", "Electronics")));
+        nodeB.get("featured-0", () -> fail("node B should read node A's entry"));
+
+        nodeA.evict("featured-0");
+
+        assertEquals(List.of(), nodeB.get("featured-0", List::of));
+    }
+
+    @Test
+    void testTagEvictionIsBroadcast() {
+        nodeA.get("category-Electronics-0", () -> List.of(product("p1", "Electronics")));
+        nodeB.get("category-Electronics-0", () -> fail("node B should read node A's entry"));
+        nodeB.get("category-Sports-0", () -> List.of(product("p2", "Sports")));
+
+        ((BoundedCache) nodeA).evictTags(Set.of(ProductCacheTags.product("p1")));
+
+        assertNull(nodeB.get("category-Electronics-0"));
+        assertNotNull(nodeB.get("category-Sports-0"));
+    }
+
+    private BoundedCacheManager node(InProcessRedis redis) {
+        CacheProperties properties = new CacheProperties();
+        properties.getDefaults().setExpireAfterWrite(Duration.ofMinutes(10));
+        BoundedCacheManager manager = new BoundedCacheManager(properties, List.of("products"), null)
+                .withTagger("products", ProductCacheTags.productsTagger())
+                .withRemote(redis, redis);
+        manager.afterPropertiesSet();
+        return manager;
+    }
+
+    private Product product(String id, String category) {
+        Product product = new Product("Product " + id, "Description", BigDecimal.TEN, category, "Acme", "SKU-" + id);
+        product.setId(id);
+        return product;
+    }
+
+    // Serializes values like Redis would and delivers pub/sub messages synchronously
+    static class InProcessRedis implements RemoteCacheStore, CacheInvalidationBus {
+
+        private final Map<String, byte[]> entries = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> tags = new ConcurrentHashMap<>();
+        private final List<Consumer<CacheInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Entry get(String cacheName, String key) {
+            byte[] bytes = entries.get(cacheName + ":" + key);
+            return bytes == null ? null : (Entry) deserialize(bytes);
+        }
+
+        @Override
+        public void put(String cacheName, String key, Entry entry, Duration ttl, Set<String> entryTags) {
+            entries.put(cacheName + ":" + key, serialize(entry));
+            entryTags.forEach(tag -> tags.computeIfAbsent(cacheName + ":" + tag, t -> new HashSet<>()).add(cacheName + ":" + key));
+        }
+
+        @Override
+        public void evict(String cacheName, String key) {
+            entries.remove(cacheName + ":" + key);
+        }
+
+        @Override
+        public void evictTags(String cacheName, Collection<String> evicted) {
+            evicted.forEach(tag -> {
+                Set<String> keys = tags.remove(cacheName + ":" + tag);
+                if (keys != null) {
+                    keys.forEach(entries::remove);
+                }
+            });
+        }
+
+        @Override
+        public void clear(String cacheName) {
+            entries.keySet().removeIf(key -> key.startsWith(cacheName + ":"));
+        }
+
+        @Override
+        public void publish(CacheInvalidation invalidation) {
+            CacheInvalidation received = (CacheInvalidation) deserialize(serialize(invalidation));
+            listeners.forEach(listener -> listener.accept(received));
+        }
+
+        @Override
+        public void subscribe(Consumer<CacheInvalidation> listener) {
+            listeners.add(listener);
+        }
+
+        private static byte[] serialize(Object value) {
+            try (ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                 ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(value);
+                out.flush();
+                return bytes.toByteArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static Object deserialize(byte[] bytes) {
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                return in.readObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.entity.Address;
+import com.ecommerce.entity.AddressInfo;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OrderItem;
+import com.ecommerce.entity.User;
+import com.ecommerce.entity.enums.OrderStatus;
+import com.ecommerce.entity.enums.PaymentMethod;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderSummaryTest {
+
+    @Test
+    void testFromOrderCopiesTotalsItemsAndAddresses() {
+        OrderItem item = new OrderItem("p-1", "Lamp", "LAMP-1", 2, new BigDecimal("15.00"));
+        item.setSelectedVariants(Map.of("color", "red"));
+
+        OrderSummary summary = OrderSummary.fromOrder(order(), List.of(item));
+
+        assertEquals(7L, summary.getUserId());
+        assertEquals(new BigDecimal("30.00"), summary.getSubtotal());
+        assertEquals(2, summary.getTotalItems());
+        assertEquals("Lamp", summary.getItems().get(0).getProductName());
+        assertEquals("red", summary.getItems().get(0).getSelectedVariants().get("color"));
+        assertEquals("Springfield", summary.getShippingAddress().getCity());
+    }
+
+    @Test
+    void testJsonRoundTripIgnoresDerivedAddressProperties() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        OrderSummary summary = OrderSummary.fromOrder(order(), List.of());
+
+        String json = objectMapper.writeValueAsString(summary);
+        OrderSummary read = objectMapper.readValue(json, OrderSummary.class);
+
+        assertTrue(json.contains("fullAddress"));
+        assertEquals(json, objectMapper.writeValueAsString(read));
+    }
+
+    private static Order order() {
+        User user = new User();
+        user.setId(7L);
+        Order order = new Order(user, new BigDecimal("30.00"), new BigDecimal("3.00"), BigDecimal.ZERO, PaymentMethod.CARD);
+        order.setId(42L);
+        order.setOrderNumber("ORD-TEST");
+        order.updateStatus(OrderStatus.CONFIRMED);
+        order.setShippingAddress(new AddressInfo(new Address("Ann", "1 Main St", "Springfield", "IL", "62701", "US")));
+        order.setCreatedAt(LocalDateTime.of(2024, 6, 1, 10, 0));
+        return order;
+    }
+}
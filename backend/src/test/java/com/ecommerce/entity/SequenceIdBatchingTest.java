@@ -0,0 +1,145 @@
+package com.ecommerce.entity;
+
+import com.ecommerce.entity.enums.PaymentMethod;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.internal.DatasourceConnectionProviderImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequenceIdBatchingTest {
+
+    // One entry per statement execution, i.e. per database round trip
+    private final List<String> executions = new CopyOnWriteArrayList<>();
+    private SessionFactory sessionFactory;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:batching;DB_CLOSE_DELAY=-1");
+
+        // The native bootstrap only reads a DataSource from the deprecated hibernate.connection.datasource
+        // setting, so hand it over through the connection provider instead
+        DatasourceConnectionProviderImpl connectionProvider = new DatasourceConnectionProviderImpl();
+        connectionProvider.setDataSource(countingDataSource(h2));
+
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.CONNECTION_PROVIDER, connectionProvider)
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .applySetting(AvailableSettings.JAKARTA_VALIDATION_MODE, "none")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, 50)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .applySetting(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo")
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClasses(User.class, Address.class, CartItem.class, WishlistItem.class, ProductReview.class,
+                        Order.class, OrderItem.class, Payment.class, StockReservation.class)
+                .buildMetadata()
+                .buildSessionFactory();
+        executions.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void testOrderItemsAreInsertedInJdbcBatches() {
+        sessionFactory.inTransaction(session -> {
+            User user = new User("Jane", "Smith", "jane.smith@example.com", "secret");
+            user.setCreatedAt(LocalDateTime.now());
+            session.persist(user);
+
+            Order order = new Order(user, new BigDecimal("1200.00"), BigDecimal.ZERO, BigDecimal.ZERO, PaymentMethod.CARD);
+            order.setCreatedAt(LocalDateTime.now());
+            session.persist(order);
+
+            for (int i = 0; i < 120; i++) {
+                OrderItem item = new OrderItem("prod_" + i, "Product " + i, "SKU-" + i, 1, BigDecimal.TEN);
+                item.setOrder(order);
+                item.setCreatedAt(LocalDateTime.now());
+                session.persist(item);
+            }
+        });
+
+        // 120 rows in batches of 50, with ids drawn from the sequence 50 at a time
+        assertEquals(3, count("insert into order_items"));
+        assertEquals(3, count("order_items_id_seq"));
+        assertEquals(1, count("insert into orders"));
+        assertEquals(1, count("insert into users"));
+        assertEquals(10, executions.size());
+    }
+
+    @Test
+    void testSequenceBlocksAreSharedAcrossTransactions() {
+        for (int i = 0; i < 3; i++) {
+            int n = i;
+            sessionFactory.inTransaction(session -> {
+                User user = new User("User", "Number" + n, "user" + n + "@example.com", "secret");
+                user.setCreatedAt(LocalDateTime.now());
+                session.persist(user);
+            });
+        }
+
+        assertEquals(1, count("users_id_seq"));
+        assertEquals(3, count("insert into users"));
+    }
+
+    private long count(String fragment) {
+        return executions.stream().filter(sql -> sql.contains(fragment)).count();
+    }
+
+    // Records the SQL of every execute call made through the data source
+    private DataSource countingDataSource(DataSource target) {
+        return proxy(DataSource.class, target, (result, method, args) ->
+                result instanceof Connection connection ? proxy(Connection.class, connection, (statement, m, a) ->
+                        statement instanceof PreparedStatement prepared && m.getName().equals("prepareStatement")
+                                ? countingStatement(prepared, (String) a[0])
+                                : statement)
+                        : result);
+    }
+
+    private PreparedStatement countingStatement(PreparedStatement target, String sql) {
+        return proxy(PreparedStatement.class, target, (result, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                executions.add(sql.toLowerCase(Locale.ROOT));
+            }
+            return result;
+        });
+    }
+
+    private interface ResultDecorator {
+        Object decorate(Object result, Method method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, ResultDecorator decorator) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+            try {
+                return decorator.decorate(method.invoke(target, args), method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void testEncodesAndMatchesOnThePool() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, null);
+        try {
+            String hash = encoder.encode("secret");
+
+            assertTrue(encoder.matches("secret", hash));
+            assertFalse(encoder.matches("other", hash));
+        } finally {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void testRejectsOnceTheQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 1, 1, null);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> encoder.encode("running"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            callers.submit(() -> encoder.encode("queued"));
+            waitForQueued(encoder);
+
+            assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("rejected"));
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void testRecommendedStrengthDoublesPerCostStep() {
+        assertEquals(8, BoundedPasswordEncoder.recommendedStrength(Duration.ofMillis(20), 8, Duration.ofMillis(20)));
+        assertEquals(10, BoundedPasswordEncoder.recommendedStrength(Duration.ofMillis(20), 8, Duration.ofMillis(80)));
+        assertEquals(7, BoundedPasswordEncoder.recommendedStrength(Duration.ofMillis(20), 8, Duration.ofMillis(10)));
+        assertEquals(4, BoundedPasswordEncoder.recommendedStrength(Duration.ofMillis(20), 8, Duration.ofNanos(1)));
+        assertEquals(31, BoundedPasswordEncoder.recommendedStrength(Duration.ofNanos(1), 8, Duration.ofHours(1)));
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+    }
+
+    private static void waitForQueued(BoundedPasswordEncoder encoder) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (encoder.getQueuedHashes() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, encoder.getQueuedHashes());
+    }
+}
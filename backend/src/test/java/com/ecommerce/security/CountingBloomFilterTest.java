@@ -0,0 +1,64 @@
+package com.ecommerce.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountingBloomFilterTest {
+
+    @Test
+    void testAddedElementsAreAlwaysFound() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.add(TokenRevocationList.hash("token-" + i));
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(filter.mightContain(TokenRevocationList.hash("token-" + i)));
+        }
+    }
+
+    @Test
+    void testFalsePositiveRateStaysNearTarget() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(TokenRevocationList.hash("revoked-" + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(TokenRevocationList.hash("live-" + i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void testRemovedElementsAreNoLongerFound() {
+        CountingBloomFilter filter = new CountingBloomFilter(100, 0.01);
+        long kept = TokenRevocationList.hash("kept");
+        long removed = TokenRevocationList.hash("removed");
+        filter.add(kept);
+        filter.add(removed);
+
+        filter.remove(removed);
+
+        assertTrue(filter.mightContain(kept));
+        assertFalse(filter.mightContain(removed));
+    }
+
+    @Test
+    void testSaturatedCountersAreNeverDecremented() {
+        CountingBloomFilter filter = new CountingBloomFilter(100, 0.01);
+        long hash = TokenRevocationList.hash("hot");
+        for (int i = 0; i < 20; i++) {
+            filter.add(hash);
+        }
+        for (int i = 0; i < 20; i++) {
+            filter.remove(hash);
+        }
+
+        assertTrue(filter.mightContain(hash));
+    }
+}
@@ -0,0 +1,100 @@
+package com.ecommerce.security;
+
+import com.ecommerce.entity.enums.Role;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-1234";
+
+    @Test
+    void testParseReturnsClaimsAndCachesVerifiedToken() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 120_000, 100);
+        String token = provider.generateToken(authentication("ann@example.com"));
+
+        Optional<Claims> first = provider.parseToken(token);
+        Optional<Claims> second = provider.parseToken(token);
+
+        assertTrue(first.isPresent());
+        assertEquals("ann@example.com", first.get().getSubject());
+        assertSame(first.get(), second.get());
+        assertEquals("ann@example.com", provider.getEmailFromToken(token));
+    }
+
+    @Test
+    void testTamperedAndForeignTokensAreRejected() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 120_000, 100);
+        JwtTokenProvider other = new JwtTokenProvider(SECRET.replace('1', '9'), 60_000, 120_000, 100);
+        String token = provider.generateToken(authentication("ann@example.com"));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertFalse(provider.validateToken(tampered));
+        assertFalse(provider.validateToken(other.generateToken(authentication("ann@example.com"))));
+        assertFalse(provider.validateToken(""));
+        assertFalse(provider.validateToken(null));
+    }
+
+    @Test
+    void testPrincipalIsRebuiltFromClaims() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 120_000, 100);
+        com.ecommerce.entity.User user = new com.ecommerce.entity.User("Ann", "Lee", "ann@example.com", "secret");
+        user.setId(12L);
+        user.setRole(Role.ADMIN);
+        user.setTokenVersion(3);
+        String token = provider.generateToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+
+        Claims claims = provider.parseToken(token).orElseThrow();
+        AuthenticatedUser principal = provider.getPrincipal(claims).orElseThrow();
+
+        assertEquals(new AuthenticatedUser(12L, "ann@example.com", Role.ADMIN), principal);
+        assertEquals("ROLE_ADMIN", principal.getAuthorities().iterator().next().getAuthority());
+        assertEquals(3, claims.get(JwtTokenProvider.CLAIM_TOKEN_VERSION, Integer.class));
+        assertEquals(Boolean.TRUE, claims.get(JwtTokenProvider.CLAIM_ACTIVE, Boolean.class));
+    }
+
+    @Test
+    void testTokensWithoutUserClaimsHaveNoPrincipal() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 120_000, 100);
+
+        Claims claims = provider.parseToken(provider.generateVerificationToken("ann@example.com")).orElseThrow();
+
+        assertTrue(provider.getPrincipal(claims).isEmpty());
+    }
+
+    @Test
+    void testEmailedTokensCarryTheirPurpose() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 120_000, 100);
+
+        Claims verification = provider.parseToken(provider.generateVerificationToken("ann@example.com")).orElseThrow();
+        Claims reset = provider.parseToken(provider.generatePasswordResetToken("ann@example.com")).orElseThrow();
+        Claims access = provider.parseToken(provider.generateToken(authentication("ann@example.com"))).orElseThrow();
+
+        assertTrue(provider.isPurposeToken(verification));
+        assertTrue(provider.hasPurpose(verification, JwtTokenProvider.PURPOSE_VERIFY_EMAIL));
+        assertFalse(provider.hasPurpose(verification, JwtTokenProvider.PURPOSE_RESET_PASSWORD));
+        assertTrue(provider.hasPurpose(reset, JwtTokenProvider.PURPOSE_RESET_PASSWORD));
+        assertFalse(provider.isPurposeToken(access));
+        assertFalse(provider.hasPurpose(access, JwtTokenProvider.PURPOSE_RESET_PASSWORD));
+    }
+
+    @Test
+    void testExpiredTokenIsRejected() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, -1_000, 120_000, 100);
+
+        assertTrue(provider.parseToken(provider.generateToken(authentication("ann@example.com"))).isEmpty());
+    }
+
+    private static Authentication authentication(String email) {
+        UserDetails user = User.withUsername(email).password("secret").roles("USER").build();
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+}
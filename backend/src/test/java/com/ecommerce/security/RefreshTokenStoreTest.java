@@ -0,0 +1,172 @@
+package com.ecommerce.security;
+
+import com.ecommerce.dto.TokenResponse;
+import com.ecommerce.entity.RefreshTokenFamily;
+import com.ecommerce.entity.User;
+import com.ecommerce.entity.enums.Role;
+import com.ecommerce.repository.RefreshTokenFamilyRepository;
+import com.ecommerce.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshTokenStoreTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-1234";
+
+    private final JwtTokenProvider tokenProvider = new JwtTokenProvider(SECRET, 60_000, 120_000, 100);
+    private final FamilyTable table = new FamilyTable();
+
+    @Test
+    void testRotationIssuesNewTokensAndRetiresThePresentedOne() {
+        RefreshTokenStore store = node();
+        String first = store.issue(user());
+
+        TokenResponse rotated = store.rotate(claims(first)).orElseThrow();
+        Claims access = claims(rotated.getAccessToken());
+        Claims next = claims(rotated.getRefreshToken());
+
+        assertFalse(tokenProvider.isRefreshToken(access));
+        assertEquals(new AuthenticatedUser(12L, "ann@example.com", Role.USER), tokenProvider.getPrincipal(access).orElseThrow());
+        assertEquals(claims(first).get(JwtTokenProvider.CLAIM_FAMILY), next.get(JwtTokenProvider.CLAIM_FAMILY));
+        assertEquals(next.getId(), table.current(next));
+        assertTrue(store.rotate(next).isPresent());
+    }
+
+    @Test
+    void testReusingARetiredTokenRevokesTheFamily() {
+        RefreshTokenStore store = node();
+        String first = store.issue(user());
+        String second = store.rotate(claims(first)).orElseThrow().getRefreshToken();
+
+        assertTrue(store.rotate(claims(first)).isEmpty());
+
+        assertTrue(table.isRevoked(claims(first)));
+        assertTrue(store.rotate(claims(second)).isEmpty());
+    }
+
+    @Test
+    void testTokenRotatedOnAnotherNodeIsReuseDespiteAStaleIndex() {
+        RefreshTokenStore nodeA = node();
+        RefreshTokenStore nodeB = node();
+        String first = nodeA.issue(user());
+        String second = nodeB.rotate(claims(first)).orElseThrow().getRefreshToken();
+
+        // Node A's index still holds the first token as current; only the table's compare-and-set can tell
+        assertTrue(nodeA.rotate(claims(first)).isEmpty());
+
+        assertTrue(table.isRevoked(claims(first)));
+        assertTrue(nodeB.rotate(claims(second)).isEmpty());
+    }
+
+    @Test
+    void testRevokedFamilyCannotBeRotated() {
+        RefreshTokenStore store = node();
+        String first = store.issue(user());
+
+        assertTrue(store.revoke(claims(first)));
+
+        assertTrue(store.rotate(claims(first)).isEmpty());
+    }
+
+    private RefreshTokenStore node() {
+        TokenVersionRegistry registry = new TokenVersionRegistry(proxy(UserRepository.class, (name, args) ->
+                name.equals("findTokenVersionsUpdatedSince") ? List.of() : unsupported(name)), Duration.ofMinutes(1));
+        return new RefreshTokenStore(proxy(RefreshTokenFamilyRepository.class, table::invoke), tokenProvider, registry, 4, 100);
+    }
+
+    private Claims claims(String token) {
+        return tokenProvider.parseToken(token).orElseThrow();
+    }
+
+    private static User user() {
+        User user = new User("Ann", "Lee", "ann@example.com", "secret");
+        user.setId(12L);
+        user.setRole(Role.USER);
+        return user;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> handler.invoke(method.getName(), args));
+    }
+
+    private static Object unsupported(String name) {
+        throw new UnsupportedOperationException(name);
+    }
+
+    private interface Handler {
+        Object invoke(String name, Object[] args);
+    }
+
+    // The refresh_token_families table shared by every node; reads return copies, as separate sessions would
+    private static class FamilyTable {
+        private final Map<String, RefreshTokenFamily> rows = new HashMap<>();
+
+        synchronized Object invoke(String name, Object[] args) {
+            switch (name) {
+                case "save" -> {
+                    RefreshTokenFamily family = (RefreshTokenFamily) args[0];
+                    rows.put(family.getFamilyId(), copy(family));
+                    return family;
+                }
+                case "findById" -> {
+                    return Optional.ofNullable(rows.get((String) args[0])).map(FamilyTable::copy);
+                }
+                case "rotate" -> {
+                    RefreshTokenFamily row = rows.get((String) args[0]);
+                    if (row == null || !row.getCurrentTokenId().equals(args[1]) || row.getRevokedAt() != null) {
+                        return 0;
+                    }
+                    row.setCurrentTokenId((String) args[2]);
+                    row.setExpiresAt((LocalDateTime) args[3]);
+                    return 1;
+                }
+                case "revoke" -> {
+                    RefreshTokenFamily row = rows.get((String) args[0]);
+                    if (row == null || row.getRevokedAt() != null) {
+                        return 0;
+                    }
+                    row.setRevokedAt((LocalDateTime) args[1]);
+                    return 1;
+                }
+                default -> {
+                    return unsupported(name);
+                }
+            }
+        }
+
+        synchronized String current(Claims claims) {
+            return rows.get(claims.get(JwtTokenProvider.CLAIM_FAMILY, String.class)).getCurrentTokenId();
+        }
+
+        synchronized boolean isRevoked(Claims claims) {
+            return rows.get(claims.get(JwtTokenProvider.CLAIM_FAMILY, String.class)).getRevokedAt() != null;
+        }
+
+        private static RefreshTokenFamily copy(RefreshTokenFamily family) {
+            RefreshTokenFamily copy = new RefreshTokenFamily();
+            copy.setFamilyId(family.getFamilyId());
+            copy.setUserId(family.getUserId());
+            copy.setEmail(family.getEmail());
+            copy.setRole(family.getRole());
+            copy.setTokenVersion(family.getTokenVersion());
+            copy.setCurrentTokenId(family.getCurrentTokenId());
+            copy.setExpiresAt(family.getExpiresAt());
+            copy.setRevokedAt(family.getRevokedAt());
+            copy.setCreatedAt(family.getCreatedAt());
+            copy.setUpdatedAt(family.getUpdatedAt());
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.OutboxEvent;
+import com.ecommerce.entity.StockDelta;
+import com.ecommerce.entity.enums.OutboxEventType;
+import com.ecommerce.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxServiceTest {
+
+    private final List<OutboxEvent> events = new ArrayList<>();
+    private final List<Long> applied = new ArrayList<>();
+    // Events whose lines cannot be applied, e.g. because they name a product that no longer exists
+    private final Set<Long> poisoned = Set.of(2L);
+    private final OutboxService outboxService = new OutboxService(repository(), stockService(), 3, Duration.ZERO);
+
+    @Test
+    void testBadEventDoesNotHoldBackTheBatch() {
+        addEvents(3);
+
+        int relayed = outboxService.relayBatch(10);
+
+        assertEquals(2, relayed);
+        assertEquals(List.of(1L, 3L), applied);
+        assertTrue(events.get(0).isProcessed());
+        assertFalse(events.get(1).isProcessed());
+        assertEquals(1, events.get(1).getAttempts());
+        assertFalse(events.get(1).isParked());
+        assertTrue(events.get(2).isProcessed());
+    }
+
+    @Test
+    void testEventIsParkedAfterMaxAttempts() {
+        addEvents(2);
+
+        for (int run = 0; run < 5; run++) {
+            outboxService.relayBatch(10);
+        }
+
+        OutboxEvent bad = events.get(1);
+        assertEquals(3, bad.getAttempts());
+        assertTrue(bad.isParked());
+        assertFalse(bad.isProcessed());
+        assertEquals(0, outboxService.relayBatch(10));
+    }
+
+    private void addEvents(int count) {
+        for (long id = 1; id <= count; id++) {
+            OutboxEvent event = new OutboxEvent(OutboxEventType.STOCK_ADJUSTMENT, "order:" + id,
+                    List.of(new StockDelta("p" + id, -1, 1)));
+            event.setId(id);
+            events.add(event);
+        }
+    }
+
+    // Applies a batch only if none of its events is poisoned, like a bulk write that reports an error
+    private StockService stockService() {
+        return new StockService(null, null) {
+            @Override
+            public void applyAdjustments(Map<Long, List<StockDelta>> linesByEvent) {
+                if (linesByEvent.keySet().stream().anyMatch(poisoned::contains)) {
+                    throw new IllegalStateException("Product not found");
+                }
+                applied.addAll(linesByEvent.keySet());
+            }
+        };
+    }
+
+    private OutboxEventRepository repository() {
+        return (OutboxEventRepository) Proxy.newProxyInstance(OutboxEventRepository.class.getClassLoader(),
+                new Class<?>[] {OutboxEventRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findPendingForUpdate" -> events.stream()
+                            .filter(event -> !event.isProcessed() && !event.isParked())
+                            .filter(event -> event.getRetryAt() == null || !event.getRetryAt().isAfter((LocalDateTime) args[0]))
+                            .toList();
+                    case "saveAll" -> args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,187 @@
+package com.ecommerce.service.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyGateTest {
+
+    private final InMemoryStore store = new InMemoryStore();
+    private final IdempotencyGate gate = gate(store, Duration.ofSeconds(5));
+
+    @Test
+    void testCompletedResponseIsReplayedFromMemory() {
+        assertEquals(IdempotencyGate.Outcome.PROCEED, gate.begin("k", "body").outcome());
+        gate.complete("k", "body", 201, "application/json", bytes("created"));
+
+        IdempotencyGate.Decision replay = gate.begin("k", "body");
+
+        assertEquals(IdempotencyGate.Outcome.REPLAY, replay.outcome());
+        assertEquals(201, replay.response().status());
+        assertArrayEquals(bytes("created"), replay.response().body());
+        assertEquals(1, store.claims.get());
+        assertEquals(0, store.finds.get());
+    }
+
+    @Test
+    void testResponseCompletedOnAnotherNodeIsReplayedFromTheStore() {
+        gate(store, Duration.ofSeconds(5)).begin("k", "body");
+        store.complete("k", new StoredResponse("body", 200, "application/json", bytes("paid")), LocalDateTime.now().plusHours(1));
+
+        assertEquals(IdempotencyGate.Outcome.REPLAY, gate.begin("k", "body").outcome());
+        assertEquals(IdempotencyGate.Outcome.MISMATCH, gate.begin("k", "other body").outcome());
+    }
+
+    @Test
+    void testKeyReusedWithDifferentBodyIsRejected() {
+        gate.begin("k", "body");
+        gate.complete("k", "body", 201, "application/json", bytes("created"));
+
+        assertEquals(IdempotencyGate.Outcome.MISMATCH, gate.begin("k", "other body").outcome());
+    }
+
+    @Test
+    void testRequestRunningOnAnotherNodeIsReportedInProgress() {
+        gate(store, Duration.ofSeconds(5)).begin("k", "body");
+
+        assertEquals(IdempotencyGate.Outcome.IN_PROGRESS, gate.begin("k", "body").outcome());
+        assertEquals(IdempotencyGate.Outcome.MISMATCH, gate.begin("k", "other body").outcome());
+    }
+
+    @Test
+    void testAbandonedKeyCanBeClaimedAgain() {
+        gate.begin("k", "body");
+        gate.abandon("k");
+
+        assertEquals(IdempotencyGate.Outcome.PROCEED, gate.begin("k", "other body").outcome());
+    }
+
+    @Test
+    void testConcurrentDuplicatesWaitForTheFirstRequest() throws Exception {
+        assertEquals(IdempotencyGate.Outcome.PROCEED, gate.begin("k", "body").outcome());
+
+        int duplicates = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(duplicates);
+        CountDownLatch started = new CountDownLatch(duplicates);
+        try {
+            Future<?>[] results = new Future<?>[duplicates];
+            for (int i = 0; i < duplicates; i++) {
+                results[i] = executor.submit(() -> {
+                    started.countDown();
+                    return gate.begin("k", "body");
+                });
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Thread.sleep(50);
+            gate.complete("k", "body", 201, "application/json", bytes("created"));
+
+            for (Future<?> result : results) {
+                IdempotencyGate.Decision decision = (IdempotencyGate.Decision) result.get(5, TimeUnit.SECONDS);
+                assertEquals(IdempotencyGate.Outcome.REPLAY, decision.outcome());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, store.claims.get());
+    }
+
+    @Test
+    void testWaitingDuplicateTakesOverWhenTheFirstRequestFails() throws Exception {
+        gate.begin("k", "body");
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<IdempotencyGate.Decision> duplicate = executor.submit(() -> gate.begin("k", "body"));
+            Thread.sleep(50);
+            gate.abandon("k");
+
+            assertEquals(IdempotencyGate.Outcome.PROCEED, duplicate.get(5, TimeUnit.SECONDS).outcome());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDuplicateStopsWaitingAfterTimeout() {
+        IdempotencyGate impatient = gate(store, Duration.ofMillis(50));
+        impatient.begin("k", "body");
+
+        assertEquals(IdempotencyGate.Outcome.IN_PROGRESS, impatient.begin("k", "body").outcome());
+    }
+
+    @Test
+    void testStoringTheResponseIsRetried() {
+        gate.begin("k", "body");
+        store.failingCompletes.set(2);
+
+        gate.complete("k", "body", 201, "application/json", bytes("created"));
+
+        assertTrue(store.find("k").orElseThrow().isComplete());
+    }
+
+    @Test
+    void testResponseThatCannotBeStoredFailsButIsReplayedOnThisNode() {
+        gate.begin("k", "body");
+        store.failingCompletes.set(3);
+
+        assertThrows(IllegalStateException.class,
+                () -> gate.complete("k", "body", 201, "application/json", bytes("created")));
+
+        assertEquals(IdempotencyGate.Outcome.REPLAY, gate.begin("k", "body").outcome());
+        assertEquals(IdempotencyGate.Outcome.IN_PROGRESS, gate(store, Duration.ofSeconds(5)).begin("k", "body").outcome());
+    }
+
+    private static IdempotencyGate gate(IdempotencyStore store, Duration waitTimeout) {
+        return new IdempotencyGate(store, Duration.ofHours(1), Duration.ofMinutes(1), waitTimeout, 1 << 20);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static class InMemoryStore implements IdempotencyStore {
+
+        private final Map<String, StoredResponse> entries = new ConcurrentHashMap<>();
+        final AtomicInteger claims = new AtomicInteger();
+        final AtomicInteger finds = new AtomicInteger();
+        final AtomicInteger failingCompletes = new AtomicInteger();
+
+        @Override
+        public boolean claim(String key, String fingerprint, LocalDateTime lockedUntil) {
+            claims.incrementAndGet();
+            return entries.putIfAbsent(key, StoredResponse.inProgress(fingerprint)) == null;
+        }
+
+        @Override
+        public Optional<StoredResponse> find(String key) {
+            finds.incrementAndGet();
+            return Optional.ofNullable(entries.get(key));
+        }
+
+        @Override
+        public void complete(String key, StoredResponse response, LocalDateTime expiresAt) {
+            if (failingCompletes.getAndDecrement() > 0) {
+                throw new IllegalStateException("Store unavailable");
+            }
+            entries.put(key, response);
+        }
+
+        @Override
+        public void release(String key) {
+            entries.remove(key);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.service.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    void testItemsExpireOnTheTickTheirDeadlineFallsIn() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 300);
+
+        assertEquals(List.of(), wheel.advance(299));
+        assertEquals(List.of("a", "b"), wheel.advance(300));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testDeadlinesBeyondOneRevolutionWaitForTheirRound() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 4, 0);
+        wheel.schedule("near", 200);
+        wheel.schedule("far", 600);
+
+        assertEquals(List.of("near"), wheel.advance(200));
+        assertEquals(List.of(), wheel.advance(500));
+        assertEquals(List.of("far"), wheel.advance(600));
+    }
+
+    @Test
+    void testLongGapVisitsEveryBucketOnce() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(10, 4, 0);
+        for (int i = 1; i <= 20; i++) {
+            wheel.schedule(i, i * 10L);
+        }
+
+        assertEquals(20, wheel.advance(10_000).size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testCancelledAndRescheduledItems() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+        wheel.schedule("cancelled", 100);
+        wheel.schedule("moved", 100);
+
+        assertTrue(wheel.cancel("cancelled"));
+        assertFalse(wheel.cancel("cancelled"));
+        wheel.schedule("moved", 500);
+
+        assertEquals(List.of(), wheel.advance(400));
+        assertEquals(List.of("moved"), wheel.advance(500));
+    }
+
+    @Test
+    void testPastDeadlineExpiresOnNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+        wheel.advance(1_000);
+        wheel.schedule("late", 200);
+
+        assertEquals(List.of(), wheel.advance(1_050));
+        assertEquals(List.of("late"), wheel.advance(1_100));
+    }
+}
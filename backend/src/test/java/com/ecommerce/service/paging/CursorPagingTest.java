@@ -0,0 +1,63 @@
+package com.ecommerce.service.paging;
+
+import com.ecommerce.dto.CursorPage;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorPagingTest {
+
+    private static final Set<String> SORT_KEYS = Set.of("createdAt");
+
+    @Test
+    void testContinuationTokenCarriesKeysetPosition() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 10, 30, 5);
+        List<ScrollPosition> positions = new ArrayList<>();
+        List<Sort> sorts = new ArrayList<>();
+
+        CursorPage<String> first = CursorPaging.scroll(null, "createdAt", "desc", 2, SORT_KEYS, (position, limit, sort) -> {
+            positions.add(position);
+            sorts.add(sort);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("createdAt", createdAt);
+            keys.put("id", 42L);
+            return Window.from(List.of("a", "b"), index -> ScrollPosition.forward(keys), true);
+        });
+
+        assertTrue(first.isHasNext());
+        assertNotNull(first.getNextCursor());
+        assertEquals(Sort.by(Sort.Direction.DESC, "createdAt", "id"), sorts.get(0));
+        assertTrue(positions.get(0).isInitial());
+
+        CursorPage<String> second = CursorPaging.scroll(first.getNextCursor(), "ignored", "asc", 2, SORT_KEYS, (position, limit, sort) -> {
+            positions.add(position);
+            sorts.add(sort);
+            return Window.from(List.of("c"), index -> ScrollPosition.keyset(), false);
+        });
+
+        KeysetScrollPosition resumed = (KeysetScrollPosition) positions.get(1);
+        assertEquals(Map.of("createdAt", createdAt, "id", 42L), resumed.getKeys());
+        assertEquals(Sort.by(Sort.Direction.DESC, "createdAt", "id"), sorts.get(1));
+        assertFalse(second.isHasNext());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void testRejectsUnsupportedSortAndTamperedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> CursorPaging.scroll(null, "viewCount", "desc", 10, SORT_KEYS,
+                (position, limit, sort) -> Window.from(List.of(), index -> position, false)));
+        assertThrows(IllegalArgumentException.class, () -> CursorPaging.scroll("not-a-cursor", "createdAt", "desc", 10, SORT_KEYS,
+                (position, limit, sort) -> Window.from(List.of(), index -> position, false)));
+    }
+}
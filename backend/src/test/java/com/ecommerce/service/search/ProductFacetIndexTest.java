@@ -0,0 +1,99 @@
+package com.ecommerce.service.search;
+
+import com.ecommerce.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductFacetIndexTest {
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductFacetIndex(null);
+        index.rebuild(List.of(
+                product("p1", "Electronics", "AudioTech", "79.99", 5, true),
+                product("p2", "Electronics", "AudioTech", "199.00", 0, false),
+                product("p3", "Electronics", "LensCraft", "899.00", 3, false),
+                product("p4", "Sports", "FitTech", "49.99", 12, true)
+        ));
+    }
+
+    @Test
+    void testCombinesFilters() {
+        ProductFilter filter = new ProductFilter();
+        filter.setCategories(List.of("Electronics"));
+        filter.setBrands(List.of("AudioTech"));
+        filter.setInStock(true);
+
+        ProductFacetIndex.FacetResult result = index.filter(filter, null, Sort.by("price"));
+
+        assertEquals(List.of("p1"), result.getProductIds());
+    }
+
+    @Test
+    void testFiltersPriceRangeInsideBuckets() {
+        ProductFilter filter = new ProductFilter();
+        filter.setMinPrice(new BigDecimal("60"));
+        filter.setMaxPrice(new BigDecimal("200"));
+
+        ProductFacetIndex.FacetResult result = index.filter(filter, null, Sort.by(Sort.Direction.DESC, "price"));
+
+        assertEquals(List.of("p2", "p1"), result.getProductIds());
+    }
+
+    @Test
+    void testFacetCountsIgnoreTheirOwnDimension() {
+        ProductFilter filter = new ProductFilter();
+        filter.setBrands(List.of("AudioTech"));
+
+        Map<String, Map<String, Integer>> facets = index.filter(filter, null, Sort.unsorted()).getFacets();
+
+        assertEquals(Map.of("AudioTech", 2, "FitTech", 1, "LensCraft", 1), facets.get(ProductFacetIndex.BRAND));
+        assertEquals(Map.of("Electronics", 2), facets.get(ProductFacetIndex.CATEGORY));
+        assertEquals(1, facets.get(ProductFacetIndex.IN_STOCK).get("true"));
+    }
+
+    @Test
+    void testKeepsSearchOrderAndReflectsUpdates() {
+        Product restocked = product("p2", "Electronics", "AudioTech", "199.00", 4, false);
+        index.index(restocked);
+        index.remove("p3");
+
+        ProductFilter filter = new ProductFilter();
+        filter.setInStock(true);
+
+        ProductFacetIndex.FacetResult result = index.filter(filter, List.of("p3", "p2", "p4", "p1"), Sort.unsorted());
+
+        assertEquals(List.of("p2", "p4", "p1"), result.getProductIds());
+    }
+
+    @Test
+    void testReusesOrdinalsOfRemovedProducts() {
+        index.remove("p3");
+        index.index(product("p5", "Sports", "FitTech", "899.00", 2, false));
+
+        ProductFilter filter = new ProductFilter();
+        filter.setCategories(List.of("Sports"));
+
+        assertEquals(4, index.capacity());
+        assertEquals(List.of("p4", "p5"), index.filter(filter, null, Sort.by("price")).getProductIds());
+        assertEquals(Map.of("Electronics", 2, "Sports", 2),
+                index.filter(new ProductFilter(), null, Sort.unsorted()).getFacets().get(ProductFacetIndex.CATEGORY));
+    }
+
+    private Product product(String id, String category, String brand, String price, int stock, boolean featured) {
+        Product product = new Product("Product " + id, "Description of " + id, new BigDecimal(price), category, brand, "SKU-" + id);
+        product.setId(id);
+        product.setStockQuantity(stock);
+        product.setIsFeatured(featured);
+        return product;
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.service.search;
+
+import com.ecommerce.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(null);
+        index.rebuild(List.of(
+                product("p1", "Wireless Headphones", "Noise cancelling over-ear headphones", List.of("audio")),
+                product("p2", "Running Shoes", "Lightweight shoes for daily running", List.of("sport", "shoes")),
+                product("p3", "Wireless Mouse", "Ergonomic mouse with silent clicks", List.of("computer"))
+        ));
+    }
+
+    @Test
+    void testRanksNameMatchesFirst() {
+        List<String> results = index.search("headphones ");
+
+        assertEquals(List.of("p1"), results);
+        assertTrue(index.isReady());
+    }
+
+    @Test
+    void testRequiresEveryQueryTerm() {
+        assertEquals(List.of("p3"), index.search("wireless mouse "));
+        assertTrue(index.search("wireless shoes ").isEmpty());
+    }
+
+    @Test
+    void testMatchesPartiallyTypedLastTerm() {
+        List<String> results = index.search("wire");
+
+        assertEquals(2, results.size());
+        assertTrue(results.containsAll(List.of("p1", "p3")));
+    }
+
+    @Test
+    void testIndexAndRemoveKeepResultsCurrent() {
+        Product updated = product("p2", "Trail Shoes", "Grippy shoes for mountain trails", List.of());
+        index.index(updated);
+
+        assertEquals(List.of("p2"), index.search("trail "));
+        assertTrue(index.search("running ").isEmpty());
+
+        index.remove("p2");
+
+        assertTrue(index.search("shoes ").isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testSkipsInactiveProducts() {
+        Product inactive = product("p4", "Wireless Speaker", "Portable speaker", List.of());
+        inactive.setIsActive(false);
+        index.index(inactive);
+
+        assertFalse(index.search("speaker ").contains("p4"));
+    }
+
+    private Product product(String id, String name, String description, List<String> tags) {
+        Product product = new Product(name, description, BigDecimal.TEN, "Electronics", "Acme", "SKU-" + id);
+        product.setId(id);
+        product.setTags(tags);
+        return product;
+    }
+}
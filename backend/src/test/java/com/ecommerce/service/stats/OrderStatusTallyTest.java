@@ -0,0 +1,53 @@
+package com.ecommerce.service.stats;
+
+import com.ecommerce.entity.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStatusTallyTest {
+
+    @Test
+    void testDeltasMoveCountAndTotalBetweenStatuses() {
+        OrderStatusTally tally = new OrderStatusTally();
+        tally.add(OrderStatus.PENDING, new BigDecimal("10.00"));
+        tally.add(OrderStatus.PENDING, new BigDecimal("25.50"));
+
+        tally.move(OrderStatus.PENDING, OrderStatus.DELIVERED, new BigDecimal("25.50"));
+
+        OrderStatusTally.Snapshot snapshot = tally.snapshot();
+        assertEquals(1, snapshot.count(OrderStatus.PENDING));
+        assertEquals(new BigDecimal("10.00"), snapshot.total(OrderStatus.PENDING));
+        assertEquals(1, snapshot.count(OrderStatus.DELIVERED));
+        assertEquals(new BigDecimal("25.50"), snapshot.total(OrderStatus.DELIVERED));
+        assertEquals(2, snapshot.totalCount());
+    }
+
+    @Test
+    void testReplaceResetsStatusesMissingFromTheRecount() {
+        OrderStatusTally tally = new OrderStatusTally();
+        tally.add(OrderStatus.CANCELLED, BigDecimal.ONE);
+
+        tally.replace(Map.of(OrderStatus.SHIPPED, new OrderStatusTally.Bucket(3, new BigDecimal("30.00"))));
+
+        OrderStatusTally.Snapshot snapshot = tally.snapshot();
+        assertEquals(0, snapshot.count(OrderStatus.CANCELLED));
+        assertEquals(BigDecimal.ZERO, snapshot.total(OrderStatus.CANCELLED));
+        assertEquals(3, snapshot.count(OrderStatus.SHIPPED));
+        assertEquals(3, snapshot.totalCount());
+    }
+
+    @Test
+    void testSnapshotIsNotAffectedByLaterDeltas() {
+        OrderStatusTally tally = new OrderStatusTally();
+        OrderStatusTally.Snapshot before = tally.snapshot();
+
+        tally.add(OrderStatus.PENDING, null);
+
+        assertEquals(0, before.totalCount());
+        assertEquals(1, tally.snapshot().count(OrderStatus.PENDING));
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.service.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollupRangeTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 15);
+
+    @Test
+    void testWholeDaysComeFromRollupsAndTodayFromRawRows() {
+        RollupRange range = RollupRange.split(LocalDate.of(2024, 6, 1).atStartOfDay(), TODAY.atTime(LocalTime.MAX), TODAY);
+
+        assertEquals(LocalDate.of(2024, 6, 1), range.firstDay());
+        assertEquals(LocalDate.of(2024, 6, 14), range.lastDay());
+        assertEquals(List.of(new RollupRange.Interval(TODAY.atStartOfDay(), TODAY.plusDays(1).atStartOfDay())), range.rawIntervals());
+    }
+
+    @Test
+    void testPartialFirstAndLastDaysAreReadRaw() {
+        LocalDateTime start = LocalDateTime.of(2024, 6, 1, 9, 30);
+        LocalDateTime end = LocalDateTime.of(2024, 6, 10, 18, 0);
+
+        RollupRange range = RollupRange.split(start, end, TODAY);
+
+        assertEquals(LocalDate.of(2024, 6, 2), range.firstDay());
+        assertEquals(LocalDate.of(2024, 6, 9), range.lastDay());
+        assertEquals(List.of(
+                new RollupRange.Interval(start, LocalDate.of(2024, 6, 2).atStartOfDay()),
+                new RollupRange.Interval(LocalDate.of(2024, 6, 10).atStartOfDay(), end.plusNanos(1_000))
+        ), range.rawIntervals());
+    }
+
+    @Test
+    void testRangeWithoutWholeRolledUpDaysIsReadRaw() {
+        LocalDateTime start = LocalDateTime.of(2024, 6, 3, 8, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 6, 4, 8, 0);
+
+        assertFalse(RollupRange.split(start, end, TODAY).hasRollupDays());
+        assertFalse(RollupRange.split(TODAY.atStartOfDay(), TODAY.atTime(LocalTime.MAX), TODAY).hasRollupDays());
+        assertEquals(1, RollupRange.split(start, end, null).rawIntervals().size());
+    }
+
+    @Test
+    void testEmptyRange() {
+        LocalDateTime start = LocalDateTime.of(2024, 6, 3, 8, 0);
+
+        RollupRange range = RollupRange.split(start, start.minusDays(1), TODAY);
+
+        assertFalse(range.hasRollupDays());
+        assertTrue(range.rawIntervals().isEmpty());
+    }
+}
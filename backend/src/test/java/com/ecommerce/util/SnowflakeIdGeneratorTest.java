@@ -0,0 +1,110 @@
+package com.ecommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final long NOW = SnowflakeIdGenerator.EPOCH_MILLIS + 86_400_000L;
+
+    @Test
+    void testIdCarriesTimestampAndWorker() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(42, () -> NOW);
+
+        long id = generator.nextId();
+
+        assertEquals(NOW, SnowflakeIdGenerator.timestampMillis(id));
+        assertEquals(42, SnowflakeIdGenerator.workerId(id));
+    }
+
+    @Test
+    void testIdsIncreaseWithinAndAcrossMilliseconds() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, clock::get);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 1_000 == 0) {
+                clock.incrementAndGet();
+            }
+            long next = generator.nextId();
+            assertTrue(next > previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void testExhaustedSequenceAndClockStepBackKeepCounting() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, clock::get);
+
+        long previous = 0;
+        for (int i = 0; i < 5_000; i++) {
+            long next = generator.nextId();
+            assertTrue(next > previous);
+            previous = next;
+        }
+        // 4096 IDs per millisecond; the rest borrowed from the next one
+        assertEquals(NOW + 1, SnowflakeIdGenerator.timestampMillis(previous));
+
+        clock.set(NOW - 1_000);
+        assertTrue(generator.nextId() > previous);
+    }
+
+    @Test
+    void testEncodedIdsSortInGenerationOrder() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, clock::get);
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            clock.addAndGet(i * 37L);
+            ids.add(generator.nextId("ORD-"));
+        }
+
+        assertEquals(ids, ids.stream().sorted().toList());
+        assertEquals(17, ids.get(0).length());
+        assertTrue(ids.get(0).matches("ORD-[0-9A-HJKMNP-TV-Z]{13}"));
+    }
+
+    @Test
+    void testConcurrentCallersNeverShareAnId() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                tasks.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        ids.add(generator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(80_000, ids.size());
+    }
+
+    @Test
+    void testWorkerIdOutOfRangeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_WORKER_ID + 1));
+    }
+}
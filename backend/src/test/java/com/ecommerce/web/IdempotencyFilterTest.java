@@ -0,0 +1,96 @@
+package com.ecommerce.web;
+
+import com.ecommerce.repository.IdempotencyRecordRepository;
+import com.ecommerce.service.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyFilterTest {
+
+    private final Map<String, Object[]> rows = new ConcurrentHashMap<>();
+    private final IdempotencyFilter filter = new IdempotencyFilter(new IdempotencyService(repository()),
+            new ObjectMapper(), Duration.ofHours(24), Duration.ofMinutes(1), Duration.ofSeconds(1), 1 << 20);
+    private final AtomicInteger handled = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("ann@example.com", null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testFailedRequestIsRunAgainOnRetry() throws Exception {
+        MockHttpServletResponse failed = send(respondWith(HttpServletResponse.SC_BAD_REQUEST, "out of stock"));
+        MockHttpServletResponse retried = send(respondWith(HttpServletResponse.SC_CREATED, "created"));
+
+        assertEquals(400, failed.getStatus());
+        assertEquals(201, retried.getStatus());
+        assertEquals("created", retried.getContentAsString());
+        assertNull(retried.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(2, handled.get());
+    }
+
+    @Test
+    void testSuccessfulRequestIsReplayedOnRetry() throws Exception {
+        send(respondWith(HttpServletResponse.SC_CREATED, "created"));
+        MockHttpServletResponse retried = send(respondWith(HttpServletResponse.SC_CREATED, "created again"));
+
+        assertEquals(201, retried.getStatus());
+        assertEquals("created", retried.getContentAsString());
+        assertEquals("true", retried.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, handled.get());
+    }
+
+    private MockHttpServletResponse send(FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/orders");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "order-1");
+        request.setContent("{\"paymentMethod\":\"CARD\"}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private FilterChain respondWith(int status, String body) {
+        return (request, response) -> {
+            handled.incrementAndGet();
+            request.getInputStream().readAllBytes();
+            ((HttpServletResponse) response).setStatus(status);
+            response.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    // The idempotency_keys table as [fingerprint, status, contentType, body] per key
+    private IdempotencyRecordRepository repository() {
+        return (IdempotencyRecordRepository) Proxy.newProxyInstance(IdempotencyRecordRepository.class.getClassLoader(),
+                new Class<?>[] {IdempotencyRecordRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "claim" -> rows.putIfAbsent((String) args[0], new Object[] {args[1], null, null, null}) == null ? 1 : 0;
+                    case "complete" -> rows.computeIfPresent((String) args[0],
+                            (key, row) -> new Object[] {row[0], args[1], args[2], args[3]}) != null ? 1 : 0;
+                    case "release" -> rows.remove((String) args[0]) != null ? 1 : 0;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}